@@ -0,0 +1,12 @@
+-- ===========================
+-- Archivage de l'historique : compression de task_history_archive
+-- ===========================
+-- La table est créée par Hibernate (ddl-auto=update) au premier démarrage, au format de ligne par défaut.
+-- À passer ensuite une seule fois (innodb_file_per_table=ON, valeur par défaut de MySQL 8) :
+--
+--   mysql -uroot -p pmt < db-init/migrate_history_archive.sql
+--
+-- Après le premier passage de TaskHistoryArchiver, OPTIMIZE TABLE task_history rend au disque
+-- l'espace libéré par les lignes déplacées.
+
+ALTER TABLE task_history_archive ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
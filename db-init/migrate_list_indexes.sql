@@ -0,0 +1,11 @@
+-- ===========================
+-- Listes paginées utilisateurs / membres : index keyset (createdAt, id)
+-- ===========================
+-- Hibernate (ddl-auto=update) crée ces index au démarrage ; sur une base gérée à la main
+-- (ddl-auto=validate / none), à passer une seule fois :
+--
+--   mysql -uroot -p pmt < db-init/migrate_list_indexes.sql
+
+CREATE INDEX idx_users_created ON users (created_at, id);
+CREATE INDEX idx_pm_project_created ON project_members (project_id, created_at, id);
+CREATE INDEX idx_pm_created ON project_members (created_at, id);
@@ -0,0 +1,21 @@
+-- ===========================
+-- Statistiques projet : initialisation de project_task_counters
+-- ===========================
+-- La table est créée par Hibernate (ddl-auto=update) au premier démarrage. À passer ensuite une seule fois,
+-- avant que des tâches ne soient modifiées, sinon les compteurs des projets existants partent de zéro
+-- (le job de réconciliation nocturne les corrige de toute façon) :
+--
+--   mysql -uroot -p pmt < db-init/migrate_project_task_counters.sql
+
+DELETE FROM project_task_counters;
+
+INSERT INTO project_task_counters (project_id, kind, bucket, task_count)
+SELECT project_id, 'status', status, COUNT(*) FROM tasks GROUP BY project_id, status
+UNION ALL
+SELECT project_id, 'priority', priority, COUNT(*) FROM tasks GROUP BY project_id, priority
+UNION ALL
+SELECT project_id, 'assignee', COALESCE(BIN_TO_UUID(assignee_id), 'none'), COUNT(*)
+FROM tasks WHERE status <> 'DONE' GROUP BY project_id, assignee_id
+UNION ALL
+SELECT project_id, 'deadline', DATE_FORMAT(deadline, '%Y-%m-%d'), COUNT(*)
+FROM tasks WHERE status <> 'DONE' AND deadline IS NOT NULL GROUP BY project_id, deadline;
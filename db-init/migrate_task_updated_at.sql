@@ -0,0 +1,11 @@
+-- ===========================
+-- Synchro incrémentale : initialisation de tasks.updated_at
+-- ===========================
+-- La colonne, l'index et la table task_tombstones sont créés par Hibernate (ddl-auto=update)
+-- au premier démarrage. À passer ensuite une seule fois :
+--
+--   mysql -uroot -p pmt < db-init/migrate_task_updated_at.sql
+--
+-- Sans cela, les tâches existantes (updated_at NULL) n'apparaissent pas dans GET .../tasks/changes.
+
+UPDATE tasks SET updated_at = COALESCE(created_at, NOW()) WHERE updated_at IS NULL;
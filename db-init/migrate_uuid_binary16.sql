@@ -0,0 +1,78 @@
+-- ===========================
+-- Migration des identifiants CHAR(36) -> BINARY(16)
+-- ===========================
+-- À passer une seule fois sur une base créée avant le passage en BINARY(16),
+-- backend arrêté, puis redémarrer avec hibernate.type.preferred_uuid_jdbc_type=BINARY.
+--
+--   mysql -uroot -p pmt < db-init/migrate_uuid_binary16.sql
+--
+-- Les valeurs sont conservées (UUID_TO_BIN sans permutation) : les UUID vus par l'API
+-- et les liens déjà envoyés par e-mail restent valides. Seules les nouvelles lignes
+-- bénéficient de l'ordre temporel des UUID v7 générés par l'application.
+
+-- 1) Suppression des clés étrangères (noms générés par Hibernate ou par schema_pmt.sql)
+DROP PROCEDURE IF EXISTS pmt_drop_uuid_fks;
+DELIMITER //
+CREATE PROCEDURE pmt_drop_uuid_fks()
+BEGIN
+    DECLARE done INT DEFAULT 0;
+    DECLARE tbl, fk VARCHAR(64);
+    DECLARE cur CURSOR FOR
+        SELECT TABLE_NAME, CONSTRAINT_NAME
+        FROM information_schema.REFERENTIAL_CONSTRAINTS
+        WHERE CONSTRAINT_SCHEMA = DATABASE()
+          AND TABLE_NAME IN ('projects', 'project_members', 'tasks', 'task_history');
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = 1;
+
+    OPEN cur;
+    drop_loop: LOOP
+        FETCH cur INTO tbl, fk;
+        IF done THEN LEAVE drop_loop; END IF;
+        SET @ddl = CONCAT('ALTER TABLE `', tbl, '` DROP FOREIGN KEY `', fk, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END LOOP;
+    CLOSE cur;
+END //
+DELIMITER ;
+CALL pmt_drop_uuid_fks();
+DROP PROCEDURE pmt_drop_uuid_fks;
+
+-- 2) Conversion en place : CHAR(36) -> VARBINARY(36) (mêmes octets) -> 16 octets -> BINARY(16)
+--    Les index (PK, uq_pm...) sont conservés par MODIFY.
+ALTER TABLE users           MODIFY id VARBINARY(36) NOT NULL;
+ALTER TABLE projects        MODIFY id VARBINARY(36) NOT NULL, MODIFY owner_id VARBINARY(36);
+ALTER TABLE project_members MODIFY id VARBINARY(36) NOT NULL, MODIFY project_id VARBINARY(36) NOT NULL,
+                            MODIFY user_id VARBINARY(36) NOT NULL;
+ALTER TABLE tasks           MODIFY id VARBINARY(36) NOT NULL, MODIFY project_id VARBINARY(36),
+                            MODIFY assignee_id VARBINARY(36);
+ALTER TABLE task_history    MODIFY id VARBINARY(36) NOT NULL, MODIFY task_id VARBINARY(36),
+                            MODIFY changed_by VARBINARY(36);
+
+UPDATE users           SET id = UUID_TO_BIN(id);
+UPDATE projects        SET id = UUID_TO_BIN(id), owner_id = UUID_TO_BIN(owner_id);
+UPDATE project_members SET id = UUID_TO_BIN(id), project_id = UUID_TO_BIN(project_id), user_id = UUID_TO_BIN(user_id);
+UPDATE tasks           SET id = UUID_TO_BIN(id), project_id = UUID_TO_BIN(project_id), assignee_id = UUID_TO_BIN(assignee_id);
+UPDATE task_history    SET id = UUID_TO_BIN(id), task_id = UUID_TO_BIN(task_id), changed_by = UUID_TO_BIN(changed_by);
+
+ALTER TABLE users           MODIFY id BINARY(16) NOT NULL;
+ALTER TABLE projects        MODIFY id BINARY(16) NOT NULL, MODIFY owner_id BINARY(16);
+ALTER TABLE project_members MODIFY id BINARY(16) NOT NULL, MODIFY project_id BINARY(16) NOT NULL,
+                            MODIFY user_id BINARY(16) NOT NULL;
+ALTER TABLE tasks           MODIFY id BINARY(16) NOT NULL, MODIFY project_id BINARY(16),
+                            MODIFY assignee_id BINARY(16);
+ALTER TABLE task_history    MODIFY id BINARY(16) NOT NULL, MODIFY task_id BINARY(16),
+                            MODIFY changed_by BINARY(16);
+
+-- 3) Recréation des clés étrangères
+ALTER TABLE projects        ADD CONSTRAINT fk_projects_owner FOREIGN KEY (owner_id) REFERENCES users(id);
+ALTER TABLE project_members ADD CONSTRAINT fk_pm_project FOREIGN KEY (project_id) REFERENCES projects(id),
+                            ADD CONSTRAINT fk_pm_user FOREIGN KEY (user_id) REFERENCES users(id);
+ALTER TABLE tasks           ADD CONSTRAINT fk_tasks_project FOREIGN KEY (project_id) REFERENCES projects(id),
+                            ADD CONSTRAINT fk_tasks_assignee FOREIGN KEY (assignee_id) REFERENCES users(id);
+ALTER TABLE task_history    ADD CONSTRAINT fk_history_task FOREIGN KEY (task_id) REFERENCES tasks(id),
+                            ADD CONSTRAINT fk_history_changed_by FOREIGN KEY (changed_by) REFERENCES users(id);
+
+-- 4) Reconstruction des index (pages compactées après la réduction des clés)
+OPTIMIZE TABLE users, projects, project_members, tasks, task_history;
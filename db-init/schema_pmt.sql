@@ -1,60 +1,140 @@
+-- Identifiants : UUID stockés en BINARY(16) (cf. hibernate.type.preferred_uuid_jdbc_type).
+-- Base existante en CHAR(36) : voir migrate_uuid_binary16.sql
+
 -- Table users
 CREATE TABLE IF NOT EXISTS users (
-    id CHAR(36) PRIMARY KEY,
+    id BINARY(16) PRIMARY KEY,
     username VARCHAR(255) NOT NULL UNIQUE,
     email VARCHAR(255) NOT NULL UNIQUE,
     password VARCHAR(255) NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- liste paginée (keyset createdAt, id)
+    INDEX idx_users_created (created_at, id)
 );
 
 -- Table projects
 CREATE TABLE IF NOT EXISTS projects (
-    id CHAR(36) PRIMARY KEY,
+    id BINARY(16) PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description TEXT,
     start_date DATE,
-    owner_id CHAR(36),
+    owner_id BINARY(16),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (owner_id) REFERENCES users(id)
 );
 
 -- table des membres de projet
 CREATE TABLE IF NOT EXISTS project_members (
-    id CHAR(36) PRIMARY KEY,
-    project_id CHAR(36) NOT NULL,
-    user_id CHAR(36) NOT NULL,
+    id BINARY(16) PRIMARY KEY,
+    project_id BINARY(16) NOT NULL,
+    user_id BINARY(16) NOT NULL,
     role VARCHAR(20) NOT NULL DEFAULT 'MEMBER',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT fk_pm_project FOREIGN KEY (project_id) REFERENCES projects(id),
     CONSTRAINT fk_pm_user FOREIGN KEY (user_id) REFERENCES users(id),
-    CONSTRAINT uq_pm UNIQUE (project_id, user_id)
+    CONSTRAINT uq_pm UNIQUE (project_id, user_id),
+    -- listes paginées (keyset createdAt, id) : d'un projet, de tous
+    INDEX idx_pm_project_created (project_id, created_at, id),
+    INDEX idx_pm_created (created_at, id)
 );
 
 -- Table tasks
 CREATE TABLE IF NOT EXISTS tasks (
-    id CHAR(36) PRIMARY KEY,
+    id BINARY(16) PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
     description TEXT,
     status ENUM('TODO', 'IN_PROGRESS', 'DONE') NOT NULL,
     priority ENUM('LOW', 'MEDIUM', 'HIGH') NOT NULL,
     deadline DATE,
     end_date DATE,
-    project_id CHAR(36),
-    assignee_id CHAR(36),
+    project_id BINARY(16),
+    assignee_id BINARY(16),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME(6),
+    -- verrou optimiste (@Version), renvoyé par les clients dans If-Match sur PATCH
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (project_id) REFERENCES projects(id),
-    FOREIGN KEY (assignee_id) REFERENCES users(id)
+    FOREIGN KEY (assignee_id) REFERENCES users(id),
+    -- pagination keyset de la liste des tâches d'un projet
+    INDEX idx_tasks_project_created (project_id, created_at, id),
+    -- filtres serveur du board (statut/priorité, plage d'échéance)
+    INDEX idx_tasks_project_status_priority (project_id, status, priority),
+    INDEX idx_tasks_project_deadline (project_id, deadline),
+    -- synchro incrémentale (GET .../tasks/changes)
+    INDEX idx_tasks_project_updated (project_id, updated_at, id)
+);
+
+-- Table project_versions (compteur d'écritures par projet, source des ETag des lectures)
+CREATE TABLE IF NOT EXISTS project_versions (
+    project_id BINARY(16) PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL
+);
+
+-- Table project_task_counters (statistiques du tableau de bord, cf. ProjectTaskCounters)
+-- kind : status | priority | assignee (tâches non terminées, 'none' = non assignées) | deadline (non terminées)
+CREATE TABLE IF NOT EXISTS project_task_counters (
+    project_id BINARY(16) NOT NULL,
+    kind VARCHAR(16) NOT NULL,
+    bucket VARCHAR(64) NOT NULL,
+    task_count BIGINT NOT NULL,
+    PRIMARY KEY (project_id, kind, bucket)
 );
 
 -- Table task_history
 CREATE TABLE IF NOT EXISTS task_history (
-    id CHAR(36) PRIMARY KEY,
-    task_id CHAR(36),
-    changed_by CHAR(36),
+    id BINARY(16) PRIMARY KEY,
+    task_id BINARY(16),
+    changed_by BINARY(16),
+    -- action (CREATED, UPDATED) ; journal texte complet pour les lignes antérieures à "changes"
     change_log TEXT NOT NULL,
+    -- champs modifiés, descriptions en diff compact (cf. TaskFieldChange)
+    changes JSON,
     changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (task_id) REFERENCES tasks(id),
-    FOREIGN KEY (changed_by) REFERENCES users(id)
+    FOREIGN KEY (changed_by) REFERENCES users(id),
+    -- historique paginé (keyset changed_at, id), par tâche puis global
+    INDEX idx_history_task_changed (task_id, changed_at, id),
+    INDEX idx_history_changed (changed_at, id)
+);
+
+-- Table task_history_archive (historique ancien, déplacé par TaskHistoryArchiver ; compressée, sans FK)
+CREATE TABLE IF NOT EXISTS task_history_archive (
+    id BINARY(16) PRIMARY KEY,
+    task_id BINARY(16) NOT NULL,
+    changed_by BINARY(16),
+    change_log TEXT NOT NULL,
+    changes JSON,
+    changed_at TIMESTAMP NULL,
+    -- historique paginé (keyset changed_at, id), par tâche puis global
+    INDEX idx_history_archive_task_changed (task_id, changed_at, id),
+    INDEX idx_history_archive_changed (changed_at, id)
+) ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+
+-- Table task_tombstones (tâches supprimées, pour la synchro incrémentale)
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id BINARY(16) PRIMARY KEY,
+    project_id BINARY(16) NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    INDEX idx_tombstones_project_deleted (project_id, deleted_at)
+);
+
+-- Table mail_outbox (e-mails en attente d'envoi par le MailOutboxDispatcher)
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id BINARY(16) PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    digest BOOLEAN NOT NULL DEFAULT FALSE,
+    items INT NOT NULL DEFAULT 1,
+    status ENUM('PENDING', 'SENDING', 'SENT', 'FAILED') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6),
+    sent_at DATETIME(6),
+    INDEX idx_outbox_due (status, next_attempt_at),
+    INDEX idx_outbox_recipient (recipient, status)
 );
 
 -- ===========================
@@ -64,13 +144,13 @@ CREATE TABLE IF NOT EXISTS task_history (
 -- Utilisateurs
 INSERT INTO users (id, username, email, password)
 VALUES
-(UUID(), 'alice', 'alice@example.com', 'password123'),
-(UUID(), 'bob', 'bob@example.com', 'password456');
+(UUID_TO_BIN(UUID()), 'alice', 'alice@example.com', 'password123'),
+(UUID_TO_BIN(UUID()), 'bob', 'bob@example.com', 'password456');
 
 -- Projets
 INSERT INTO projects (id, name, description, start_date, owner_id)
 VALUES (
-  UUID(),
+  UUID_TO_BIN(UUID()),
   'PMT Project',
   'Project Management Tool prototype',
   CURDATE(),
@@ -80,17 +160,17 @@ VALUES (
 -- Membres du projet
 INSERT INTO project_members (id, user_id, project_id, role)
 VALUES
-(UUID(), (SELECT id FROM users WHERE username = 'alice'), (SELECT id FROM projects WHERE name = 'PMT Project'), 'ADMIN'),
-(UUID(), (SELECT id FROM users WHERE username = 'bob'), (SELECT id FROM projects WHERE name = 'PMT Project'), 'MEMBER');
+(UUID_TO_BIN(UUID()), (SELECT id FROM users WHERE username = 'alice'), (SELECT id FROM projects WHERE name = 'PMT Project'), 'ADMIN'),
+(UUID_TO_BIN(UUID()), (SELECT id FROM users WHERE username = 'bob'), (SELECT id FROM projects WHERE name = 'PMT Project'), 'MEMBER');
 
 -- Tâches
 INSERT INTO tasks (id, title, description, status, priority, deadline, project_id, assignee_id)
 VALUES
-(UUID(), 'Setup backend', 'Configure Spring Boot and MySQL connection', 'IN_PROGRESS', 'HIGH', CURDATE() + INTERVAL 7 DAY, (SELECT id FROM projects WHERE name = 'PMT Project'), (SELECT id FROM users WHERE username = 'alice')),
-(UUID(), 'Create frontend', 'Build basic Angular structure', 'TODO', 'MEDIUM', CURDATE() + INTERVAL 10 DAY, (SELECT id FROM projects WHERE name = 'PMT Project'), (SELECT id FROM users WHERE username = 'bob'));
+(UUID_TO_BIN(UUID()), 'Setup backend', 'Configure Spring Boot and MySQL connection', 'IN_PROGRESS', 'HIGH', CURDATE() + INTERVAL 7 DAY, (SELECT id FROM projects WHERE name = 'PMT Project'), (SELECT id FROM users WHERE username = 'alice')),
+(UUID_TO_BIN(UUID()), 'Create frontend', 'Build basic Angular structure', 'TODO', 'MEDIUM', CURDATE() + INTERVAL 10 DAY, (SELECT id FROM projects WHERE name = 'PMT Project'), (SELECT id FROM users WHERE username = 'bob'));
 
 -- Historique des tâches
 INSERT INTO task_history (id, task_id, changed_by, change_log)
 VALUES
-(UUID(), (SELECT id FROM tasks WHERE title = 'Setup backend'), (SELECT id FROM users WHERE username = 'alice'), 'Initial setup done');
+(UUID_TO_BIN(UUID()), (SELECT id FROM tasks WHERE title = 'Setup backend'), (SELECT id FROM users WHERE username = 'alice'), 'Initial setup done');
 
@@ -0,0 +1,66 @@
+package com.codesolutions.pmt_backend.Controller;
+
+import com.codesolutions.pmt_backend.DTO.CursorPageDTO;
+import com.codesolutions.pmt_backend.DTO.TaskHistoryDTO;
+import com.codesolutions.pmt_backend.Repository.TaskHistoryFilter;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Paramètres communs des historiques paginés (GET .../tasks/{taskId}/history et GET /api/task-history).
+ * Curseur keyset sur (changedAt, id), clé "history" : un curseur d'une autre liste est refusé.
+ */
+record HistoryQuery(TaskHistoryFilter filter, @Nullable KeysetCursor after, int limit) {
+
+    private static final String CURSOR_KEY = "history";
+
+    /** Aucun paramètre : réponse historique complète (compatibilité front). */
+    static boolean isLegacy(Object... params) {
+        for (Object p : params) if (p != null) return false;
+        return true;
+    }
+
+    /**
+     * from / to : date-heure ISO (2025-03-01T08:00) ou date seule (minuit) ; intervalle [from, to[.
+     * @throws IllegalArgumentException si une date est illisible ou l'intervalle vide
+     */
+    static TaskHistoryFilter filter(@Nullable UUID taskId, @Nullable UUID changedBy,
+                                    @Nullable String from, @Nullable String to) {
+        LocalDateTime f = parseDateTime(from);
+        LocalDateTime t = parseDateTime(to);
+        if (f != null && t != null && !f.isBefore(t)) throw new IllegalArgumentException("from must be before to");
+        return new TaskHistoryFilter(taskId, changedBy, f, t);
+    }
+
+    /** @throws IllegalArgumentException si limit ou curseur invalide */
+    static HistoryQuery of(TaskHistoryFilter filter, @Nullable Integer limit, @Nullable String after) {
+        int size = KeysetCursor.clampLimit(limit);
+        KeysetCursor cursor = (after == null || after.isBlank()) ? null : KeysetCursor.decode(after);
+        if (cursor != null && !CURSOR_KEY.equals(cursor.key())) throw new IllegalArgumentException("Invalid cursor");
+        return new HistoryQuery(filter, cursor, size);
+    }
+
+    @Nullable LocalDateTime afterChangedAt() { return after == null ? null : after.at(); }
+    @Nullable UUID afterId() { return after == null ? null : after.id(); }
+
+    /** rows : limit + 1 lignes lues, la dernière ne sert qu'à savoir s'il existe une page suivante. */
+    CursorPageDTO<TaskHistoryDTO> page(List<TaskHistoryDTO> rows) {
+        if (rows.size() <= limit) return new CursorPageDTO<>(rows, null);
+        rows = rows.subList(0, limit);
+        TaskHistoryDTO last = rows.get(limit - 1);
+        return new CursorPageDTO<>(rows, new KeysetCursor(CURSOR_KEY, last.changedAt(), last.id()).encode());
+    }
+
+    private static LocalDateTime parseDateTime(@Nullable String s) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            return s.contains("T") ? LocalDateTime.parse(s) : LocalDate.parse(s).atStartOfDay();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid date: " + s);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.codesolutions.pmt_backend.Controller;
+
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Curseur opaque de pagination keyset : (clé de tri?, horodatage, id) encodé en base64 URL-safe.
+ * Le client ne doit jamais l'interpréter, seulement le renvoyer tel quel dans "after".
+ */
+record KeysetCursor(@Nullable String key, LocalDateTime at, UUID id) {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    KeysetCursor(LocalDateTime at, UUID id) {
+        this(null, at, id);
+    }
+
+    String encode() {
+        String raw = (key == null ? "" : key) + "|" + at + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException si le curseur est illisible */
+    static KeysetCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3) throw new IllegalArgumentException();
+            return new KeysetCursor(parts[0].isEmpty() ? null : parts[0],
+                    LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /** Borne la taille de page demandée ; null => taille par défaut. */
+    static int clampLimit(Integer limit) {
+        return clampLimit(limit, DEFAULT_LIMIT, MAX_LIMIT);
+    }
+
+    static int clampLimit(Integer limit, int defaultLimit, int maxLimit) {
+        if (limit == null) return defaultLimit;
+        if (limit < 1) throw new IllegalArgumentException("limit must be >= 1");
+        return Math.min(limit, maxLimit);
+    }
+}
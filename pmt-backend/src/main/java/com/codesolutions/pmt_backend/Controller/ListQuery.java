@@ -0,0 +1,54 @@
+package com.codesolutions.pmt_backend.Controller;
+
+import com.codesolutions.pmt_backend.DTO.CursorPageDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Pagination des listes simples (utilisateurs, membres) : curseur keyset sur (createdAt, id), dans l'ordre
+ * de création. La clé du curseur identifie la liste : un curseur d'une autre liste est refusé.
+ */
+record ListQuery(String key, @Nullable KeysetCursor after, int limit) {
+
+    /** @throws IllegalArgumentException si limit ou curseur invalide */
+    static ListQuery of(String key, @Nullable Integer limit, @Nullable String after) {
+        int size = KeysetCursor.clampLimit(limit);
+        KeysetCursor cursor = (after == null || after.isBlank()) ? null : KeysetCursor.decode(after);
+        if (cursor != null && !key.equals(cursor.key())) throw new IllegalArgumentException("Invalid cursor");
+        return new ListQuery(key, cursor, size);
+    }
+
+    @Nullable LocalDateTime afterCreatedAt() { return after == null ? null : after.at(); }
+    @Nullable UUID afterId() { return after == null ? null : after.id(); }
+
+    /**
+     * Liste sans limit ni after (ancien contrat "tableau complet", déprécié) : tableau plafonné à max lignes ;
+     * au-delà, en-tête Link rel="next" vers la suite en pagination keyset. rows : max + 1 lignes lues.
+     */
+    static <T> ResponseEntity<List<T>> unpaged(String key, List<T> rows, int max,
+                                               Function<T, LocalDateTime> createdAt, Function<T, UUID> id) {
+        if (rows.size() <= max) return ResponseEntity.ok(rows);
+        rows = rows.subList(0, max);
+        T last = rows.get(max - 1);
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", new KeysetCursor(key, createdAt.apply(last), id.apply(last)).encode())
+                .replaceQueryParam("limit", KeysetCursor.MAX_LIMIT)
+                .encode().toUriString();
+        return ResponseEntity.ok().header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"").body(rows);
+    }
+
+    /** rows : limit + 1 lignes lues, la dernière ne sert qu'à savoir s'il existe une page suivante. */
+    <T> CursorPageDTO<T> page(List<T> rows, Function<T, LocalDateTime> createdAt, Function<T, UUID> id) {
+        if (rows.size() <= limit) return new CursorPageDTO<>(rows, null);
+        rows = rows.subList(0, limit);
+        T last = rows.get(limit - 1);
+        return new CursorPageDTO<>(rows, new KeysetCursor(key, createdAt.apply(last), id.apply(last)).encode());
+    }
+}
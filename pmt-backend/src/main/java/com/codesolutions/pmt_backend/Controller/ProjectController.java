@@ -1,17 +1,28 @@
 package com.codesolutions.pmt_backend.Controller;
 
 import com.codesolutions.pmt_backend.DTO.ProjectDTO;
+import com.codesolutions.pmt_backend.DTO.ProjectInviteItemDTO;
+import com.codesolutions.pmt_backend.DTO.ProjectInviteResultDTO;
 import com.codesolutions.pmt_backend.DTO.ProjectMemberDTO;
+import com.codesolutions.pmt_backend.DTO.ProjectStatsDTO;
+import com.codesolutions.pmt_backend.DTO.UserSummaryDTO;
 import com.codesolutions.pmt_backend.Entity.Project;
 import com.codesolutions.pmt_backend.Entity.ProjectMember;
 import com.codesolutions.pmt_backend.Entity.User;
 import com.codesolutions.pmt_backend.Repository.ProjectMemberRepository;
 import com.codesolutions.pmt_backend.Repository.ProjectRepository;
 import com.codesolutions.pmt_backend.Repository.UserRepository;
+import com.codesolutions.pmt_backend.Service.ProjectMembershipResolver;
 import com.codesolutions.pmt_backend.Service.ProjectService;
+import com.codesolutions.pmt_backend.Service.ProjectTaskCounters;
+import com.codesolutions.pmt_backend.Service.ProjectVersions;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -23,19 +34,32 @@ import java.util.*;
 @CrossOrigin(origins = {"http://localhost:4200", "http://127.0.0.1:*"})
 public class ProjectController {
 
+    private static final String MEMBERS_CURSOR_KEY = "members";
+    // Même plafond que l'import en masse des tâches : requêtes IN et batch JDBC de même taille
+    static final int BULK_INVITE_MAX_ITEMS = TaskController.BULK_MAX_ITEMS;
+
     private final ProjectService projectService;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final ProjectMemberRepository memberRepository;
+    private final ProjectVersions projectVersions;
+    private final ProjectTaskCounters taskCounters;
+    private final ProjectMembershipResolver membership;
 
     public ProjectController(ProjectService projectService,
                              ProjectRepository projectRepository,
                              UserRepository userRepository,
-                             ProjectMemberRepository memberRepository) {
+                             ProjectMemberRepository memberRepository,
+                             ProjectVersions projectVersions,
+                             ProjectTaskCounters taskCounters,
+                             ProjectMembershipResolver membership) {
         this.projectService = projectService;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.memberRepository = memberRepository;
+        this.projectVersions = projectVersions;
+        this.taskCounters = taskCounters;
+        this.membership = membership;
     }
 
     // ---------- DTOs d'entrée ----------
@@ -81,14 +105,32 @@ public class ProjectController {
     }
 
     // ---------- Endpoints lecture ----------
+    // ETag dérivé de project_versions : If-None-Match à jour => 304 sans relire les projets
     @GetMapping
-    public List<ProjectDTO> getAllProjects() {
-        return projectService.getAllProjectsDto();
+    public ResponseEntity<List<ProjectDTO>> getAllProjects(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        VersionTag tag = VersionTag.ofDirectory(projectVersions.directory());
+        return tag.matches(ifNoneMatch) ? tag.notModified() : tag.ok(projectService.getAllProjectsDto());
     }
 
     @GetMapping("/{id}")
-    public ProjectDTO getProjectById(@PathVariable UUID id) {
-        return projectService.getProjectDtoById(id);
+    public ResponseEntity<ProjectDTO> getProjectById(@PathVariable UUID id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        VersionTag tag = VersionTag.of(id, projectVersions.read(id));
+        if (projectRepository.existsById(id) && tag.matches(ifNoneMatch)) { // existence : lecture en cache
+            return tag.notModified();
+        }
+        return tag.ok(projectService.getProjectDtoById(id));
+    }
+
+    // Tableau de bord : lu dans les compteurs project_task_counters, sans parcourir les tâches
+    @GetMapping("/{projectId}/stats")
+    public ResponseEntity<?> stats(@PathVariable UUID projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
+        }
+        ProjectStatsDTO stats = taskCounters.read(projectId, LocalDate.now());
+        return ResponseEntity.ok(stats);
     }
 
     // ---------- Création ----------
@@ -99,14 +141,13 @@ public class ProjectController {
                     .body(Map.of("error", "Invalid payload", "details", "name(min 3) et ownerId requis"));
         }
 
-        Optional<User> ownerOpt = userRepository.findById(req.ownerId);
-        if (ownerOpt.isEmpty()) {
+        if (!userRepository.existsById(req.ownerId)) { // lecture en cache
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Owner not found"));
         }
 
         try {
-            User owner = ownerOpt.get();
+            User owner = userRepository.getReferenceById(req.ownerId);
             Project p = new Project();
             p.setName(req.name.trim());
             p.setDescription(req.description);
@@ -114,6 +155,7 @@ public class ProjectController {
             p.setOwner(owner);
 
             Project saved = projectRepository.save(p);
+            projectVersions.bump(saved.getId()); // la liste des projets change
             return ResponseEntity.created(URI.create("/api/projects/" + saved.getId()))
                     .body(toDto(saved));
         } catch (DataIntegrityViolationException ex) {
@@ -126,13 +168,28 @@ public class ProjectController {
     }
 
     // ---------- Membres ----------
+    // Projection DTO (membre + utilisateur en une requête). Sans limit ni after : tableau complet
+    // (compatibilité front) ; avec l'un des deux : page keyset (createdAt, id) + "nextCursor".
     @GetMapping("/{projectId}/members")
-    public ResponseEntity<?> listMembers(@PathVariable UUID projectId) {
-        Optional<Project> p = projectRepository.findById(projectId);
-        if (p.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
-
-        List<ProjectMember> members = memberRepository.findByProject(p.get());
-        return ResponseEntity.ok(members.stream().map(this::toMemberDto).toList());
+    public ResponseEntity<?> listMembers(@PathVariable UUID projectId,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String after) {
+        if (!projectRepository.existsById(projectId)) { // lecture en cache
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
+        }
+        if (limit == null && after == null) {
+            return ResponseEntity.ok(memberRepository.findDtoByProjectId(projectId));
+        }
+        final ListQuery q;
+        try {
+            q = ListQuery.of(MEMBERS_CURSOR_KEY, limit, after);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid pagination", "details", iae.getMessage()));
+        }
+        List<ProjectMemberDTO> rows = (q.after() == null)
+                ? memberRepository.findDtoPageByProjectId(projectId, Limit.of(q.limit() + 1))
+                : memberRepository.findDtoPageByProjectIdAfter(projectId, q.afterCreatedAt(), q.afterId(), Limit.of(q.limit() + 1));
+        return ResponseEntity.ok(q.page(rows, ProjectMemberDTO::createdAt, ProjectMemberDTO::id));
     }
 
     @PostMapping("/{projectId}/invite")
@@ -141,17 +198,18 @@ public class ProjectController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Email required"));
         }
 
-        Optional<Project> pOpt = projectRepository.findById(projectId);
-        if (pOpt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
+        if (!projectRepository.existsById(projectId)) { // lecture en cache
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
+        }
 
-        Optional<User> uOpt = userRepository.findByEmail(req.email.trim());
-        if (uOpt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "User not found"));
+        Optional<UUID> userId = userRepository.findIdByEmail(req.email.trim()); // lecture en cache
+        if (userId.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "User not found"));
 
         try {
-            Project p = pOpt.get();
-            User u = uOpt.get();
+            Project p = projectRepository.getReferenceById(projectId);
+            User u = userRepository.getReferenceById(userId.get());
 
-            if (memberRepository.existsByProject_IdAndUser_Id(p.getId(), u.getId())) {
+            if (membership.isMember(projectId, u.getId())) { // lecture en cache
                 return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Already a member"));
             }
 
@@ -161,6 +219,7 @@ public class ProjectController {
             if (req.role != null && !req.role.isBlank()) m.setRole(req.role.trim());
 
             ProjectMember saved = memberRepository.save(m);
+            projectVersions.bump(p.getId());
 
             return ResponseEntity.created(URI.create("/api/projects/" + p.getId() + "/members"))
                     .body(toMemberDto(saved));
@@ -172,4 +231,98 @@ public class ProjectController {
                     .body(Map.of("error", "Invite failed", "details", ex.getMessage()));
         }
     }
+
+    // Invitation en masse (onboarding d'une équipe) : une transaction, utilisateurs résolus en un
+    // SELECT ... IN, appartenances existantes en un autre, puis INSERT groupés en batch JDBC.
+    // Une entrée invalide ou inconnue est signalée dans le rapport ; les autres sont invitées.
+    @PostMapping("/{projectId}/invite/bulk")
+    @Transactional
+    public ResponseEntity<?> inviteBulk(@PathVariable UUID projectId, @RequestBody List<InviteRequest> reqs) {
+        if (reqs == null || reqs.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid payload", "details", "empty list"));
+        }
+        if (reqs.size() > BULK_INVITE_MAX_ITEMS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid payload", "details", "max " + BULK_INVITE_MAX_ITEMS + " items"));
+        }
+        if (!projectRepository.existsById(projectId)) { // lecture en cache
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
+        }
+
+        // --- Préchargements
+        Set<String> emails = new HashSet<>();
+        for (InviteRequest r : reqs) {
+            if (r != null && r.email != null && !r.email.isBlank()) emails.add(r.email.trim());
+        }
+        Map<String, UUID> userIdByEmail = new HashMap<>(); // clé en minuscules : collation MySQL insensible à la casse
+        if (!emails.isEmpty()) {
+            for (UserSummaryDTO u : userRepository.findSummariesByEmailIn(emails)) userIdByEmail.put(emailKey(u.email()), u.id());
+        }
+        Map<UUID, UUID> memberIdByUser = new HashMap<>();
+        if (!userIdByEmail.isEmpty()) {
+            for (ProjectMemberDTO m : memberRepository.findDtoByProjectIdAndUserIdIn(projectId, userIdByEmail.values())) {
+                memberIdByUser.put(m.userId(), m.id());
+            }
+        }
+
+        // --- Application
+        List<ProjectInviteItemDTO> items = new ArrayList<>(reqs.size());
+        Map<UUID, ProjectMember> invitedByUser = new LinkedHashMap<>();
+        int invited = 0, alreadyMembers = 0, failed = 0;
+        for (int i = 0; i < reqs.size(); i++) {
+            InviteRequest r = reqs.get(i);
+            String email = (r == null || r.email == null) ? null : r.email.trim();
+            if (email == null || email.isEmpty()) {
+                items.add(new ProjectInviteItemDTO(i, email, "ERROR", null, "Email required"));
+                failed++;
+                continue;
+            }
+            UUID userId = userIdByEmail.get(emailKey(email));
+            if (userId == null) {
+                items.add(new ProjectInviteItemDTO(i, email, "ERROR", null, "User not found"));
+                failed++;
+                continue;
+            }
+            // Déjà membre, ou invité plus haut dans la même requête
+            if (memberIdByUser.containsKey(userId) || invitedByUser.containsKey(userId)) {
+                items.add(new ProjectInviteItemDTO(i, email, "ALREADY_MEMBER", memberIdByUser.get(userId), null));
+                alreadyMembers++;
+                continue;
+            }
+            ProjectMember m = new ProjectMember();
+            m.setProject(projectRepository.getReferenceById(projectId));
+            m.setUser(userRepository.getReferenceById(userId)); // référence : pas de SELECT de l'utilisateur
+            if (r.role != null && !r.role.isBlank()) m.setRole(r.role.trim());
+            invitedByUser.put(userId, m);
+            items.add(new ProjectInviteItemDTO(i, email, "INVITED", null, null));
+            invited++;
+        }
+
+        try {
+            if (!invitedByUser.isEmpty()) {
+                memberRepository.saveAll(invitedByUser.values());
+                memberRepository.flush();
+                projectVersions.bump(projectId);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            // invitation concurrente du même utilisateur : rien n'est enregistré, le client peut rejouer
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Integrity violation", "details", ex.getMostSpecificCause().getMessage()));
+        }
+
+        // Ids des invitations : connus seulement après persist
+        for (int k = 0; k < items.size(); k++) {
+            ProjectInviteItemDTO it = items.get(k);
+            if (it.memberId() == null && !"ERROR".equals(it.result())) {
+                UUID memberId = invitedByUser.get(userIdByEmail.get(emailKey(it.email()))).getId();
+                items.set(k, new ProjectInviteItemDTO(it.index(), it.email(), it.result(), memberId, null));
+            }
+        }
+        return ResponseEntity.ok(new ProjectInviteResultDTO(invited, alreadyMembers, failed, items));
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
 }
@@ -1,25 +1,50 @@
 package com.codesolutions.pmt_backend.Controller;
 
+import com.codesolutions.pmt_backend.DTO.ProjectMemberDTO;
 import com.codesolutions.pmt_backend.Entity.ProjectMember;
 import com.codesolutions.pmt_backend.Service.ProjectMemberService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/project-members")
 public class ProjectMemberController {
 
+    private static final String CURSOR_KEY = "members";
+
     private final ProjectMemberService service;
 
+    @Value("${app.lists.unpaged-max:1000}")
+    private int unpagedMax;
+
     public ProjectMemberController(ProjectMemberService service) {
         this.service = service;
     }
 
+    // Avec projectId, limit ou after : page keyset (createdAt, id) de ProjectMemberDTO, utilisateur joint
+    // dans la même requête. Sans paramètre (déprécié, compatibilité) : tableau de ProjectMemberDTO plafonné
+    // à app.lists.unpaged-max, suite annoncée par un en-tête Link rel="next".
     @GetMapping
-    public List<ProjectMember> getAll() {
-        return service.getAll();
+    public ResponseEntity<?> getAll(@RequestParam(required = false) UUID projectId,
+                                    @RequestParam(required = false) Integer limit,
+                                    @RequestParam(required = false) String after) {
+        if (projectId == null && limit == null && after == null) {
+            return ListQuery.unpaged(CURSOR_KEY, service.listDtos(null, null, null, unpagedMax + 1),
+                    unpagedMax, ProjectMemberDTO::createdAt, ProjectMemberDTO::id);
+        }
+        final ListQuery q;
+        try {
+            q = ListQuery.of(CURSOR_KEY, limit, after);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid pagination", "details", iae.getMessage()));
+        }
+        List<ProjectMemberDTO> rows = service.listDtos(projectId, q.afterCreatedAt(), q.afterId(), q.limit() + 1);
+        return ResponseEntity.ok(q.page(rows, ProjectMemberDTO::createdAt, ProjectMemberDTO::id));
     }
 
     @PostMapping
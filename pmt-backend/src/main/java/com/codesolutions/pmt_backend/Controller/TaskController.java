@@ -1,22 +1,51 @@
 package com.codesolutions.pmt_backend.Controller;
 
+import com.codesolutions.pmt_backend.DTO.CursorPageDTO;
+import com.codesolutions.pmt_backend.DTO.TaskBulkItemDTO;
+import com.codesolutions.pmt_backend.DTO.TaskBoardDTO;
+import com.codesolutions.pmt_backend.DTO.TaskBulkResultDTO;
+import com.codesolutions.pmt_backend.DTO.TaskChangesDTO;
 import com.codesolutions.pmt_backend.DTO.TaskDTO;
-import com.codesolutions.pmt_backend.DTO.TaskHistoryDTO;
 import com.codesolutions.pmt_backend.Entity.*;
 import com.codesolutions.pmt_backend.Repository.ProjectRepository;
+import com.codesolutions.pmt_backend.Repository.TaskBoardRow;
+import com.codesolutions.pmt_backend.Repository.TaskFilter;
+import com.codesolutions.pmt_backend.Repository.TaskHistoryFilter;
 import com.codesolutions.pmt_backend.Repository.TaskHistoryRepository;
+import com.codesolutions.pmt_backend.Repository.TaskKeyset;
 import com.codesolutions.pmt_backend.Repository.TaskRepository;
+import com.codesolutions.pmt_backend.Repository.TaskSort;
+import com.codesolutions.pmt_backend.Repository.TaskTombstoneRepository;
 import com.codesolutions.pmt_backend.Repository.UserRepository;
 import com.codesolutions.pmt_backend.Service.MailService;
+import com.codesolutions.pmt_backend.Service.ProjectTaskCounters;
+import com.codesolutions.pmt_backend.Service.ProjectVersions;
+import com.codesolutions.pmt_backend.Service.TaskChangedEvent;
+import com.codesolutions.pmt_backend.Service.TaskEventBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping({"/api/projects/{projectId}/tasks", "/projects/{projectId}/tasks"})
@@ -27,18 +56,51 @@ public class TaskController {
     private final ProjectRepository projectRepo;
     private final UserRepository userRepo;
     private final TaskHistoryRepository historyRepo;
+    private final TaskTombstoneRepository tombstoneRepo;
+    private final ProjectVersions projectVersions;
+    private final ProjectTaskCounters counters;
     private final MailService mailService;
+    private final TaskEventBroadcaster broadcaster;
+    private final ApplicationEventPublisher events;
+    // Relecture de l'état courant après un conflit de version : hors de la transaction annulée
+    private final TransactionTemplate freshReadTx;
+
+    // Recouvrement du curseur de synchro : couvre les transactions qui committent après la lecture
+    // avec un updatedAt antérieur (les doublons sont sans effet côté client)
+    @Value("${app.sync.overlap-ms:5000}")
+    private long syncOverlapMs;
+
+    @Value("${app.sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    // Plafond de la liste non paginée (ancien contrat "tableau complet", déprécié)
+    @Value("${app.tasks.unpaged-max:1000}")
+    private int unpagedMax;
 
     public TaskController(TaskRepository taskRepo,
                           ProjectRepository projectRepo,
                           UserRepository userRepo,
                           TaskHistoryRepository historyRepo,
-                          MailService mailService) {
+                          TaskTombstoneRepository tombstoneRepo,
+                          ProjectVersions projectVersions,
+                          ProjectTaskCounters counters,
+                          MailService mailService,
+                          TaskEventBroadcaster broadcaster,
+                          ApplicationEventPublisher events,
+                          PlatformTransactionManager txManager) {
         this.taskRepo = taskRepo;
         this.projectRepo = projectRepo;
         this.userRepo = userRepo;
         this.historyRepo = historyRepo;
+        this.tombstoneRepo = tombstoneRepo;
+        this.projectVersions = projectVersions;
+        this.counters = counters;
         this.mailService = mailService;
+        this.broadcaster = broadcaster;
+        this.events = events;
+        this.freshReadTx = new TransactionTemplate(txManager);
+        this.freshReadTx.setReadOnly(true);
+        this.freshReadTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     public static class TaskRequest {
@@ -51,12 +113,40 @@ public class TaskController {
         public UUID assigneeId;    // optionnel
         public String assigneeEmail; // optionnel
         public UUID changedBy;     // optionnel: pour tracer qui modifie
+        public UUID id;            // bulk uniquement : présent => mise à jour de cette tâche
     }
 
+    static final int BULK_MAX_ITEMS = 1000;
+    static final int BOARD_DEFAULT_LIMIT = 20;
+    static final int BOARD_MAX_LIMIT = 100;
+    static final int SYNC_DEFAULT_LIMIT = 500;
+    static final int SYNC_MAX_LIMIT = 1000;
+    private static final String SYNC_CURSOR_KEY = "sync";
+    private static final LocalDateTime SYNC_ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID NIL_UUID = new UUID(0, 0);
+
     private static LocalDate parseDate(String s) {
         try { return (s == null || s.isBlank()) ? null : LocalDate.parse(s); }
         catch (Exception e) { return null; }
     }
+    // Variante stricte pour les filtres : une date illisible est une erreur, pas un "null"
+    private static LocalDate parseStrictDate(String s) {
+        try { return (s == null || s.isBlank()) ? null : LocalDate.parse(s); }
+        catch (Exception e) { throw new IllegalArgumentException("Invalid date: " + s); }
+    }
+    private static <E extends Enum<E>> Set<E> parseEnums(List<String> values, Class<E> type) {
+        if (values == null) return null;
+        Set<E> out = EnumSet.noneOf(type);
+        for (String v : values) {
+            if (v == null || v.isBlank()) continue;
+            try { out.add(Enum.valueOf(type, v.trim().toUpperCase())); }
+            catch (IllegalArgumentException e) { throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + v); }
+        }
+        return out;
+    }
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
     private static TaskStatusEnum parseStatus(String s) {
         try { return (s == null || s.isBlank()) ? TaskStatusEnum.TODO : TaskStatusEnum.valueOf(s.toUpperCase()); }
         catch (Exception e) { return TaskStatusEnum.TODO; }
@@ -79,249 +169,629 @@ public class TaskController {
                 (t.getAssignee() != null ? t.getAssignee().getId() : null),
                 (t.getAssignee() != null ? t.getAssignee().getEmail() : null),
                 (t.getAssignee() != null ? t.getAssignee().getUsername() : null),
-                t.getCreatedAt()
-        );
-    }
-
-    private TaskHistoryDTO toDto(TaskHistory h) {
-        return new TaskHistoryDTO(
-                h.getId(),
-                h.getTask().getId(),
-                h.getChangeLog(),
-                h.getChangedBy() != null ? h.getChangedBy().getId() : null,
-                h.getChangedBy() != null ? h.getChangedBy().getUsername() : null,
-                h.getChangedBy() != null ? h.getChangedBy().getEmail() : null,
-                h.getChangedAt()
+                t.getCreatedAt(),
+                t.getUpdatedAt(),
+                t.getVersion()
         );
     }
 
     // ===== LIST
+    // Filtres (status, priority, assigneeId, deadlineFrom/To) et tri (createdAt | priority | deadline)
+    // exécutés en base. Avec "limit" ou "after" : page keyset + curseur opaque "nextCursor".
+    // Sans l'un ni l'autre (déprécié, compatibilité front) : tableau plafonné à app.tasks.unpaged-max lignes ;
+    // au-delà, en-tête Link rel="next" vers la suite en pagination keyset.
+    // ETag = version du projet : If-None-Match à jour => 304 sans lire les tâches.
     @GetMapping
-    public ResponseEntity<?> list(@PathVariable UUID projectId) {
-        if (projectRepo.findById(projectId).isEmpty()) {
+    public ResponseEntity<?> list(@PathVariable UUID projectId,
+                                  @RequestParam(required = false) List<String> status,
+                                  @RequestParam(required = false) List<String> priority,
+                                  @RequestParam(required = false) UUID assigneeId,
+                                  @RequestParam(required = false) String deadlineFrom,
+                                  @RequestParam(required = false) String deadlineTo,
+                                  @RequestParam(required = false) String sort,
+                                  @RequestParam(required = false) Integer limit,
+                                  @RequestParam(required = false) String after,
+                                  @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!projectRepo.existsById(projectId)) { // lecture en cache
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
         }
-        return ResponseEntity.ok(
-                taskRepo.findByProjectIdOrderByCreatedAtDesc(projectId)
-                        .stream().map(this::toDto).toList()
-        );
+
+        final TaskFilter filter;
+        try {
+            filter = new TaskFilter(
+                    parseEnums(status, TaskStatusEnum.class),
+                    parseEnums(priority, TaskPriorityEnum.class),
+                    assigneeId,
+                    parseStrictDate(deadlineFrom),
+                    parseStrictDate(deadlineTo),
+                    TaskSort.parse(sort));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid filter", "details", iae.getMessage()));
+        }
+
+        if (limit == null && after == null) {
+            VersionTag tag = VersionTag.of(projectId, projectVersions.read(projectId));
+            if (tag.matches(ifNoneMatch)) return tag.notModified();
+            List<TaskDTO> rows = taskRepo.search(projectId, filter, null, unpagedMax + 1);
+            if (rows.size() <= unpagedMax) return tag.ok(rows);
+            rows = rows.subList(0, unpagedMax);
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor(filter.sort(), rows.get(unpagedMax - 1)))
+                    .replaceQueryParam("limit", KeysetCursor.MAX_LIMIT)
+                    .encode().toUriString();
+            return tag.ok().header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"").body(rows);
+        }
+
+        final int size;
+        final TaskKeyset position;
+        try {
+            size = KeysetCursor.clampLimit(limit);
+            KeysetCursor cursor = (after == null || after.isBlank()) ? null : KeysetCursor.decode(after);
+            position = (cursor == null) ? null
+                    : new TaskKeyset(cursor.key(), cursor.at(), cursor.id()).requireCompatible(filter.sort());
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid pagination", "details", iae.getMessage()));
+        }
+        VersionTag tag = VersionTag.of(projectId, projectVersions.read(projectId));
+        if (tag.matches(ifNoneMatch)) return tag.notModified();
+
+        // on lit size + 1 lignes pour savoir s'il existe une page suivante
+        List<TaskDTO> rows = taskRepo.search(projectId, filter, position, size + 1);
+
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            next = nextCursor(filter.sort(), rows.get(size - 1));
+        }
+        return tag.ok(new CursorPageDTO<>(rows, next));
+    }
+
+    private static String nextCursor(TaskSort sort, TaskDTO lastRow) {
+        TaskKeyset last = TaskKeyset.of(sort, lastRow);
+        return new KeysetCursor(last.sortValue(), last.createdAt(), last.id()).encode();
+    }
+
+    // ===== BOARD (vue kanban)
+    // Premier affichage du board : les "limit" premières tâches de chaque statut (priorité puis échéance)
+    // et le total de chaque colonne, en une requête ; la suite d'une colonne se lit par la liste paginée
+    // (?status=...&sort=priority&limit=..., même ordre de bout en bout). Même ETag que la liste : 304 sans lire les tâches.
+    @GetMapping("/board")
+    public ResponseEntity<?> board(@PathVariable UUID projectId,
+                                   @RequestParam(required = false) Integer limit,
+                                   @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        final int perColumn;
+        try {
+            perColumn = KeysetCursor.clampLimit(limit, BOARD_DEFAULT_LIMIT, BOARD_MAX_LIMIT);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid limit", "details", iae.getMessage()));
+        }
+        if (!projectRepo.existsById(projectId)) { // lecture en cache
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
+        }
+        VersionTag tag = VersionTag.of(projectId, projectVersions.read(projectId));
+        if (tag.matches(ifNoneMatch)) return tag.notModified();
+
+        Map<TaskStatusEnum, List<TaskDTO>> tasks = new EnumMap<>(TaskStatusEnum.class);
+        Map<TaskStatusEnum, Long> totals = new EnumMap<>(TaskStatusEnum.class);
+        for (TaskBoardRow row : taskRepo.findBoard(projectId, perColumn)) {
+            tasks.computeIfAbsent(row.status(), s -> new ArrayList<>()).add(row.toDto());
+            totals.put(row.status(), row.columnTotal());
+        }
+        List<TaskBoardDTO.Column> columns = new ArrayList<>();
+        for (TaskStatusEnum s : TaskStatusEnum.values()) {
+            columns.add(new TaskBoardDTO.Column(s, totals.getOrDefault(s, 0L), tasks.getOrDefault(s, List.of())));
+        }
+        return tag.ok(new TaskBoardDTO(projectId, perColumn, columns));
+    }
+
+    // ===== CHANGES (synchronisation incrémentale du board)
+    // Sans "since" : copie complète (full=true), paginée. Avec "since" : seulement les tâches
+    // créées/modifiées depuis le curseur, plus les ids supprimés (tombstones).
+    @GetMapping("/changes")
+    public ResponseEntity<?> changes(@PathVariable UUID projectId,
+                                     @RequestParam(required = false) String since,
+                                     @RequestParam(required = false) Integer limit) {
+        if (!projectRepo.existsById(projectId)) { // lecture en cache
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
+        }
+        final int size;
+        final KeysetCursor from;
+        try {
+            size = KeysetCursor.clampLimit(limit, SYNC_DEFAULT_LIMIT, SYNC_MAX_LIMIT);
+            from = (since == null || since.isBlank()) ? null : KeysetCursor.decode(since);
+            if (from != null && !SYNC_CURSOR_KEY.equals(from.key())) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid pagination", "details", iae.getMessage()));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // Curseur plus vieux que la rétention des tombstones : des suppressions ont pu être oubliées
+        boolean full = from == null || from.at().isBefore(now.minusDays(tombstoneRetentionDays));
+        LocalDateTime at = full ? SYNC_ORIGIN : from.at();
+        UUID afterId = full ? NIL_UUID : from.id();
+
+        List<TaskDTO> rows = taskRepo.findChangedSince(projectId, at, afterId, Limit.of(size + 1));
+        boolean hasMore = rows.size() > size;
+        if (hasMore) rows = rows.subList(0, size);
+        List<UUID> deleted = full ? List.of() : tombstoneRepo.findTaskIdsDeletedSince(projectId, from.at());
+
+        KeysetCursor next = hasMore
+                ? new KeysetCursor(SYNC_CURSOR_KEY, rows.get(size - 1).updatedAt(), rows.get(size - 1).id())
+                : new KeysetCursor(SYNC_CURSOR_KEY, now.minusNanos(syncOverlapMs * 1_000_000), NIL_UUID);
+        return ResponseEntity.ok(new TaskChangesDTO(rows, deleted, next.encode(), hasMore, full));
+    }
+
+    // ===== EVENTS (SSE)
+    // Flux des créations / modifications / suppressions validées, à la place du polling de la liste.
+    // Événements : task.created, task.updated (TaskDTO), task.deleted ({id}), tasks.resync ({projectId}).
+    // Le corps doit rester typé SseEmitter pour être diffusé : pas de corps JSON sur le 404.
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable UUID projectId) {
+        if (!projectRepo.existsById(projectId)) { // lecture en cache
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no") // pas de mise en tampon par un reverse proxy nginx
+                .body(broadcaster.subscribe(projectId));
     }
 
     // ===== GET ONE
+    // ETag propre à la tâche (id + Task.version) : celui que PATCH attend dans If-Match.
+    // Existence vérifiée avant le 304 : une tâche absente reste un 404, même avec If-None-Match: *
     @GetMapping("/{taskId}")
-    public ResponseEntity<?> getOne(@PathVariable UUID projectId, @PathVariable UUID taskId) {
-        Optional<Task> opt = taskRepo.findById(taskId);
-        if (opt.isEmpty() || !opt.get().getProject().getId().equals(projectId)) {
+    public ResponseEntity<?> getOne(@PathVariable UUID projectId, @PathVariable UUID taskId,
+                                    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<TaskDTO> opt = taskRepo.findDtoById(taskId);
+        if (opt.isEmpty() || !opt.get().projectId().equals(projectId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Task not found"));
         }
-        return ResponseEntity.ok(toDto(opt.get()));
+        VersionTag tag = VersionTag.of(opt.get());
+        return tag.matches(ifNoneMatch) ? tag.notModified() : tag.ok(opt.get());
     }
 
     // ===== HISTORY
+    // Sans paramètre : tableau complet (compatibilité front). Avec changedBy, from/to, limit ou after :
+    // page keyset (changedAt, id) du plus récent au plus ancien + curseur "nextCursor".
     @GetMapping("/{taskId}/history")
-    public ResponseEntity<?> history(@PathVariable UUID projectId, @PathVariable UUID taskId) {
-        Optional<Task> opt = taskRepo.findById(taskId);
-        if (opt.isEmpty() || !opt.get().getProject().getId().equals(projectId)) {
+    public ResponseEntity<?> history(@PathVariable UUID projectId, @PathVariable UUID taskId,
+                                     @RequestParam(required = false) UUID changedBy,
+                                     @RequestParam(required = false) String from,
+                                     @RequestParam(required = false) String to,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestParam(required = false) String after) {
+        if (!taskRepo.existsByIdAndProject_Id(taskId, projectId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Task not found"));
         }
-        return ResponseEntity.ok(
-                historyRepo.findByTaskIdOrderByChangedAtDesc(taskId).stream().map(this::toDto).toList()
-        );
+        if (HistoryQuery.isLegacy(changedBy, from, to, limit, after)) {
+            return ResponseEntity.ok(historyRepo.findDtoByTaskId(taskId));
+        }
+
+        final TaskHistoryFilter filter;
+        try {
+            filter = HistoryQuery.filter(taskId, changedBy, from, to);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid filter", "details", iae.getMessage()));
+        }
+        final HistoryQuery q;
+        try {
+            q = HistoryQuery.of(filter, limit, after);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid pagination", "details", iae.getMessage()));
+        }
+        return ResponseEntity.ok(q.page(historyRepo.search(filter, q.afterChangedAt(), q.afterId(), q.limit() + 1)));
+    }
+
+    private void saveHistory(Task task, User by, String action, List<TaskFieldChange> changes) {
+        historyRepo.save(history(task, by, action, changes));
     }
 
-    private void saveHistory(Task task, User by, String log) {
+    private static TaskHistory history(Task task, User by, String action, List<TaskFieldChange> changes) {
         TaskHistory h = new TaskHistory();
         h.setTask(task);
         h.setChangedBy(by);
-        h.setChangeLog(log);
-        historyRepo.save(h);
+        h.setChangeLog(action);
+        h.setChanges(changes);
+        return h;
     }
 
-    private void safeSendAssignmentMail(@Nullable User to, Task task, @Nullable User changer) {
-        try {
-            if (to != null && to.getEmail() != null && !to.getEmail().isBlank()) {
-                final String changerDisplay = changer != null
-                        ? (changer.getUsername() != null ? changer.getUsername() : changer.getEmail())
-                        : "Système";
-                // Compatible avec les tests qui stubbaient sendTaskAssignedMail(...),
-                // mais ne casse pas si on mock seulement sendText(...)
-                mailService.sendTaskAssignedMail(to, task, changerDisplay);
+    // Mail d'assignation écrit dans l'outbox, dans la transaction de la modification :
+    // pas d'aller-retour SMTP pendant la requête, et pas de mail pour une modification annulée.
+    private void queueAssignmentMail(@Nullable User to, Task task, @Nullable User changer) {
+        if (to != null && to.getEmail() != null && !to.getEmail().isBlank()) {
+            final String changerDisplay = changer != null
+                    ? (changer.getUsername() != null ? changer.getUsername() : changer.getEmail())
+                    : "Système";
+            mailService.queueTaskAssignedMail(to, task, changerDisplay);
+        }
+    }
+
+    // Construction d'une nouvelle tâche ; les résolveurs d'utilisateurs sont des requêtes unitaires
+    // (create) ou des lectures dans une table préchargée (bulk).
+    // Références d'utilisateurs sans SELECT : existence et id par e-mail lus en cache (UserRepository)
+    private Optional<User> userRef(UUID id) {
+        return userRepo.existsById(id) ? Optional.of(userRepo.getReferenceById(id)) : Optional.empty();
+    }
+
+    private Optional<User> userRefByEmail(String email) {
+        return userRepo.findIdByEmail(email).map(userRepo::getReferenceById);
+    }
+
+    private static Task newTask(Project project, TaskRequest req,
+                                Function<UUID, Optional<User>> userById,
+                                Function<String, Optional<User>> userByEmail) {
+        Task t = new Task();
+        t.setProject(project);
+        t.setTitle(req.title.trim());
+        t.setDescription(req.description);
+        t.setStatus(parseStatus(req.status));
+        t.setPriority(parsePriority(req.priority));
+        t.setDeadline(parseDate(req.deadline));
+        t.setEndDate(parseDate(req.endDate));
+
+        if (req.assigneeId != null) {
+            t.setAssignee(userById.apply(req.assigneeId)
+                    .orElseThrow(() -> new IllegalArgumentException("assigneeId not found")));
+        } else if (req.assigneeEmail != null && !req.assigneeEmail.isBlank()) {
+            t.setAssignee(userByEmail.apply(req.assigneeEmail.trim())
+                    .orElseThrow(() -> new IllegalArgumentException("assigneeEmail not found")));
+        }
+        return t;
+    }
+
+    private static List<TaskFieldChange> createdChanges(Task saved) {
+        List<TaskFieldChange> changes = new ArrayList<>();
+        changes.add(TaskFieldChange.of("title", null, saved.getTitle()));
+        if (saved.getDescription() != null) changes.add(TaskFieldChange.of("description", null, saved.getDescription()));
+        changes.add(TaskFieldChange.of("status", null, saved.getStatus().name()));
+        changes.add(TaskFieldChange.of("priority", null, saved.getPriority().name()));
+        if (saved.getDeadline() != null) changes.add(TaskFieldChange.of("deadline", null, saved.getDeadline()));
+        if (saved.getEndDate() != null) changes.add(TaskFieldChange.of("endDate", null, saved.getEndDate()));
+        if (saved.getAssignee() != null) changes.add(TaskFieldChange.of("assigneeId", null, saved.getAssignee().getId()));
+        return changes;
+    }
+
+    /**
+     * Applique un PATCH à la tâche et ajoute les champs modifiés dans diffs.
+     * L'assigné demandé est résolu avant toute modification : en cas d'erreur, la tâche (gérée,
+     * donc écrite au flush) reste intacte — indispensable à l'import en masse qui poursuit.
+     * @return true si l'assignation a changé
+     * @throws IllegalArgumentException si l'assigné demandé n'existe pas
+     */
+    private static boolean applyChanges(Task t, TaskRequest req, List<TaskFieldChange> diffs,
+                                        Function<UUID, Optional<User>> userById,
+                                        Function<String, Optional<User>> userByEmail) {
+        UUID oldAssigneeId = (t.getAssignee() != null ? t.getAssignee().getId() : null);
+
+        // --- Assignation demandée (résolue, rien n'est encore modifié)
+        boolean assignmentRequested = false;
+        User newAssignee = null;
+        String assignmentField = null;
+        if (req.assigneeId != null) {
+            assignmentField = "assigneeId";
+            assignmentRequested = true;
+            UUID newId = req.assigneeId.toString().isBlank() ? null : req.assigneeId;
+            if (newId != null && !Objects.equals(oldAssigneeId, newId)) {
+                newAssignee = userById.apply(newId)
+                        .orElseThrow(() -> new IllegalArgumentException("assigneeId not found"));
+            } else if (newId != null) {
+                assignmentRequested = false; // même assigné
+            }
+        } else if (req.assigneeEmail != null) {
+            assignmentField = "assigneeEmail";
+            assignmentRequested = true;
+            String email = req.assigneeEmail.trim();
+            if (!email.isBlank()) {
+                newAssignee = userByEmail.apply(email)
+                        .orElseThrow(() -> new IllegalArgumentException("assigneeEmail not found"));
+                if (Objects.equals(oldAssigneeId, newAssignee.getId())) assignmentRequested = false;
             }
-        } catch (Exception ignored) { }
+        }
+
+        if (req.title != null && !Objects.equals(req.title.trim(), t.getTitle())) {
+            diffs.add(TaskFieldChange.of("title", t.getTitle(), req.title.trim()));
+            t.setTitle(req.title.trim());
+        }
+        if (req.description != null && !Objects.equals(req.description, t.getDescription())) {
+            // diff compact : une retouche ne recopie pas les deux versions complètes
+            diffs.add(TaskFieldChange.text("description", t.getDescription(), req.description));
+            t.setDescription(req.description);
+        }
+        if (req.status != null) {
+            TaskStatusEnum newS = parseStatus(req.status);
+            if (!Objects.equals(newS, t.getStatus())) {
+                diffs.add(TaskFieldChange.of("status", t.getStatus().name(), newS.name()));
+                t.setStatus(newS);
+            }
+        }
+        if (req.priority != null) {
+            TaskPriorityEnum newP = parsePriority(req.priority);
+            if (!Objects.equals(newP, t.getPriority())) {
+                diffs.add(TaskFieldChange.of("priority", t.getPriority().name(), newP.name()));
+                t.setPriority(newP);
+            }
+        }
+        if (req.deadline != null) {
+            var newD = parseDate(req.deadline);
+            String oldStr = (t.getDeadline() == null ? null : t.getDeadline().toString());
+            String newStr = (newD == null ? null : newD.toString());
+            if (!Objects.equals(oldStr, newStr)) {
+                diffs.add(TaskFieldChange.of("deadline", oldStr, newStr));
+                t.setDeadline(newD);
+            }
+        }
+        if (req.endDate != null) {
+            var newE = parseDate(req.endDate);
+            String oldStr = (t.getEndDate() == null ? null : t.getEndDate().toString());
+            String newStr = (newE == null ? null : newE.toString());
+            if (!Objects.equals(oldStr, newStr)) {
+                diffs.add(TaskFieldChange.of("endDate", oldStr, newStr));
+                t.setEndDate(newE);
+            }
+        }
+
+        // --- Assignation (désassignation si newAssignee est null)
+        if (!assignmentRequested || (newAssignee == null && oldAssigneeId == null)) return false;
+        diffs.add(TaskFieldChange.of(assignmentField, oldAssigneeId, newAssignee != null ? newAssignee.getId() : null));
+        t.setAssignee(newAssignee);
+        return true;
     }
 
     // ===== CREATE
     @PostMapping
+    @Transactional
     public ResponseEntity<?> create(@PathVariable UUID projectId, @RequestBody TaskRequest req) {
         if (req == null || req.title == null || req.title.trim().length() < 3) {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid payload", "details", "title min 3"));
         }
-        var pOpt = projectRepo.findById(projectId);
-        if (pOpt.isEmpty()) {
+        if (!projectRepo.existsById(projectId)) { // lecture en cache
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
         }
 
         try {
-            Task t = new Task();
-            t.setProject(pOpt.get());
-            t.setTitle(req.title.trim());
-            t.setDescription(req.description);
-            t.setStatus(parseStatus(req.status));
-            t.setPriority(parsePriority(req.priority));
-            t.setDeadline(parseDate(req.deadline));
-            t.setEndDate(parseDate(req.endDate));
-
-            User assignee = null;
-            if (req.assigneeId != null) {
-                assignee = userRepo.findById(req.assigneeId)
-                        .orElseThrow(() -> new IllegalArgumentException("assigneeId not found"));
-                t.setAssignee(assignee);
-            } else if (req.assigneeEmail != null && !req.assigneeEmail.isBlank()) {
-                assignee = userRepo.findByEmail(req.assigneeEmail.trim())
-                        .orElseThrow(() -> new IllegalArgumentException("assigneeEmail not found"));
-                t.setAssignee(assignee);
-            }
-
-            Task saved = taskRepo.save(t);
+            Task t = newTask(projectRepo.getReferenceById(projectId), req, this::userRef, this::userRefByEmail);
+            Task saved = taskRepo.saveAndFlush(t); // contraintes vérifiées ici, pas au commit
 
-            User changer = (req.changedBy != null) ? userRepo.findById(req.changedBy).orElse(null) : null;
-            StringBuilder log = new StringBuilder("CREATED");
-            log.append(": title='").append(saved.getTitle()).append("'");
-            if (saved.getDescription() != null) log.append("; description='").append(saved.getDescription()).append("'");
-            log.append("; status=").append(saved.getStatus().name());
-            log.append("; priority=").append(saved.getPriority().name());
-            if (saved.getDeadline() != null) log.append("; deadline=").append(saved.getDeadline());
-            if (saved.getEndDate() != null) log.append("; endDate=").append(saved.getEndDate());
-            if (saved.getAssignee() != null) log.append("; assigneeId=").append(saved.getAssignee().getId());
-            saveHistory(saved, changer, log.toString());
+            User changer = (req.changedBy != null) ? userRef(req.changedBy).orElse(null) : null;
+            saveHistory(saved, changer, "CREATED", createdChanges(saved));
+            counters.created(projectId, saved);
+            projectVersions.bump(projectId);
 
+            User assignee = saved.getAssignee();
             if (assignee != null) {
-                safeSendAssignmentMail(assignee, saved, changer);
+                queueAssignmentMail(assignee, saved, changer);
             }
 
+            TaskDTO dto = toDto(saved);
+            events.publishEvent(TaskChangedEvent.created(dto)); // relayé aux abonnés SSE après commit
             return ResponseEntity.created(URI.create("/api/projects/" + projectId + "/tasks/" + saved.getId()))
-                    .body(toDto(saved));
+                    .body(dto);
         } catch (IllegalArgumentException iae) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid assignee", "details", iae.getMessage()));
         } catch (DataIntegrityViolationException ex) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.badRequest()
                     .body(Map.of("error", "Integrity violation", "details", ex.getMostSpecificCause().getMessage()));
         } catch (Exception ex) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.badRequest().body(Map.of("error", "Creation failed", "details", ex.getMessage()));
         }
     }
 
     // ===== UPDATE (PATCH)
+    // Verrou optimiste (Task.version) : If-Match (optionnel) porte l'ETag renvoyé par GET /tasks/{id}
+    // ou la version lue dans une liste ("3", 3) ; version dépassée => 409 avec l'état courant et son ETag,
+    // rien n'est écrit. La réponse porte le nouvel ETag, réutilisable tel quel pour le PATCH suivant.
+    // Sans If-Match, deux PATCH concurrents sont départagés au flush : le second reçoit le même 409.
     @PatchMapping("/{taskId}")
-    public ResponseEntity<?> update(@PathVariable UUID projectId, @PathVariable UUID taskId, @RequestBody TaskRequest req) {
+    @Transactional
+    public ResponseEntity<?> update(@PathVariable UUID projectId, @PathVariable UUID taskId, @RequestBody TaskRequest req,
+                                    @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Optional<Task> opt = taskRepo.findById(taskId);
         if (opt.isEmpty() || !opt.get().getProject().getId().equals(projectId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Task not found"));
         }
         Task t = opt.get();
-        User changer = (req.changedBy != null) ? userRepo.findById(req.changedBy).orElse(null) : null;
+        if (ifMatch != null && !ifMatch.isBlank()) {
+            Long expected;
+            try {
+                expected = VersionTag.taskVersion(ifMatch, taskId);
+            } catch (IllegalArgumentException iae) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid If-Match", "details", iae.getMessage()));
+            }
+            if (expected != null && expected != t.getVersion()) return versionConflict(toDto(t));
+        }
+        User changer = (req.changedBy != null) ? userRef(req.changedBy).orElse(null) : null;
 
         try {
-            List<String> diffs = new ArrayList<>();
-            UUID oldAssigneeId = (t.getAssignee() != null ? t.getAssignee().getId() : null);
+            List<ProjectTaskCounters.Bucket> before = ProjectTaskCounters.bucketsOf(t);
+            List<TaskFieldChange> diffs = new ArrayList<>();
+            boolean assignmentChanged = applyChanges(t, req, diffs, this::userRef, this::userRefByEmail);
 
-            if (req.title != null && !Objects.equals(req.title.trim(), t.getTitle())) {
-                diffs.add("title: '" + t.getTitle() + "' -> '" + req.title.trim() + "'");
-                t.setTitle(req.title.trim());
-            }
-            if (req.description != null && !Objects.equals(req.description, t.getDescription())) {
-                String oldS = t.getDescription();
-                String newS = req.description;
-                diffs.add("description: '" + (oldS == null ? "" : oldS) + "' -> '" + (newS == null ? "" : newS) + "'");
-                t.setDescription(req.description);
-            }
-            if (req.status != null) {
-                TaskStatusEnum newS = parseStatus(req.status);
-                if (!Objects.equals(newS, t.getStatus())) {
-                    diffs.add("status: " + t.getStatus().name() + " -> " + newS.name());
-                    t.setStatus(newS);
-                }
-            }
-            if (req.priority != null) {
-                TaskPriorityEnum newP = parsePriority(req.priority);
-                if (!Objects.equals(newP, t.getPriority())) {
-                    diffs.add("priority: " + t.getPriority().name() + " -> " + newP.name());
-                    t.setPriority(newP);
+            if (!diffs.isEmpty()) {
+                Task saved = taskRepo.saveAndFlush(t); // flush : updatedAt à jour dans la réponse et l'événement
+                saveHistory(saved, changer, "UPDATED", diffs);
+                counters.changed(projectId, before, ProjectTaskCounters.bucketsOf(saved));
+                projectVersions.bump(projectId);
+
+                if (assignmentChanged && saved.getAssignee() != null) {
+                    queueAssignmentMail(saved.getAssignee(), saved, changer);
                 }
+                TaskDTO dto = toDto(saved);
+                events.publishEvent(TaskChangedEvent.updated(dto));
+                return VersionTag.of(dto).ok(dto);
+            } else {
+                TaskDTO dto = toDto(t);
+                return VersionTag.of(dto).ok(dto);
             }
-            if (req.deadline != null) {
-                var newD = parseDate(req.deadline);
-                String oldStr = (t.getDeadline() == null ? null : t.getDeadline().toString());
-                String newStr = (newD == null ? null : newD.toString());
-                if (!Objects.equals(oldStr, newStr)) {
-                    diffs.add("deadline: " + oldStr + " -> " + newStr);
-                    t.setDeadline(newD);
-                }
+        } catch (OptimisticLockingFailureException conflict) {
+            // Écriture concurrente committée entre notre lecture et notre UPDATE
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            Optional<TaskDTO> current = freshReadTx.execute(status -> taskRepo.findDtoById(taskId));
+            if (current == null || current.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Task not found"));
             }
-            if (req.endDate != null) {
-                var newE = parseDate(req.endDate);
-                String oldStr = (t.getEndDate() == null ? null : t.getEndDate().toString());
-                String newStr = (newE == null ? null : newE.toString());
-                if (!Objects.equals(oldStr, newStr)) {
-                    diffs.add("endDate: " + oldStr + " -> " + newStr);
-                    t.setEndDate(newE);
-                }
+            return versionConflict(current.get());
+        } catch (IllegalArgumentException iae) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid assignee", "details", iae.getMessage()));
+        } catch (Exception ex) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.badRequest().body(Map.of("error", "Update failed", "details", ex.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<?> versionConflict(TaskDTO current) {
+        return VersionTag.of(current).status(HttpStatus.CONFLICT,
+                Map.of("error", "Version conflict",
+                        "details", "task modified since version read; current version " + current.version(),
+                        "current", current));
+    }
+
+    // ===== DELETE
+    // Supprime la tâche et son historique, et laisse un tombstone pour les clients en synchro
+    @DeleteMapping("/{taskId}")
+    @Transactional
+    public ResponseEntity<?> delete(@PathVariable UUID projectId, @PathVariable UUID taskId) {
+        Optional<Task> opt = taskRepo.findById(taskId);
+        if (opt.isEmpty() || !opt.get().getProject().getId().equals(projectId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Task not found"));
+        }
+        historyRepo.deleteByTaskId(taskId);
+        counters.deleted(projectId, opt.get());
+        taskRepo.delete(opt.get());
+        tombstoneRepo.save(new TaskTombstone(taskId, projectId));
+        projectVersions.bump(projectId);
+        events.publishEvent(TaskChangedEvent.deleted(projectId, taskId));
+        return ResponseEntity.noContent().build();
+    }
+
+    // ===== BULK (import de backlog)
+    // Une seule transaction : projet lu une fois, tous les utilisateurs (assignés + auteurs) résolus
+    // en un SELECT ... IN, tâches existantes chargées en un SELECT, puis INSERT/UPDATE groupés en
+    // batch JDBC (hibernate.jdbc.batch_size ; les UUID étant générés côté Java, rien n'empêche le batch).
+    // Un élément invalide est signalé dans le rapport et ignoré ; les autres sont enregistrés.
+    @PostMapping("/bulk")
+    @Transactional
+    public ResponseEntity<?> bulk(@PathVariable UUID projectId, @RequestBody List<TaskRequest> reqs) {
+        if (reqs == null || reqs.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid payload", "details", "empty list"));
+        }
+        if (reqs.size() > BULK_MAX_ITEMS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid payload", "details", "max " + BULK_MAX_ITEMS + " items"));
+        }
+        if (!projectRepo.existsById(projectId)) { // lecture en cache
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
+        }
+        Project project = projectRepo.getReferenceById(projectId);
+
+        // --- Préchargements
+        Set<UUID> userIds = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<UUID> taskIds = new HashSet<>();
+        for (TaskRequest r : reqs) {
+            if (r == null) continue;
+            if (r.assigneeId != null) userIds.add(r.assigneeId);
+            else if (r.assigneeEmail != null && !r.assigneeEmail.isBlank()) emails.add(r.assigneeEmail.trim());
+            if (r.changedBy != null) userIds.add(r.changedBy);
+            if (r.id != null) taskIds.add(r.id);
+        }
+        Map<UUID, User> usersById = new HashMap<>();
+        Map<String, User> usersByEmail = new HashMap<>();
+        if (!userIds.isEmpty() || !emails.isEmpty()) {
+            for (User u : userRepo.findAllByIdOrEmail(userIds, emails)) {
+                usersById.put(u.getId(), u);
+                usersByEmail.put(emailKey(u.getEmail()), u);
             }
+        }
+        Function<UUID, Optional<User>> userById = id -> Optional.ofNullable(usersById.get(id));
+        // Clés en minuscules : même résultat que la recherche en base (collation insensible à la casse)
+        Function<String, Optional<User>> userByEmail = e -> Optional.ofNullable(usersByEmail.get(emailKey(e)));
 
-            // --- Assignation
-            User newAssignee = null;
-            boolean assignmentChanged = false;
-
-            if (req.assigneeId != null) {
-                UUID newId = req.assigneeId.toString().isBlank() ? null : req.assigneeId;
-                if (newId == null) {
-                    if (oldAssigneeId != null) {
-                        diffs.add("assigneeId: " + oldAssigneeId + " -> null");
-                        t.setAssignee(null);
-                        assignmentChanged = true;
-                    }
-                } else if (!Objects.equals(oldAssigneeId, newId)) {
-                    newAssignee = userRepo.findById(newId)
-                            .orElseThrow(() -> new IllegalArgumentException("assigneeId not found"));
-                    diffs.add("assigneeId: " + (oldAssigneeId == null ? null : oldAssigneeId) + " -> " + newAssignee.getId());
-                    t.setAssignee(newAssignee);
-                    assignmentChanged = true;
-                }
-            } else if (req.assigneeEmail != null) {
-                String email = req.assigneeEmail.trim();
-                if (email.isBlank()) {
-                    if (oldAssigneeId != null) {
-                        diffs.add("assigneeEmail: " + oldAssigneeId + " -> null");
-                        t.setAssignee(null);
-                        assignmentChanged = true;
+        Map<UUID, Task> existing = new HashMap<>();
+        if (!taskIds.isEmpty()) {
+            for (Task t : taskRepo.findAllForUpdate(projectId, taskIds)) existing.put(t.getId(), t);
+        }
+
+        // --- Application
+        List<TaskBulkItemDTO> items = new ArrayList<>(reqs.size());
+        List<Task> toSave = new ArrayList<>();
+        List<TaskHistory> histories = new ArrayList<>();
+        List<Task> assigned = new ArrayList<>();
+        List<User> assignedBy = new ArrayList<>();
+        Map<ProjectTaskCounters.Bucket, Long> counterDeltas = new HashMap<>();
+        int created = 0, updated = 0, unchanged = 0, failed = 0;
+
+        for (int i = 0; i < reqs.size(); i++) {
+            TaskRequest req = reqs.get(i);
+            try {
+                if (req == null) throw new IllegalArgumentException("null item");
+                User changer = req.changedBy != null ? usersById.get(req.changedBy) : null;
+
+                if (req.id == null) {
+                    if (req.title == null || req.title.trim().length() < 3) {
+                        throw new IllegalArgumentException("title min 3");
                     }
+                    Task t = newTask(project, req, userById, userByEmail);
+                    toSave.add(t);
+                    histories.add(history(t, changer, "CREATED", createdChanges(t)));
+                    ProjectTaskCounters.diff(counterDeltas, List.of(), ProjectTaskCounters.bucketsOf(t));
+                    if (t.getAssignee() != null) { assigned.add(t); assignedBy.add(changer); }
+                    items.add(new TaskBulkItemDTO(i, "CREATED", null, null));
+                    created++;
                 } else {
-                    newAssignee = userRepo.findByEmail(email)
-                            .orElseThrow(() -> new IllegalArgumentException("assigneeEmail not found"));
-                    if (!Objects.equals(oldAssigneeId, newAssignee.getId())) {
-                        diffs.add("assigneeEmail: " + (oldAssigneeId == null ? null : oldAssigneeId) + " -> " + newAssignee.getId());
-                        t.setAssignee(newAssignee);
-                        assignmentChanged = true;
+                    Task t = existing.get(req.id);
+                    if (t == null) throw new IllegalArgumentException("Task not found");
+                    List<ProjectTaskCounters.Bucket> before = ProjectTaskCounters.bucketsOf(t);
+                    List<TaskFieldChange> diffs = new ArrayList<>();
+                    boolean assignmentChanged = applyChanges(t, req, diffs, userById, userByEmail);
+                    if (diffs.isEmpty()) {
+                        items.add(new TaskBulkItemDTO(i, "UNCHANGED", t.getId(), null));
+                        unchanged++;
+                        continue;
                     }
+                    histories.add(history(t, changer, "UPDATED", diffs));
+                    ProjectTaskCounters.diff(counterDeltas, before, ProjectTaskCounters.bucketsOf(t));
+                    if (assignmentChanged && t.getAssignee() != null) { assigned.add(t); assignedBy.add(changer); }
+                    items.add(new TaskBulkItemDTO(i, "UPDATED", t.getId(), null));
+                    updated++;
                 }
+            } catch (IllegalArgumentException iae) {
+                items.add(new TaskBulkItemDTO(i, "ERROR", null, iae.getMessage()));
+                failed++;
             }
+        }
 
-            if (!diffs.isEmpty()) {
-                Task saved = taskRepo.save(t);
-                String log = "UPDATED: " + String.join("; ", diffs);
-                saveHistory(saved, changer, log);
+        try {
+            // Les tâches existantes sont gérées : leurs UPDATE partent au flush, groupés eux aussi
+            taskRepo.saveAll(toSave);
+            historyRepo.saveAll(histories);
+            taskRepo.flush();
+            for (int k = 0; k < assigned.size(); k++) {
+                queueAssignmentMail(assigned.get(k).getAssignee(), assigned.get(k), assignedBy.get(k));
+            }
+            if (created + updated > 0) {
+                counters.apply(projectId, counterDeltas);
+                projectVersions.bump(projectId);
+                events.publishEvent(TaskChangedEvent.resync(projectId));
+            }
+        } catch (DataIntegrityViolationException ex) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Integrity violation", "details", ex.getMostSpecificCause().getMessage()));
+        }
 
-                if (assignmentChanged && saved.getAssignee() != null) {
-                    safeSendAssignmentMail(saved.getAssignee(), saved, changer);
-                }
-                return ResponseEntity.ok(toDto(saved));
-            } else {
-                return ResponseEntity.ok(toDto(t));
+        // Ids des créations : connus seulement après persist
+        Iterator<Task> createdTasks = toSave.iterator();
+        for (int k = 0; k < items.size(); k++) {
+            TaskBulkItemDTO it = items.get(k);
+            if ("CREATED".equals(it.result())) {
+                items.set(k, new TaskBulkItemDTO(it.index(), it.result(), createdTasks.next().getId(), null));
             }
-        } catch (IllegalArgumentException iae) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid assignee", "details", iae.getMessage()));
-        } catch (Exception ex) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Update failed", "details", ex.getMessage()));
         }
+        return ResponseEntity.ok(new TaskBulkResultDTO(created, updated, unchanged, failed, items));
     }
 }
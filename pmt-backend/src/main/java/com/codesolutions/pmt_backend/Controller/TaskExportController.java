@@ -0,0 +1,183 @@
+package com.codesolutions.pmt_backend.Controller;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import com.codesolutions.pmt_backend.DTO.TaskHistoryDTO;
+import com.codesolutions.pmt_backend.Repository.ProjectRepository;
+import com.codesolutions.pmt_backend.Repository.TaskHistoryRepository;
+import com.codesolutions.pmt_backend.Repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Export complet des tâches ou de l'historique d'un projet (reporting nocturne).
+ * Les lignes sont lues par curseur JDBC et écrites au fil de l'eau dans la réponse :
+ * aucune liste n'est construite en mémoire, quelle que soit la taille du projet.
+ *
+ * GET /api/projects/{projectId}/tasks/export?format=ndjson|csv&dataset=tasks|history
+ * Un seul jeu de données par appel : MySQL n'accepte qu'un résultat en flux ouvert par connexion.
+ * Le flux est écrit en requête asynchrone : son délai (app.export.timeout-ms) remplace celui par défaut
+ * du conteneur (30 s sous Tomcat), qui couperait l'export d'un gros projet en cours de route.
+ */
+@RestController
+@RequestMapping({"/api/projects/{projectId}/tasks/export", "/projects/{projectId}/tasks/export"})
+@CrossOrigin(origins = {"http://localhost:4200", "http://127.0.0.1:*"})
+public class TaskExportController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+    static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final TaskRepository taskRepo;
+    private final TaskHistoryRepository historyRepo;
+    private final ProjectRepository projectRepo;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate readOnlyTx;
+
+    @Value("${app.export.timeout-ms:3600000}")
+    private long timeoutMs;
+
+    public TaskExportController(TaskRepository taskRepo,
+                                TaskHistoryRepository historyRepo,
+                                ProjectRepository projectRepo,
+                                ObjectMapper mapper,
+                                PlatformTransactionManager txManager) {
+        this.taskRepo = taskRepo;
+        this.historyRepo = historyRepo;
+        this.projectRepo = projectRepo;
+        this.mapper = mapper;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable UUID projectId,
+                                                        @RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestParam(defaultValue = "tasks") String dataset,
+                                                        HttpServletRequest request) {
+        boolean csv;
+        switch (format.toLowerCase()) {
+            case "ndjson" -> csv = false;
+            case "csv" -> csv = true;
+            default -> {
+                return error(HttpStatus.BAD_REQUEST, Map.of("error", "Invalid format", "details", "ndjson | csv"));
+            }
+        }
+        boolean history;
+        switch (dataset.toLowerCase()) {
+            case "tasks" -> history = false;
+            case "history" -> history = true;
+            default -> {
+                return error(HttpStatus.BAD_REQUEST, Map.of("error", "Invalid dataset", "details", "tasks | history"));
+            }
+        }
+        if (!projectRepo.existsById(projectId)) { // lecture en cache
+            return error(HttpStatus.NOT_FOUND, Map.of("error", "Project not found"));
+        }
+
+        AsyncWebRequest async = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (async != null) async.setTimeout(timeoutMs); // appliqué au démarrage du traitement asynchrone
+
+        // Écrit hors du thread de la requête : la transaction (et le curseur) vivent dans le corps
+        StreamingResponseBody body = out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            readOnlyTx.executeWithoutResult(status -> {
+                if (history) {
+                    try (Stream<TaskHistoryDTO> rows = historyRepo.streamDtoByProjectId(projectId)) {
+                        if (csv) writeLine(w, HISTORY_HEADER);
+                        rows.forEach(h -> writeLine(w, csv ? csvRow(h) : json(h)));
+                    }
+                } else {
+                    try (Stream<TaskDTO> rows = taskRepo.streamDtoByProjectId(projectId)) {
+                        if (csv) writeLine(w, TASK_HEADER);
+                        rows.forEach(t -> writeLine(w, csv ? csvRow(t) : json(t)));
+                    }
+                }
+            });
+            w.flush();
+        };
+
+        String filename = (history ? "task-history-" : "tasks-") + projectId + (csv ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    // Le type de retour doit rester ResponseEntity<StreamingResponseBody> pour que Spring diffuse le corps :
+    // les erreurs sont donc écrites comme un petit flux JSON, au même format que les autres contrôleurs.
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, Map<String, String> body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> mapper.writeValue(out, body));
+    }
+
+    // ===== Sérialisation
+
+    static final String TASK_HEADER =
+            "id,projectId,title,description,status,priority,deadline,endDate,assigneeId,assigneeEmail,assigneeUsername,createdAt,updatedAt";
+    static final String HISTORY_HEADER =
+            "id,taskId,changeLog,changedById,changedByUsername,changedByEmail,changedAt";
+
+    private static void writeLine(Writer w, String line) {
+        try {
+            w.write(line);
+            w.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // client parti : la transaction est annulée, le curseur fermé
+        }
+    }
+
+    private String json(Object dto) {
+        try {
+            return mapper.writeValueAsString(dto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvRow(TaskDTO t) {
+        return csv(t.id(), t.projectId(), t.title(), t.description(), t.status(), t.priority(), t.deadline(),
+                t.endDate(), t.assigneeId(), t.assigneeEmail(), t.assigneeUsername(), t.createdAt(), t.updatedAt());
+    }
+
+    private static String csvRow(TaskHistoryDTO h) {
+        return csv(h.id(), h.taskId(), h.changeLog(), h.changedById(), h.changedByUsername(), h.changedByEmail(),
+                h.changedAt());
+    }
+
+    // RFC 4180 : champ entre guillemets s'il contient séparateur, guillemet ou retour à la ligne
+    static String csv(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            if (values[i] == null) continue;
+            String v = values[i].toString();
+            if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+                sb.append('"').append(v.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(v);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -1,10 +1,12 @@
 package com.codesolutions.pmt_backend.Controller;
 
 import com.codesolutions.pmt_backend.Entity.TaskHistory;
+import com.codesolutions.pmt_backend.Repository.TaskHistoryFilter;
 import com.codesolutions.pmt_backend.Service.TaskHistoryService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -17,9 +19,32 @@ public class TaskHistoryController {
         this.taskHistoryService = taskHistoryService;
     }
 
+    // Sans paramètre : toute la table (compatibilité). Avec taskId, changedBy, from/to, limit ou after :
+    // page keyset (changedAt, id) de TaskHistoryDTO, du plus récent au plus ancien.
     @GetMapping
-    public List<TaskHistory> getAll() {
-        return taskHistoryService.getAll();
+    public ResponseEntity<?> getAll(@RequestParam(required = false) UUID taskId,
+                                    @RequestParam(required = false) UUID changedBy,
+                                    @RequestParam(required = false) String from,
+                                    @RequestParam(required = false) String to,
+                                    @RequestParam(required = false) Integer limit,
+                                    @RequestParam(required = false) String after) {
+        if (HistoryQuery.isLegacy(taskId, changedBy, from, to, limit, after)) {
+            return ResponseEntity.ok(taskHistoryService.getAll());
+        }
+
+        final TaskHistoryFilter filter;
+        try {
+            filter = HistoryQuery.filter(taskId, changedBy, from, to);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid filter", "details", iae.getMessage()));
+        }
+        final HistoryQuery q;
+        try {
+            q = HistoryQuery.of(filter, limit, after);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid pagination", "details", iae.getMessage()));
+        }
+        return ResponseEntity.ok(q.page(taskHistoryService.search(filter, q.afterChangedAt(), q.afterId(), q.limit() + 1)));
     }
 
     @PostMapping
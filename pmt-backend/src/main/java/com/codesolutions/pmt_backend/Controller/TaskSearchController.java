@@ -0,0 +1,80 @@
+package com.codesolutions.pmt_backend.Controller;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import com.codesolutions.pmt_backend.Repository.ProjectRepository;
+import com.codesolutions.pmt_backend.Repository.TaskRepository;
+import com.codesolutions.pmt_backend.Service.ProjectVersions;
+import com.codesolutions.pmt_backend.Service.TaskSearchIndex;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recherche plein texte dans le titre et la description des tâches d'un projet.
+ *
+ * GET /api/projects/{projectId}/tasks/search?q=...&limit=20
+ * L'index (TaskSearchIndex) donne les ids par pertinence ; les tâches sont relues en base en une requête,
+ * dans cet ordre. ETag = version du projet, comme la liste des tâches.
+ */
+@RestController
+@RequestMapping({"/api/projects/{projectId}/tasks/search", "/projects/{projectId}/tasks/search"})
+@CrossOrigin(origins = {"http://localhost:4200", "http://127.0.0.1:*"})
+public class TaskSearchController {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private final TaskSearchIndex index;
+    private final TaskRepository taskRepo;
+    private final ProjectRepository projectRepo;
+    private final ProjectVersions projectVersions;
+
+    public TaskSearchController(TaskSearchIndex index,
+                                TaskRepository taskRepo,
+                                ProjectRepository projectRepo,
+                                ProjectVersions projectVersions) {
+        this.index = index;
+        this.taskRepo = taskRepo;
+        this.projectRepo = projectRepo;
+        this.projectVersions = projectVersions;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> search(@PathVariable UUID projectId,
+                                    @RequestParam(required = false) String q,
+                                    @RequestParam(required = false) Integer limit,
+                                    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid query", "details", "q is required"));
+        }
+        final int size;
+        try {
+            size = KeysetCursor.clampLimit(limit, DEFAULT_LIMIT, MAX_LIMIT);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid limit", "details", iae.getMessage()));
+        }
+        if (!projectRepo.existsById(projectId)) { // lecture en cache
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Project not found"));
+        }
+        VersionTag tag = VersionTag.of(projectId, projectVersions.read(projectId));
+        if (tag.matches(ifNoneMatch)) return tag.notModified();
+
+        List<UUID> ids = index.search(projectId, q, size);
+        if (ids.isEmpty()) return tag.ok(List.of());
+
+        // Une tâche supprimée hors TaskController peut rester dans l'index jusqu'à la reconstruction : ignorée
+        Map<UUID, TaskDTO> byId = taskRepo.findDtoByProjectIdAndIdIn(projectId, ids).stream()
+                .collect(Collectors.toMap(TaskDTO::id, Function.identity()));
+        List<TaskDTO> hits = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            TaskDTO t = byId.get(id);
+            if (t != null) hits.add(t);
+        }
+        return tag.ok(hits);
+    }
+}
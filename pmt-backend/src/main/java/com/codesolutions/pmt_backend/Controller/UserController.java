@@ -1,25 +1,54 @@
 package com.codesolutions.pmt_backend.Controller;
 
+import com.codesolutions.pmt_backend.DTO.UserSummaryDTO;
 import com.codesolutions.pmt_backend.Entity.User;
+import com.codesolutions.pmt_backend.Service.UserDirectory;
 import com.codesolutions.pmt_backend.Service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    static final int SEARCH_DEFAULT_LIMIT = 10;
+    static final int SEARCH_MAX_LIMIT = 50;
+    private static final String USERS_CURSOR_KEY = "users";
+
     private final UserService userService;
+    private final UserDirectory directory;
+
+    @Value("${app.lists.unpaged-max:1000}")
+    private int unpagedMax;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserDirectory directory) {
         this.userService = userService;
+        this.directory = directory;
     }
 
+    // Avec limit ou after : page keyset (createdAt, id) de UserSummaryDTO, sans mot de passe ni entités chargées.
+    // Sans paramètre (déprécié, compatibilité) : tableau de UserSummaryDTO plafonné à app.lists.unpaged-max,
+    // suite annoncée par un en-tête Link rel="next".
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String after) {
+        if (limit == null && after == null) {
+            return ListQuery.unpaged(USERS_CURSOR_KEY, userService.listSummaries(null, null, unpagedMax + 1),
+                    unpagedMax, UserSummaryDTO::createdAt, UserSummaryDTO::id);
+        }
+        final ListQuery q;
+        try {
+            q = ListQuery.of(USERS_CURSOR_KEY, limit, after);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid pagination", "details", iae.getMessage()));
+        }
+        List<UserSummaryDTO> rows = userService.listSummaries(q.afterCreatedAt(), q.afterId(), q.limit() + 1);
+        return ResponseEntity.ok(q.page(rows, UserSummaryDTO::createdAt, UserSummaryDTO::id));
     }
 
     @PostMapping
@@ -27,6 +56,23 @@ public class UserController {
         return userService.createUser(user);
     }
 
+    // Autocomplétion (invitation, assignation) : servie par l'annuaire en mémoire, sans requête SQL
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam(required = false) String prefix,
+                                    @RequestParam(required = false) Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid prefix", "details", "prefix is required"));
+        }
+        final int size;
+        try {
+            size = KeysetCursor.clampLimit(limit, SEARCH_DEFAULT_LIMIT, SEARCH_MAX_LIMIT);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid limit", "details", iae.getMessage()));
+        }
+        List<UserSummaryDTO> users = directory.search(prefix, size);
+        return ResponseEntity.ok(users);
+    }
+
     @GetMapping("/{id}")
     public User getUserById(@PathVariable UUID id) {
         return userService.getUserById(id);
@@ -0,0 +1,117 @@
+package com.codesolutions.pmt_backend.Controller;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import com.codesolutions.pmt_backend.Entity.ProjectVersion;
+import com.codesolutions.pmt_backend.Service.ProjectVersions;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * ETag fort (et Last-Modified) d'une lecture, dérivé des compteurs de project_versions (cf. ProjectVersions),
+ * incrémentés par toute écriture, contrôleur ou non.
+ * Seul If-None-Match décide du 304 : Last-Modified, à la seconde près, manquerait deux écritures
+ * dans la même seconde.
+ */
+record VersionTag(String etag, @Nullable LocalDateTime lastModified) {
+
+    /**
+     * Lectures d'un projet ou de ses tâches : version du projet (tâches, membres, projet) et version
+     * DIRECTORY (utilisateurs affichés : assignés, membres), lignes lues par ProjectVersions.read.
+     */
+    static VersionTag of(UUID projectId, List<ProjectVersion> rows) {
+        long project = 0, directory = 0;
+        LocalDateTime lastModified = null;
+        for (ProjectVersion v : rows) {
+            if (v.getProjectId().equals(projectId)) project = v.getVersion();
+            else if (v.getProjectId().equals(ProjectVersions.DIRECTORY)) directory = v.getVersion();
+            else continue;
+            if (lastModified == null || v.getUpdatedAt().isAfter(lastModified)) lastModified = v.getUpdatedAt();
+        }
+        return new VersionTag("\"" + projectId + "-" + project + "-" + directory + "\"", lastModified);
+    }
+
+    /**
+     * Une tâche : "task-{id}-{version}", version = Task.version (verrou optimiste).
+     * Le même ETag sert au 304 de GET /tasks/{id} et à If-Match sur PATCH.
+     */
+    static VersionTag of(TaskDTO task) {
+        return new VersionTag(taskEtag(task.id(), task.version()), task.updatedAt());
+    }
+
+    static String taskEtag(UUID taskId, long version) {
+        return "\"task-" + taskId + "-" + version + "\"";
+    }
+
+    /**
+     * Version de tâche portée par un If-Match : ETag de la tâche ("task-{id}-{version}"), ou version nue
+     * (3 ou "3", champ version des listes). Comparaison forte : un ETag faible (W/) est refusé.
+     * @return null pour "*" (toute version)
+     * @throws IllegalArgumentException valeur illisible ou ETag d'une autre tâche
+     */
+    @Nullable
+    static Long taskVersion(String ifMatch, UUID taskId) {
+        String v = ifMatch.trim();
+        if (v.equals("*")) return null;
+        if (v.length() >= 2 && v.startsWith("\"") && v.endsWith("\"")) v = v.substring(1, v.length() - 1);
+        String prefix = "task-" + taskId + "-";
+        if (v.startsWith("task-")) {
+            if (!v.startsWith(prefix)) throw new IllegalArgumentException("ETag of another task: " + ifMatch);
+            v = v.substring(prefix.length());
+        }
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("expected a task ETag or version: " + ifMatch);
+        }
+    }
+
+    /**
+     * Liste des projets : version DIRECTORY, incrémentée par toute création, modification ou suppression
+     * de projet (compteur monotone : deux états distincts n'ont jamais le même ETag).
+     */
+    static VersionTag ofDirectory(Optional<ProjectVersion> directory) {
+        return new VersionTag("\"projects-" + directory.map(ProjectVersion::getVersion).orElse(0L) + "\"",
+                directory.map(ProjectVersion::getUpdatedAt).orElse(null));
+    }
+
+    /** If-None-Match : liste d'ETags ou "*", comparaison faible (RFC 9110 §13.1.2). */
+    boolean matches(@Nullable String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    <T> ResponseEntity<T> status(HttpStatus status, T body) {
+        return headers(ResponseEntity.status(status)).body(body);
+    }
+
+    <T> ResponseEntity<T> notModified() {
+        return headers(ResponseEntity.status(HttpStatus.NOT_MODIFIED)).build();
+    }
+
+    <T> ResponseEntity<T> ok(T body) {
+        return ok().body(body);
+    }
+
+    /** 200 avec ETag, pour ajouter d'autres en-têtes avant le corps. */
+    ResponseEntity.BodyBuilder ok() {
+        return headers(ResponseEntity.ok());
+    }
+
+    private ResponseEntity.BodyBuilder headers(ResponseEntity.BodyBuilder builder) {
+        builder.eTag(etag);
+        if (lastModified != null) builder.lastModified(lastModified.atZone(ZoneId.systemDefault()));
+        return builder;
+    }
+}
@@ -0,0 +1,12 @@
+package com.codesolutions.pmt_backend.DTO;
+
+import java.util.List;
+
+/**
+ * Page d'une liste paginée par curseur (keyset).
+ * nextCursor est null quand il n'y a plus d'éléments.
+ */
+public record CursorPageDTO<T>(
+        List<T> items,
+        String nextCursor
+) {}
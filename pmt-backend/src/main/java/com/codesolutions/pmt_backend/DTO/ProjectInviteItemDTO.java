@@ -0,0 +1,16 @@
+package com.codesolutions.pmt_backend.DTO;
+
+import java.util.UUID;
+
+/**
+ * Résultat d'une invitation en masse, dans l'ordre de la requête.
+ * result : INVITED | ALREADY_MEMBER | ERROR (error renseigné seulement dans ce cas) ;
+ * memberId : id du ProjectMember créé (INVITED) ou existant (ALREADY_MEMBER).
+ */
+public record ProjectInviteItemDTO(
+        int index,
+        String email,
+        String result,
+        UUID memberId,
+        String error
+) {}
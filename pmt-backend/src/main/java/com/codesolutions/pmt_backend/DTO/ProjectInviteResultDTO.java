@@ -0,0 +1,10 @@
+package com.codesolutions.pmt_backend.DTO;
+
+import java.util.List;
+
+public record ProjectInviteResultDTO(
+        int invited,
+        int alreadyMembers,
+        int failed,
+        List<ProjectInviteItemDTO> items
+) {}
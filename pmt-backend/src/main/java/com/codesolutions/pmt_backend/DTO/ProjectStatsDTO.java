@@ -0,0 +1,18 @@
+package com.codesolutions.pmt_backend.DTO;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Statistiques du tableau de bord d'un projet (GET /api/projects/{id}/stats).
+ * openByAssignee : tâches non terminées par id d'assigné ("none" = non assignées).
+ * overdue : tâches non terminées dont l'échéance est passée.
+ */
+public record ProjectStatsDTO(
+        UUID projectId,
+        long total,
+        Map<String, Long> byStatus,
+        Map<String, Long> byPriority,
+        long overdue,
+        Map<String, Long> openByAssignee
+) {}
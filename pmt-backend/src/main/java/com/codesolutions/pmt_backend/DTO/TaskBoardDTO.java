@@ -0,0 +1,23 @@
+package com.codesolutions.pmt_backend.DTO;
+
+import com.codesolutions.pmt_backend.Entity.TaskStatusEnum;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Board kanban d'un projet (GET /api/projects/{id}/tasks/board) : une colonne par statut,
+ * dans l'ordre de TaskStatusEnum, colonnes vides comprises.
+ * limit : nombre maximal de tâches renvoyées par colonne ; total : nombre de tâches de la colonne.
+ */
+public record TaskBoardDTO(
+        UUID projectId,
+        int limit,
+        List<Column> columns
+) {
+    public record Column(
+            TaskStatusEnum status,
+            long total,
+            List<TaskDTO> tasks
+    ) {}
+}
@@ -0,0 +1,14 @@
+package com.codesolutions.pmt_backend.DTO;
+
+import java.util.UUID;
+
+/**
+ * Résultat d'un élément d'import en masse, dans l'ordre de la requête.
+ * result : CREATED | UPDATED | UNCHANGED | ERROR (error renseigné seulement dans ce cas).
+ */
+public record TaskBulkItemDTO(
+        int index,
+        String result,
+        UUID id,
+        String error
+) {}
@@ -0,0 +1,11 @@
+package com.codesolutions.pmt_backend.DTO;
+
+import java.util.List;
+
+public record TaskBulkResultDTO(
+        int created,
+        int updated,
+        int unchanged,
+        int failed,
+        List<TaskBulkItemDTO> items
+) {}
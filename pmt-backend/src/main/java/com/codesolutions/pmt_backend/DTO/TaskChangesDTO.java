@@ -0,0 +1,17 @@
+package com.codesolutions.pmt_backend.DTO;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Réponse de GET .../tasks/changes.
+ * full : la copie locale du client doit être remplacée (premier appel ou curseur expiré).
+ * cursor : à renvoyer dans "since" ; hasMore : rappeler immédiatement pour la suite.
+ */
+public record TaskChangesDTO(
+        List<TaskDTO> changed,
+        List<UUID> deleted,
+        String cursor,
+        boolean hasMore,
+        boolean full
+) {}
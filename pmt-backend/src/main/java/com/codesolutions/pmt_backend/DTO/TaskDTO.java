@@ -19,5 +19,7 @@ public record TaskDTO(
         UUID assigneeId,
         String assigneeEmail,
         String assigneeUsername,
-        LocalDateTime createdAt
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version // verrou optimiste : à renvoyer dans If-Match sur PATCH
 ) {}
@@ -1,6 +1,9 @@
 package com.codesolutions.pmt_backend.DTO;
 
+import com.codesolutions.pmt_backend.Entity.TaskFieldChange;
+
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public record TaskHistoryDTO(
@@ -11,4 +14,12 @@ public record TaskHistoryDTO(
         String changedByUsername,
         String changedByEmail,
         LocalDateTime changedAt
-) {}
+) {
+    // Projection JPQL : le journal est reconstruit à partir des changements structurés
+    public TaskHistoryDTO(UUID id, UUID taskId, String action, List<TaskFieldChange> changes,
+                          UUID changedById, String changedByUsername, String changedByEmail,
+                          LocalDateTime changedAt) {
+        this(id, taskId, TaskFieldChange.render(action, changes), changedById, changedByUsername, changedByEmail,
+                changedAt);
+    }
+}
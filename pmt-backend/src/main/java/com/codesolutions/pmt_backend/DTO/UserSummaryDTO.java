@@ -0,0 +1,14 @@
+package com.codesolutions.pmt_backend.DTO;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Utilisateur réduit à ce qu'affichent les listes et l'autocomplétion (jamais le mot de passe).
+ */
+public record UserSummaryDTO(
+        UUID id,
+        String username,
+        String email,
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,106 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Message e-mail en attente d'envoi (pattern "transactional outbox").
+ * Écrit dans la même transaction que la modification métier, envoyé plus tard
+ * par le MailOutboxDispatcher : la requête HTTP n'attend jamais le serveur SMTP.
+ */
+@Entity
+@Table(name = "mail_outbox",
+       indexes = {
+           @Index(name = "idx_outbox_due", columnList = "status, next_attempt_at"),
+           @Index(name = "idx_outbox_recipient", columnList = "recipient, status")
+       })
+public class MailOutbox {
+
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    // Digest : body contient une ligne par tâche, l'en-tête est ajouté à l'envoi (MailService.compose)
+    @Column(nullable = false)
+    private boolean digest = false;
+
+    @Column(nullable = false)
+    private int items = 1;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MailOutboxStatusEnum status = MailOutboxStatusEnum.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public MailOutbox() {}
+
+    public MailOutbox(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    // Getters / Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+
+    public boolean isDigest() { return digest; }
+    public void setDigest(boolean digest) { this.digest = digest; }
+
+    public int getItems() { return items; }
+    public void setItems(int items) { this.items = items; }
+
+    public MailOutboxStatusEnum getStatus() { return status; }
+    public void setStatus(MailOutboxStatusEnum status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+}
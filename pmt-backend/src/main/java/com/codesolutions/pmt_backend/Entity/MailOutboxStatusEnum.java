@@ -0,0 +1,8 @@
+package com.codesolutions.pmt_backend.Entity;
+
+public enum MailOutboxStatusEnum {
+    PENDING,   // à envoyer (éventuellement après nextAttemptAt)
+    SENDING,   // réservé par un dispatcher jusqu'à nextAttemptAt (bail)
+    SENT,
+    FAILED     // nombre max de tentatives atteint
+}
@@ -1,21 +1,24 @@
 package com.codesolutions.pmt_backend.Entity;
 
 import jakarta.persistence.*;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable // cache de second niveau, actif avec le profil l2cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pmt-projects")
+@EntityListeners(ProjectVersionListener.class) // ETag du projet et de la liste des projets
 @Table(name = "projects")
 public class Project {
 
     @Id
-    @GeneratedValue
-    @JdbcTypeCode(SqlTypes.CHAR)                 // << mappe l’UUID en CHAR(36)
-    @Column(name = "id", columnDefinition = "CHAR(36)")
+    @UuidGenerator(algorithm = UuidV7Generator.class)   // << UUID v7, stockage BINARY(16) par défaut
+    @Column(name = "id")
     private UUID id;
 
     @Column(nullable = false)
@@ -1,21 +1,31 @@
 package com.codesolutions.pmt_backend.Entity;
 
 import jakarta.persistence.*;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable // cache de second niveau, actif avec le profil l2cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pmt-project-members")
 @Table(name = "project_members",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"project_id", "user_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"project_id", "user_id"}),
+       indexes = {
+           // GET /api/project-members paginé, d'un projet (keyset sur createdAt, id)
+           @Index(name = "idx_pm_project_created", columnList = "project_id, created_at, id"),
+           // ... et de tous les projets
+           @Index(name = "idx_pm_created", columnList = "created_at, id")
+       })
+// invalide le cache des appartenances du projet et change l'ETag du projet
+@EntityListeners({ProjectMemberListener.class, ProjectVersionListener.class})
 public class ProjectMember {
 
     @Id
-    @GeneratedValue
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(name = "id", columnDefinition = "CHAR(36)")
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Column(name = "id")
     private UUID id;
 
     @ManyToOne(optional = false)
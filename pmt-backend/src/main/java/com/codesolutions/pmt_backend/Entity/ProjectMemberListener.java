@@ -0,0 +1,28 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import com.codesolutions.pmt_backend.Service.ProjectMembershipResolver;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Invalide les appartenances en cache d'un projet à chaque écriture JPA d'un de ses membres
+ * (invitation, import, Spring Data REST, suppression), quel que soit le chemin.
+ * Instancié par Hibernate via le conteneur Spring : le resolver n'est résolu qu'à la première écriture.
+ */
+public class ProjectMemberListener {
+
+    private final ObjectProvider<ProjectMembershipResolver> resolver;
+
+    public ProjectMemberListener(ObjectProvider<ProjectMembershipResolver> resolver) {
+        this.resolver = resolver;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void changed(ProjectMember m) {
+        if (m.getProject() != null) resolver.getObject().evict(m.getProject().getId());
+    }
+}
@@ -0,0 +1,43 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Compteur de tâches d'un projet pour une dimension (kind) et une valeur (bucket) :
+ * status/TODO, priority/HIGH, assignee/{id|none}, deadline/2025-03-01...
+ * Maintenu par ProjectTaskCounters à chaque écriture de tâche, recalculé périodiquement.
+ */
+@Entity
+@Table(name = "project_task_counters")
+public class ProjectTaskCounter {
+
+    @Embeddable
+    public record Key(
+            @Column(name = "project_id") UUID projectId,
+            @Column(name = "kind", length = 16) String kind,
+            @Column(name = "bucket", length = 64) String bucket
+    ) implements Serializable {}
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "task_count", nullable = false)
+    private long count;
+
+    public ProjectTaskCounter() {}
+
+    public ProjectTaskCounter(Key id, long count) {
+        this.id = id;
+        this.count = count;
+    }
+
+    // Getters / Setters
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
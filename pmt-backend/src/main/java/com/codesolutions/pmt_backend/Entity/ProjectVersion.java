@@ -0,0 +1,40 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Compteur de version d'un projet, incrémenté à chaque écriture sur le projet, ses tâches ou ses membres
+ * (ProjectVersionRepository.bump). Sert d'ETag aux lectures du projet et de son board :
+ * un If-None-Match à jour est résolu par cette seule ligne, sans lire les tâches.
+ * Pas de ligne tant que le projet n'a jamais été modifié (version 0).
+ * La ligne d'id nul (ProjectVersions.DIRECTORY) compte les écritures de projets et d'utilisateurs.
+ */
+@Entity
+@Table(name = "project_versions")
+public class ProjectVersion {
+
+    @Id
+    @Column(name = "project_id")
+    private UUID projectId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ProjectVersion() {}
+
+    // Getters / Setters
+    public UUID getProjectId() { return projectId; }
+    public void setProjectId(UUID projectId) { this.projectId = projectId; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,46 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import com.codesolutions.pmt_backend.Service.ProjectVersions;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Toute écriture JPA d'un projet, d'un utilisateur, d'une tâche ou d'un membre change les ETag concernés,
+ * quel que soit le chemin (contrôleurs, Spring Data REST, services) : versions incrémentées après commit
+ * par ProjectVersions (une fois par projet et par transaction, rien si le contrôleur l'a déjà fait).
+ * Instancié par Hibernate via le conteneur Spring : ProjectVersions n'est résolu qu'à la première écriture
+ * (absent des tranches @DataJpaTest : rien à incrémenter).
+ */
+public class ProjectVersionListener {
+
+    private final ObjectProvider<ProjectVersions> versions;
+
+    public ProjectVersionListener(ObjectProvider<ProjectVersions> versions) {
+        this.versions = versions;
+    }
+
+    @PostRemove
+    void removed(Object entity) {
+        if (entity instanceof Project) versions.ifAvailable(ProjectVersions::directoryChanged); // projet supprimé : pas de version
+        else changed(entity);
+    }
+
+    @PostPersist
+    @PostUpdate
+    void changed(Object entity) {
+        ProjectVersions v = versions.getIfAvailable();
+        if (v == null) return;
+        if (entity instanceof Project p) {
+            v.bumpAfterCommit(p.getId());
+            v.directoryChanged(); // liste des projets
+        } else if (entity instanceof User) {
+            v.directoryChanged(); // noms et e-mails affichés dans les tâches et les membres
+        } else if (entity instanceof Task t && t.getProject() != null) {
+            v.bumpAfterCommit(t.getProject().getId());
+        } else if (entity instanceof ProjectMember m && m.getProject() != null) {
+            v.bumpAfterCommit(m.getProject().getId());
+        }
+    }
+}
@@ -1,21 +1,26 @@
 package com.codesolutions.pmt_backend.Entity;
 
 import jakarta.persistence.*;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tasks")
+@EntityListeners(ProjectVersionListener.class) // ETag du projet, y compris hors TaskController
+@Table(name = "tasks",
+       indexes = {
+           @Index(name = "idx_tasks_project_created", columnList = "project_id, created_at, id"),
+           @Index(name = "idx_tasks_project_status_priority", columnList = "project_id, status, priority"),
+           @Index(name = "idx_tasks_project_deadline", columnList = "project_id, deadline"),
+           @Index(name = "idx_tasks_project_updated", columnList = "project_id, updated_at, id")
+       })
 public class Task {
 
     @Id
-    @GeneratedValue
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(name = "id", columnDefinition = "CHAR(36)")
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Column(name = "id")
     private UUID id;
 
     @ManyToOne(optional = false)
@@ -25,6 +30,7 @@ public class Task {
     @Column(nullable = false)
     private String title;
 
+    @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
     @Enumerated(EnumType.STRING)
@@ -47,6 +53,23 @@ public class Task {
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Maintenu à chaque INSERT/UPDATE : sert de curseur à la synchronisation incrémentale (/changes)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Verrou optimiste : UPDATE ... WHERE version = ?, incrémentée à chaque écriture de la tâche
+    // (deux PATCH concurrents ne s'écrasent plus). NOT NULL : 0 pour les lignes existantes à l'ajout.
+    // Primitif : nouveauté décidée sur l'id, une référence {"id": ...} reste une tâche existante.
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
     // Getters / Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -77,4 +100,10 @@ public class Task {
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 }
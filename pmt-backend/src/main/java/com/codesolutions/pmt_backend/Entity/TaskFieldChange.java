@@ -0,0 +1,75 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Modification d'un champ de tâche, stockée en JSON dans task_history.changes.
+ * Pour les textes longs (description), from/to ne contiennent que la partie modifiée :
+ * prefix et suffix donnent la longueur des parties communes à l'ancien et au nouveau texte.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskFieldChange(String field,
+                              @Nullable String from,
+                              @Nullable String to,
+                              @Nullable Integer prefix,
+                              @Nullable Integer suffix) {
+
+    // Champs affichés entre quotes dans le journal (même rendu que l'ancien change_log texte)
+    private static final Set<String> QUOTED = Set.of("title", "description");
+    private static final String ELLIPSIS = "…";
+
+    public static TaskFieldChange of(String field, @Nullable Object from, @Nullable Object to) {
+        return new TaskFieldChange(field, from == null ? null : from.toString(), to == null ? null : to.toString(),
+                null, null);
+    }
+
+    /** Diff compact : seule la partie entre le plus long préfixe et le plus long suffixe communs est conservée. */
+    public static TaskFieldChange text(String field, @Nullable String from, @Nullable String to) {
+        String a = from == null ? "" : from;
+        String b = to == null ? "" : to;
+        int max = Math.min(a.length(), b.length());
+        int prefix = 0;
+        while (prefix < max && a.charAt(prefix) == b.charAt(prefix)) prefix++;
+        int suffix = 0;
+        while (suffix < max - prefix && a.charAt(a.length() - 1 - suffix) == b.charAt(b.length() - 1 - suffix)) suffix++;
+        // ne jamais couper une paire de substitution UTF-16
+        if (prefix > 0 && Character.isHighSurrogate(a.charAt(prefix - 1))) prefix--;
+        if (suffix > 0 && Character.isLowSurrogate(a.charAt(a.length() - suffix))) suffix--;
+        if (prefix == 0 && suffix == 0) return new TaskFieldChange(field, from, to, null, null);
+        return new TaskFieldChange(field, a.substring(prefix, a.length() - suffix),
+                b.substring(prefix, b.length() - suffix), prefix, suffix);
+    }
+
+    /**
+     * Journal lisible : "CREATED: title='x'; status=TODO" ou "UPDATED: status: TODO -> DONE".
+     * Sans changements structurés (lignes antérieures), le journal texte est rendu tel quel.
+     */
+    public static String render(String action, @Nullable List<TaskFieldChange> changes) {
+        if (changes == null || changes.isEmpty()) return action;
+        boolean created = "CREATED".equals(action);
+        StringBuilder sb = new StringBuilder(action).append(": ");
+        for (int i = 0; i < changes.size(); i++) {
+            if (i > 0) sb.append("; ");
+            TaskFieldChange c = changes.get(i);
+            if (created) {
+                sb.append(c.field).append('=').append(c.format(c.to));
+            } else {
+                sb.append(c.field).append(": ").append(c.format(c.from)).append(" -> ").append(c.format(c.to));
+            }
+        }
+        return sb.toString();
+    }
+
+    // Diff texte : "…" signale les parties communes non stockées
+    private String format(@Nullable String value) {
+        if (!QUOTED.contains(field)) return String.valueOf(value);
+        String head = Objects.requireNonNullElse(prefix, 0) > 0 ? ELLIPSIS : "";
+        String tail = Objects.requireNonNullElse(suffix, 0) > 0 ? ELLIPSIS : "";
+        return "'" + head + (value == null ? "" : value) + tail + "'";
+    }
+}
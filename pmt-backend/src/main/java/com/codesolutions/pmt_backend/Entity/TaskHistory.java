@@ -2,19 +2,25 @@ package com.codesolutions.pmt_backend.Entity;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "task_history")
+@Table(name = "task_history", indexes = {
+        // historique paginé d'une tâche (keyset sur changedAt, id)
+        @Index(name = "idx_history_task_changed", columnList = "task_id, changed_at, id"),
+        // GET /api/task-history paginé sans filtre de tâche
+        @Index(name = "idx_history_changed", columnList = "changed_at, id")
+})
 public class TaskHistory {
 
     @Id
-    @GeneratedValue
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(name = "id", columnDefinition = "CHAR(36)")
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Column(name = "id")
     private UUID id;
 
     @ManyToOne(optional = false)
@@ -25,9 +31,16 @@ public class TaskHistory {
     @JoinColumn(name = "changed_by")
     private User changedBy; // peut être null si non fourni
 
+    // Action ("CREATED", "UPDATED"...) ; les lignes antérieures aux changements structurés
+    // contiennent ici le journal complet en texte
     @Column(name = "change_log", nullable = false, columnDefinition = "TEXT")
     private String changeLog;
 
+    // Champs modifiés (JSON) ; les textes longs n'y sont stockés qu'en diff, cf. TaskFieldChange
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "changes")
+    private List<TaskFieldChange> changes;
+
     @Column(name = "changed_at")
     private LocalDateTime changedAt = LocalDateTime.now();
 
@@ -44,6 +57,9 @@ public class TaskHistory {
     public String getChangeLog() { return changeLog; }
     public void setChangeLog(String changeLog) { this.changeLog = changeLog; }
 
+    public List<TaskFieldChange> getChanges() { return changes; }
+    public void setChanges(List<TaskFieldChange> changes) { this.changes = changes; }
+
     public LocalDateTime getChangedAt() { return changedAt; }
     public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
 }
@@ -0,0 +1,64 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Historique froid : lignes de task_history plus anciennes que app.history.archive.after-days,
+ * déplacées par TaskHistoryArchiver. Table compressée côté MySQL (ROW_FORMAT=COMPRESSED, voir
+ * db-init/migrate_history_archive.sql) ; lue via TaskHistoryRepository, qui fusionne chaud et froid.
+ * Pas de clés étrangères : les identifiants sont copiés tels quels, la suppression d'une tâche
+ * purge aussi ses lignes archivées.
+ */
+@Entity
+@Table(name = "task_history_archive",
+       indexes = {
+           @Index(name = "idx_history_archive_task_changed", columnList = "task_id, changed_at, id"),
+           @Index(name = "idx_history_archive_changed", columnList = "changed_at, id")
+       })
+public class TaskHistoryArchive {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "changed_by")
+    private UUID changedById;
+
+    @Column(name = "change_log", nullable = false, columnDefinition = "TEXT")
+    private String changeLog;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "changes")
+    private List<TaskFieldChange> changes;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+
+    // Getters / Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getTaskId() { return taskId; }
+    public void setTaskId(UUID taskId) { this.taskId = taskId; }
+
+    public UUID getChangedById() { return changedById; }
+    public void setChangedById(UUID changedById) { this.changedById = changedById; }
+
+    public String getChangeLog() { return changeLog; }
+    public void setChangeLog(String changeLog) { this.changeLog = changeLog; }
+
+    public List<TaskFieldChange> getChanges() { return changes; }
+    public void setChanges(List<TaskFieldChange> changes) { this.changes = changes; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
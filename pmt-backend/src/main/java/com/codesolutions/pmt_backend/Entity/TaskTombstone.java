@@ -0,0 +1,44 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Trace d'une tâche supprimée, pour que les clients en synchronisation incrémentale
+ * (GET .../tasks/changes) puissent la retirer de leur copie locale.
+ * Purgée après app.sync.tombstone-retention-days ; un curseur plus ancien impose une resynchro complète.
+ */
+@Entity
+@Table(name = "task_tombstones",
+       indexes = @Index(name = "idx_tombstones_project_deleted", columnList = "project_id, deleted_at"))
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "task_id")
+    private UUID taskId;
+
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt = LocalDateTime.now();
+
+    public TaskTombstone() {}
+
+    public TaskTombstone(UUID taskId, UUID projectId) {
+        this.taskId = taskId;
+        this.projectId = projectId;
+    }
+
+    // Getters / Setters
+    public UUID getTaskId() { return taskId; }
+    public void setTaskId(UUID taskId) { this.taskId = taskId; }
+
+    public UUID getProjectId() { return projectId; }
+    public void setProjectId(UUID projectId) { this.projectId = projectId; }
+
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+}
@@ -1,20 +1,27 @@
 package com.codesolutions.pmt_backend.Entity;
 
 import jakarta.persistence.*;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Cacheable // cache de second niveau, actif avec le profil l2cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pmt-users")
+@Table(name = "users", indexes = {
+        // GET /api/users paginé (keyset sur createdAt, id)
+        @Index(name = "idx_users_created", columnList = "created_at, id")
+})
+// annuaire d'autocomplétion tenu à jour après commit ; ETag des lectures qui affichent l'utilisateur
+@EntityListeners({UserDirectoryListener.class, ProjectVersionListener.class})
 public class User {
 
     @Id
-    @GeneratedValue
-    @JdbcTypeCode(SqlTypes.CHAR)        // stocke l’UUID en CHAR(36)
-    @Column(name = "id", columnDefinition = "CHAR(36)")
+    @UuidGenerator(algorithm = UuidV7Generator.class)   // UUID v7 (ordonné dans le temps)
+    @Column(name = "id")     // BINARY(16) ou CHAR(36) selon hibernate.type.preferred_uuid_jdbc_type
     private UUID id;
 
     @Column(nullable = false, unique = true)
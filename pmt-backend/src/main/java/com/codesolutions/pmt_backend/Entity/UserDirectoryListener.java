@@ -0,0 +1,53 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import com.codesolutions.pmt_backend.DTO.UserSummaryDTO;
+import com.codesolutions.pmt_backend.Service.UserDirectory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Relaye les écritures d'utilisateurs (UserRepository, Spring Data REST, inscription...) à UserDirectory,
+ * après commit : une transaction annulée ne laisse rien dans l'annuaire.
+ * Instancié par Hibernate via le conteneur Spring pendant la création de l'EntityManagerFactory :
+ * l'annuaire (qui dépend de UserRepository) n'est résolu qu'à la première écriture.
+ */
+public class UserDirectoryListener {
+
+    private final ObjectProvider<UserDirectory> directory;
+
+    public UserDirectoryListener(ObjectProvider<UserDirectory> directory) {
+        this.directory = directory;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void saved(User u) {
+        UserSummaryDTO summary = new UserSummaryDTO(u.getId(), u.getUsername(), u.getEmail(), u.getCreatedAt());
+        afterCommit(() -> directory.getObject().put(summary));
+    }
+
+    @PostRemove
+    void removed(User u) {
+        UUID id = u.getId();
+        afterCommit(() -> directory.getObject().remove(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
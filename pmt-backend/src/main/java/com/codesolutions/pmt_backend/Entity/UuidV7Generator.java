@@ -0,0 +1,41 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur d'UUID version 7 (RFC 9562) : 48 bits de timestamp Unix en ms en tête,
+ * donc des clés croissantes dans le temps. Les insertions tombent en fin d'index InnoDB
+ * au lieu d'être dispersées comme avec des UUID v4 aléatoires.
+ *
+ * Les 12 bits "rand_a" servent de compteur : les UUID générés par cette JVM sont
+ * strictement croissants, y compris dans la même milliseconde.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // (timestamp ms << 12) | compteur : dernière valeur attribuée
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long tick = LAST.updateAndGet(prev -> Math.max(now, prev + 1));
+
+        long msb = (tick >>> 12) << 16      // unix_ts_ms (48 bits)
+                | 0x7000L                   // version 7
+                | (tick & 0xFFFL);          // rand_a utilisé comme compteur
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;      // variante RFC 4122
+        return new UUID(msb, lsb);
+    }
+}
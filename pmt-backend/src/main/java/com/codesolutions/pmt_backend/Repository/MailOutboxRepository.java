@@ -0,0 +1,98 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.Entity.MailOutbox;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Table technique : pas d'exposition Spring Data REST
+@RepositoryRestResource(exported = false)
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID> {
+
+    // Messages à envoyer : en attente, ou réservés dont le bail a expiré (dispatcher mort en cours d'envoi)
+    @Query("""
+           select m from MailOutbox m
+           where m.status in (com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.PENDING,
+                              com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.SENDING)
+             and m.nextAttemptAt <= :now
+           order by m.nextAttemptAt
+           """)
+    List<MailOutbox> findDue(LocalDateTime now, Limit limit);
+
+    // Digest encore ouvert pour ce destinataire (fenêtre non écoulée, jamais tenté).
+    // Verrouillé : deux assignations concurrentes s'ajoutent l'une après l'autre, sans perte.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+           select m from MailOutbox m
+           where m.recipient = :recipient
+             and m.digest = true
+             and m.status = com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.PENDING
+             and m.attempts = 0
+             and m.nextAttemptAt > :now
+           order by m.nextAttemptAt desc
+           """)
+    List<MailOutbox> findOpenDigest(String recipient, LocalDateTime now, Limit limit);
+
+    // Réservation atomique (compare-and-set) : 1 si ce dispatcher a obtenu le message, 0 sinon
+    @Modifying
+    @Transactional
+    @Query("""
+           update MailOutbox m
+           set m.status = com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.SENDING,
+               m.nextAttemptAt = :leaseUntil
+           where m.id = :id
+             and m.status in (com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.PENDING,
+                              com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.SENDING)
+             and m.nextAttemptAt <= :now
+           """)
+    int claim(UUID id, LocalDateTime now, LocalDateTime leaseUntil);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           update MailOutbox m
+           set m.status = com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.SENT,
+               m.sentAt = :sentAt, m.lastError = null
+           where m.id in :ids
+           """)
+    int markSent(Collection<UUID> ids, LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           update MailOutbox m
+           set m.status = com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.PENDING,
+               m.attempts = :attempts, m.nextAttemptAt = :nextAttemptAt, m.lastError = :error
+           where m.id = :id
+           """)
+    int reschedule(UUID id, int attempts, LocalDateTime nextAttemptAt, String error);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           update MailOutbox m
+           set m.status = com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.FAILED,
+               m.attempts = :attempts, m.lastError = :error
+           where m.id = :id
+           """)
+    int markFailed(UUID id, int attempts, String error);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           delete from MailOutbox m
+           where m.status = com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum.SENT
+             and m.sentAt < :before
+           """)
+    int purgeSentBefore(LocalDateTime before);
+}
@@ -0,0 +1,9 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import java.util.UUID;
+
+/**
+ * Appartenance réduite à (utilisateur, rôle), chargée par ProjectMembershipResolver.
+ */
+public record MemberRoleRow(UUID userId, String role) {
+}
@@ -1,13 +1,100 @@
 package com.codesolutions.pmt_backend.Repository;
 
+import com.codesolutions.pmt_backend.DTO.ProjectMemberDTO;
 import com.codesolutions.pmt_backend.Entity.ProjectMember;
 import com.codesolutions.pmt_backend.Entity.Project;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface ProjectMemberRepository extends JpaRepository<ProjectMember, UUID> {
     List<ProjectMember> findByProject(Project project);
     boolean existsByProject_IdAndUser_Id(UUID projectId, UUID userId);
+
+    // Rôles des membres d'un projet (cache d'autorisation, ProjectMembershipResolver) : deux colonnes
+    @Query("""
+           select new com.codesolutions.pmt_backend.Repository.MemberRoleRow(m.user.id, m.role)
+           from ProjectMember m
+           where m.project.id = :projectId
+           """)
+    List<MemberRoleRow> findRolesByProjectId(@Param("projectId") UUID projectId);
+
+    // Invitation en masse : appartenances existantes parmi les utilisateurs invités, en un SELECT ... IN
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.ProjectMemberDTO(
+               m.id, m.project.id, u.id, u.username, u.email, m.role, m.createdAt
+           )
+           from ProjectMember m
+           join m.user u
+           where m.project.id = :projectId and u.id in :userIds
+           """)
+    List<ProjectMemberDTO> findDtoByProjectIdAndUserIdIn(@Param("projectId") UUID projectId,
+                                                         @Param("userIds") Collection<UUID> userIds);
+
+    // Membres d'un projet en DTO : une jointure sur users, ni Project ni User chargés en entités
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.ProjectMemberDTO(
+               m.id, m.project.id, u.id, u.username, u.email, m.role, m.createdAt
+           )
+           from ProjectMember m
+           join m.user u
+           where m.project.id = :projectId
+           order by m.createdAt, m.id
+           """)
+    List<ProjectMemberDTO> findDtoByProjectId(@Param("projectId") UUID projectId);
+
+    // Listes paginées keyset (createdAt, id) : première page, puis après le curseur.
+    // Une requête par cas (un projet / tous) : un "(:projectId is null or ...)" empêcherait l'usage de l'index.
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.ProjectMemberDTO(
+               m.id, m.project.id, u.id, u.username, u.email, m.role, m.createdAt
+           )
+           from ProjectMember m
+           join m.user u
+           where m.project.id = :projectId
+           order by m.createdAt, m.id
+           """)
+    List<ProjectMemberDTO> findDtoPageByProjectId(@Param("projectId") UUID projectId, Limit limit);
+
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.ProjectMemberDTO(
+               m.id, m.project.id, u.id, u.username, u.email, m.role, m.createdAt
+           )
+           from ProjectMember m
+           join m.user u
+           where m.project.id = :projectId
+             and (m.createdAt > :at or (m.createdAt = :at and m.id > :id))
+           order by m.createdAt, m.id
+           """)
+    List<ProjectMemberDTO> findDtoPageByProjectIdAfter(@Param("projectId") UUID projectId,
+                                                       @Param("at") LocalDateTime at,
+                                                       @Param("id") UUID id,
+                                                       Limit limit);
+
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.ProjectMemberDTO(
+               m.id, m.project.id, u.id, u.username, u.email, m.role, m.createdAt
+           )
+           from ProjectMember m
+           join m.user u
+           order by m.createdAt, m.id
+           """)
+    List<ProjectMemberDTO> findDtoPage(Limit limit);
+
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.ProjectMemberDTO(
+               m.id, m.project.id, u.id, u.username, u.email, m.role, m.createdAt
+           )
+           from ProjectMember m
+           join m.user u
+           where m.createdAt > :at or (m.createdAt = :at and m.id > :id)
+           order by m.createdAt, m.id
+           """)
+    List<ProjectMemberDTO> findDtoPageAfter(@Param("at") LocalDateTime at, @Param("id") UUID id, Limit limit);
 }
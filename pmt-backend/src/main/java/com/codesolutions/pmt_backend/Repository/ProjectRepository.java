@@ -2,14 +2,65 @@ package com.codesolutions.pmt_backend.Repository;
 
 import com.codesolutions.pmt_backend.DTO.ProjectDTO;
 import com.codesolutions.pmt_backend.Entity.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Existence par id mise en cache ("projects", cf. spring.cache.*) : chaque endpoint de tâches commence
+ * par vérifier le projet, puis rattache au besoin une référence (getReferenceById, sans SELECT).
+ * Seul un booléen est en cache, jamais l'entité (mutable, liée à une session) ; seule une suppression
+ * le rend faux, et l'entrée est vidée avant l'appel (beforeInvocation) : rien à corriger si elle échoue.
+ * Les projections DTO passent par le cache de requêtes Hibernate (profil l2cache), invalidé par
+ * toute écriture dans la table projects.
+ */
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
 
+    // Ids inconnus non mis en cache : un projet créé ensuite est vu tout de suite
+    @Override
+    @Cacheable(cacheNames = "projects", key = "#p0", unless = "!#result")
+    boolean existsById(UUID id);
+
+    @Override
+    @CacheEvict(cacheNames = "projects", key = "#p0", beforeInvocation = true)
+    void deleteById(UUID id);
+
+    @Override
+    @CacheEvict(cacheNames = "projects", key = "#p0.id", beforeInvocation = true)
+    void delete(Project project);
+
+    @Override
+    @CacheEvict(cacheNames = "projects", allEntries = true, beforeInvocation = true)
+    void deleteAllById(Iterable<? extends UUID> ids);
+
+    @Override
+    @CacheEvict(cacheNames = "projects", allEntries = true, beforeInvocation = true)
+    void deleteAll(Iterable<? extends Project> projects);
+
+    @Override
+    @CacheEvict(cacheNames = "projects", allEntries = true, beforeInvocation = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = "projects", allEntries = true, beforeInvocation = true)
+    void deleteAllInBatch(Iterable<Project> projects);
+
+    @Override
+    @CacheEvict(cacheNames = "projects", allEntries = true, beforeInvocation = true)
+    void deleteAllByIdInBatch(Iterable<UUID> ids);
+
+    @Override
+    @CacheEvict(cacheNames = "projects", allEntries = true, beforeInvocation = true)
+    void deleteAllInBatch();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("""
         select new com.codesolutions.pmt_backend.DTO.ProjectDTO(
             p.id, p.name, p.description, p.startDate, p.owner.id, p.createdAt
@@ -18,6 +69,7 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
         """)
     List<ProjectDTO> findAllAsDto();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("""
         select new com.codesolutions.pmt_backend.DTO.ProjectDTO(
             p.id, p.name, p.description, p.startDate, p.owner.id, p.createdAt
@@ -0,0 +1,93 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.Entity.ProjectTaskCounter;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+// Table technique : pas d'exposition Spring Data REST
+@RepositoryRestResource(exported = false)
+public interface ProjectTaskCounterRepository extends JpaRepository<ProjectTaskCounter, ProjectTaskCounter.Key> {
+
+    // Incrément atomique (delta négatif possible), ligne créée au besoin ; espace de requête déclaré
+    // pour n'invalider que project_task_counters (et non tout le cache de second niveau)
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_task_counters"))
+    @Query(nativeQuery = true, value = """
+           insert into project_task_counters (project_id, kind, bucket, task_count)
+           values (:projectId, :kind, :bucket, :delta)
+           on duplicate key update task_count = task_count + :delta
+           """)
+    int add(UUID projectId, String kind, String bucket, long delta);
+
+    @Query("select c from ProjectTaskCounter c where c.id.projectId = :projectId")
+    List<ProjectTaskCounter> findByProjectId(UUID projectId);
+
+    // Réconciliation : lignes du projet verrouillées dans l'ordre de la clé
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+           select c from ProjectTaskCounter c where c.id.projectId = :projectId
+           order by c.id.kind, c.id.bucket
+           """)
+    List<ProjectTaskCounter> findByProjectIdForUpdate(UUID projectId);
+
+    @Modifying
+    @Query("delete from ProjectTaskCounter c where c.id.projectId = :projectId")
+    int deleteByProjectId(UUID projectId);
+
+    // Réconciliation : supprime les compteurs nuls (valeur courante), sauf ceux du kind conservé
+    @Modifying
+    @Query("""
+           delete from ProjectTaskCounter c
+           where c.id.projectId = :projectId and c.count = 0 and c.id.kind <> :keptKind
+           """)
+    int deleteEmpty(UUID projectId, String keptKind);
+
+    @Query("select p.id from Project p order by p.id")
+    List<UUID> findAllProjectIds();
+
+    // ===== Recalcul depuis la table tasks (job de réconciliation)
+
+    @Query("""
+           select new com.codesolutions.pmt_backend.Repository.TaskCountRow(t.status, count(t))
+           from Task t where t.project.id = :projectId
+           group by t.status
+           """)
+    List<TaskCountRow> countByStatus(UUID projectId);
+
+    @Query("""
+           select new com.codesolutions.pmt_backend.Repository.TaskCountRow(t.priority, count(t))
+           from Task t where t.project.id = :projectId
+           group by t.priority
+           """)
+    List<TaskCountRow> countByPriority(UUID projectId);
+
+    @Query("""
+           select new com.codesolutions.pmt_backend.Repository.TaskCountRow(a.id, count(t))
+           from Task t left join t.assignee a
+           where t.project.id = :projectId
+             and t.status <> com.codesolutions.pmt_backend.Entity.TaskStatusEnum.DONE
+           group by a.id
+           """)
+    List<TaskCountRow> countOpenByAssignee(UUID projectId);
+
+    @Query("""
+           select new com.codesolutions.pmt_backend.Repository.TaskCountRow(t.deadline, count(t))
+           from Task t
+           where t.project.id = :projectId and t.deadline is not null
+             and t.status <> com.codesolutions.pmt_backend.Entity.TaskStatusEnum.DONE
+           group by t.deadline
+           """)
+    List<TaskCountRow> countOpenByDeadline(UUID projectId);
+}
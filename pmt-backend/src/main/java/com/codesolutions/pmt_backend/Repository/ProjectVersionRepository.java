@@ -0,0 +1,36 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.Entity.ProjectVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Table technique : pas d'exposition Spring Data REST
+@RepositoryRestResource(exported = false)
+public interface ProjectVersionRepository extends JpaRepository<ProjectVersion, UUID> {
+
+    // Upsert atomique : crée la ligne en version 1 ou l'incrémente. Appelé dans la transaction de l'écriture,
+    // le verrou de ligne ordonne les écritures concurrentes d'un même projet jusqu'au commit.
+    // Espace de requête déclaré : sans lui, Hibernate invalide toutes les régions du cache de second niveau.
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_versions"))
+    @Query(nativeQuery = true, value = """
+           insert into project_versions (project_id, version, updated_at) values (:projectId, 1, :now)
+           on duplicate key update version = version + 1, updated_at = :now
+           """)
+    int bump(UUID projectId, LocalDateTime now);
+
+    // Version d'un projet et version DIRECTORY en un seul SELECT (cf. ProjectVersions.read)
+    List<ProjectVersion> findByProjectIdIn(Collection<UUID> projectIds);
+}
@@ -0,0 +1,36 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import com.codesolutions.pmt_backend.Entity.TaskPriorityEnum;
+import com.codesolutions.pmt_backend.Entity.TaskStatusEnum;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ligne du board (TaskRepository.findBoard) : une tâche et le nombre total de tâches de sa colonne
+ * (count(*) over (partition by status)), pour servir colonnes et totaux en une seule requête.
+ */
+public record TaskBoardRow(
+        UUID id,
+        UUID projectId,
+        String title,
+        String description,
+        TaskStatusEnum status,
+        TaskPriorityEnum priority,
+        LocalDate deadline,
+        LocalDate endDate,
+        UUID assigneeId,
+        String assigneeEmail,
+        String assigneeUsername,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version,
+        long columnTotal
+) {
+    public TaskDTO toDto() {
+        return new TaskDTO(id, projectId, title, description, status, priority, deadline, endDate,
+                assigneeId, assigneeEmail, assigneeUsername, createdAt, updatedAt, version);
+    }
+}
@@ -0,0 +1,8 @@
+package com.codesolutions.pmt_backend.Repository;
+
+/**
+ * Ligne d'un comptage groupé de tâches (recalcul des compteurs) : valeur du regroupement
+ * (statut, priorité, id d'assigné, échéance ; null possible) et nombre de tâches.
+ */
+public record TaskCountRow(Object bucket, long count) {
+}
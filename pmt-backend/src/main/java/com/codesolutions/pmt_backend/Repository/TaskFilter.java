@@ -0,0 +1,25 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.Entity.TaskPriorityEnum;
+import com.codesolutions.pmt_backend.Entity.TaskStatusEnum;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Critères de recherche des tâches d'un projet (tous optionnels).
+ * Les collections vides ou null ne filtrent pas.
+ */
+public record TaskFilter(
+        Set<TaskStatusEnum> statuses,
+        Set<TaskPriorityEnum> priorities,
+        UUID assigneeId,
+        LocalDate deadlineFrom,
+        LocalDate deadlineTo,
+        TaskSort sort
+) {
+    public static TaskFilter none() {
+        return new TaskFilter(null, null, null, null, null, TaskSort.CREATED_AT);
+    }
+}
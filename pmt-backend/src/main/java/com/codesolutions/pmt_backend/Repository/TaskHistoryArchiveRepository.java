@@ -0,0 +1,37 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.Entity.TaskHistoryArchive;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Table technique : pas d'exposition Spring Data REST ; lectures via TaskHistoryRepository
+@RepositoryRestResource(exported = false)
+public interface TaskHistoryArchiveRepository extends JpaRepository<TaskHistoryArchive, UUID> {
+
+    // Plus anciennes lignes chaudes à archiver (idx_history_changed)
+    @Query("""
+           select h.id from TaskHistory h
+           where h.changedAt < :before
+           order by h.changedAt, h.id
+           """)
+    List<UUID> findHotIdsChangedBefore(LocalDateTime before, Limit limit);
+
+    // Copie côté base, sans charger les entités
+    @Modifying
+    @Query("""
+           insert into TaskHistoryArchive (id, taskId, changedById, changeLog, changes, changedAt)
+           select h.id, h.task.id, c.id, h.changeLog, h.changes, h.changedAt
+           from TaskHistory h
+           left join h.changedBy c
+           where h.id in :ids
+           """)
+    int copyFromHot(Collection<UUID> ids);
+}
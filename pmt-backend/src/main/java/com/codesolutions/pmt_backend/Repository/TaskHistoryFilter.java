@@ -0,0 +1,19 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Critères de recherche dans l'historique des tâches (tous optionnels).
+ * Intervalle [from, to[ sur changedAt.
+ */
+public record TaskHistoryFilter(
+        UUID taskId,
+        UUID changedById,
+        LocalDateTime from,
+        LocalDateTime to
+) {
+    public static TaskHistoryFilter none() {
+        return new TaskHistoryFilter(null, null, null, null);
+    }
+}
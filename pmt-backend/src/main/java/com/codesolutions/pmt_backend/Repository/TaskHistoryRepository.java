@@ -1,13 +1,18 @@
 package com.codesolutions.pmt_backend.Repository;
 
+import com.codesolutions.pmt_backend.DTO.TaskHistoryDTO;
 import com.codesolutions.pmt_backend.Entity.TaskHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface TaskHistoryRepository extends JpaRepository<TaskHistory, UUID> {
+public interface TaskHistoryRepository extends JpaRepository<TaskHistory, UUID>, TaskHistoryRepositoryCustom {
 
     @Query("""
            select h from TaskHistory h
@@ -15,4 +20,28 @@ public interface TaskHistoryRepository extends JpaRepository<TaskHistory, UUID>
            order by h.changedAt desc, h.id desc
            """)
     List<TaskHistory> findByTaskIdOrderByChangedAtDesc(UUID taskId);
+
+    // Export de tout l'historique d'un projet (chaud + archivé), en flux (voir TaskRepository.streamDtoByProjectId)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.TaskHistoryDTO(
+               u.id, u.taskId, u.changeLog, u.changes, u.changedById, u.changedByUsername, u.changedByEmail, u.changedAt
+           )
+           from (
+               select h.id as id, h.task.id as taskId, h.changeLog as changeLog, h.changes as changes,
+                      c.id as changedById, c.username as changedByUsername, c.email as changedByEmail,
+                      h.changedAt as changedAt
+               from TaskHistory h
+               left join h.changedBy c
+               where h.task.project.id = :projectId
+               union all
+               select a.id, a.taskId, a.changeLog, a.changes, c.id, c.username, c.email, a.changedAt
+               from TaskHistoryArchive a
+               join Task t on t.id = a.taskId
+               left join User c on c.id = a.changedById
+               where t.project.id = :projectId
+           ) u
+           order by u.taskId, u.changedAt, u.id
+           """)
+    Stream<TaskHistoryDTO> streamDtoByProjectId(UUID projectId);
 }
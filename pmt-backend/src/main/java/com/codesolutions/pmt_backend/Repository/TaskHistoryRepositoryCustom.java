@@ -0,0 +1,25 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.DTO.TaskHistoryDTO;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskHistoryRepositoryCustom {
+
+    /**
+     * Historique filtré (chaud + archivé), du plus récent au plus ancien, projeté en TaskHistoryDTO.
+     * @param afterChangedAt/afterId position keyset (exclusive) ; null => depuis le début
+     * @param limit nombre max de lignes
+     */
+    List<TaskHistoryDTO> search(TaskHistoryFilter filter, @Nullable LocalDateTime afterChangedAt,
+                                @Nullable UUID afterId, int limit);
+
+    /** Historique complet d'une tâche (chaud + archivé), du plus récent au plus ancien. */
+    List<TaskHistoryDTO> findDtoByTaskId(UUID taskId);
+
+    /** Suppression d'une tâche : son historique, chaud et archivé, part avec elle. */
+    int deleteByTaskId(UUID taskId);
+}
@@ -0,0 +1,117 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.DTO.TaskHistoryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implémentation de TaskHistoryRepositoryCustom (fragment Spring Data).
+ * L'historique vit dans deux tables (task_history et l'archive froide task_history_archive) :
+ * une requête par table, chacune avec ses critères, son keyset, son ORDER BY et sa limite, donc servie
+ * par ses index (task_id, changed_at, id) / (changed_at, id) sans tri ni lecture au-delà de la page ;
+ * les deux listes, déjà triées, sont fusionnées puis recoupées à la limite. Une page coûte au plus
+ * 2 x limit lignes lues, quelle que soit sa position et la taille de l'archive.
+ */
+public class TaskHistoryRepositoryImpl implements TaskHistoryRepositoryCustom {
+
+    // Du plus récent au plus ancien, comme les ORDER BY : id départage les lignes de même changedAt,
+    // comparé en non signé (ordre des octets de BINARY(16), pas UUID.compareTo qui est signé)
+    private static final Comparator<UUID> UUID_BYTES = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+    private static final Comparator<TaskHistoryDTO> NEWEST_FIRST =
+            Comparator.comparing(TaskHistoryDTO::changedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(TaskHistoryDTO::id, UUID_BYTES.reversed());
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<TaskHistoryDTO> search(TaskHistoryFilter filter, @Nullable LocalDateTime afterChangedAt,
+                                       @Nullable UUID afterId, int limit) {
+        boolean keyset = afterChangedAt != null && afterId != null;
+        String hot = """
+                select new com.codesolutions.pmt_backend.DTO.TaskHistoryDTO(
+                    h.id, h.task.id, h.changeLog, h.changes, c.id, c.username, c.email, h.changedAt
+                )
+                from TaskHistory h
+                left join h.changedBy c
+                where %s
+                order by h.changedAt desc, h.id desc
+                """.formatted(where("h", "h.task.id", "h.changedBy.id", filter, keyset));
+        String cold = """
+                select new com.codesolutions.pmt_backend.DTO.TaskHistoryDTO(
+                    a.id, a.taskId, a.changeLog, a.changes, c.id, c.username, c.email, a.changedAt
+                )
+                from TaskHistoryArchive a
+                left join User c on c.id = a.changedById
+                where %s
+                order by a.changedAt desc, a.id desc
+                """.formatted(where("a", "a.taskId", "a.changedById", filter, keyset));
+
+        return merge(query(hot, filter, afterChangedAt, afterId, keyset, limit),
+                query(cold, filter, afterChangedAt, afterId, keyset, limit), limit);
+    }
+
+    private List<TaskHistoryDTO> query(String hql, TaskHistoryFilter filter, @Nullable LocalDateTime afterChangedAt,
+                                       @Nullable UUID afterId, boolean keyset, int limit) {
+        TypedQuery<TaskHistoryDTO> q = em.createQuery(hql, TaskHistoryDTO.class);
+        if (filter.taskId() != null) q.setParameter("taskId", filter.taskId());
+        if (filter.changedById() != null) q.setParameter("changedBy", filter.changedById());
+        if (filter.from() != null) q.setParameter("from", filter.from());
+        if (filter.to() != null) q.setParameter("to", filter.to());
+        if (keyset) {
+            q.setParameter("afterAt", afterChangedAt);
+            q.setParameter("afterId", afterId);
+        }
+        return q.setMaxResults(limit).getResultList();
+    }
+
+    // Fusion de deux listes triées NEWEST_FIRST, limitée aux limit premières lignes
+    static List<TaskHistoryDTO> merge(List<TaskHistoryDTO> a, List<TaskHistoryDTO> b, int limit) {
+        List<TaskHistoryDTO> out = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+        int i = 0, j = 0;
+        while (out.size() < limit && (i < a.size() || j < b.size())) {
+            if (j >= b.size() || (i < a.size() && NEWEST_FIRST.compare(a.get(i), b.get(j)) <= 0)) out.add(a.get(i++));
+            else out.add(b.get(j++));
+        }
+        return out;
+    }
+
+    // Critères d'une table ; mêmes noms de paramètres pour les deux requêtes
+    private static String where(String alias, String taskPath, String changedByPath, TaskHistoryFilter filter,
+                                boolean keyset) {
+        StringBuilder w = new StringBuilder("1 = 1");
+        if (filter.taskId() != null) w.append(" and ").append(taskPath).append(" = :taskId");
+        if (filter.changedById() != null) w.append(" and ").append(changedByPath).append(" = :changedBy");
+        if (filter.from() != null) w.append(" and ").append(alias).append(".changedAt >= :from");
+        if (filter.to() != null) w.append(" and ").append(alias).append(".changedAt < :to");
+        if (keyset) {
+            w.append(" and (%1$s.changedAt < :afterAt or (%1$s.changedAt = :afterAt and %1$s.id < :afterId))"
+                    .formatted(alias));
+        }
+        return w.toString();
+    }
+
+    @Override
+    public List<TaskHistoryDTO> findDtoByTaskId(UUID taskId) {
+        return search(new TaskHistoryFilter(taskId, null, null, null), null, null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int deleteByTaskId(UUID taskId) {
+        int hot = em.createQuery("delete from TaskHistory h where h.task.id = :taskId")
+                .setParameter("taskId", taskId).executeUpdate();
+        int cold = em.createQuery("delete from TaskHistoryArchive a where a.taskId = :taskId")
+                .setParameter("taskId", taskId).executeUpdate();
+        return hot + cold;
+    }
+}
@@ -0,0 +1,57 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Position keyset dans une liste de tâches triée :
+ * sortValue = valeur de la clé de tri ("rang/échéance" pour PRIORITY, échéance pour DEADLINE), null pour CREATED_AT.
+ */
+public record TaskKeyset(String sortValue, LocalDateTime createdAt, UUID id) {
+
+    private static final String SEPARATOR = "/";
+
+    /** Position juste après la tâche t pour le tri donné. */
+    public static TaskKeyset of(TaskSort sort, TaskDTO t) {
+        String value = switch (sort) {
+            case CREATED_AT -> null;
+            case PRIORITY -> TaskSort.priorityRank(t.priority()) + SEPARATOR + deadlineKey(t.deadline());
+            case DEADLINE -> deadlineKey(t.deadline()).toString();
+        };
+        return new TaskKeyset(value, t.createdAt(), t.id());
+    }
+
+    /**
+     * Vérifie que la position est exploitable pour ce tri (curseur émis pour un autre tri, altéré...).
+     * @throws IllegalArgumentException sinon
+     */
+    public TaskKeyset requireCompatible(TaskSort sort) {
+        try {
+            switch (sort) {
+                case PRIORITY -> { TaskSort.priorityOfRank(priorityRank()); deadline(); }
+                case DEADLINE -> LocalDate.parse(sortValue);
+                default -> { }
+            }
+            return this;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor does not match sort");
+        }
+    }
+
+    /** Tri PRIORITY : rang de priorité de la position. */
+    int priorityRank() {
+        return Integer.parseInt(sortValue.substring(0, sortValue.indexOf(SEPARATOR)));
+    }
+
+    /** Tris PRIORITY et DEADLINE : échéance de la position (NO_DEADLINE si aucune). */
+    LocalDate deadline() {
+        return LocalDate.parse(sortValue.substring(sortValue.indexOf(SEPARATOR) + 1));
+    }
+
+    private static LocalDate deadlineKey(LocalDate deadline) {
+        return deadline != null ? deadline : TaskSort.NO_DEADLINE;
+    }
+}
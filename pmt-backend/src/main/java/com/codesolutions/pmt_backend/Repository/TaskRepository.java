@@ -1,14 +1,24 @@
 package com.codesolutions.pmt_backend.Repository;
 
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
 import com.codesolutions.pmt_backend.Entity.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, UUID> {
+public interface TaskRepository extends JpaRepository<Task, UUID>, TaskRepositoryCustom {
 
     // Liste les tâches d’un projet, triées par date de création (desc)
     @Query("""
@@ -19,6 +29,131 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
            """)
     List<Task> findByProjectIdOrderByCreatedAtDesc(@Param("projectId") UUID projectId);
 
+    // Projection directe en DTO : un seul SELECT (jointure externe sur l'assigné),
+    // sans charger Project/User en entités
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.TaskDTO(
+               t.id, t.project.id, t.title, t.description, t.status, t.priority,
+               t.deadline, t.endDate, a.id, a.email, a.username, t.createdAt, t.updatedAt, t.version
+           )
+           from Task t
+           left join t.assignee a
+           where t.id = :id
+           """)
+    Optional<TaskDTO> findDtoById(@Param("id") UUID id);
+
+    boolean existsByIdAndProject_Id(UUID id, UUID projectId);
+
+    // Les suppressions passent par DELETE /api/projects/{pid}/tasks/{id}, qui écrit le tombstone de synchro
+    @Override
+    @RestResource(exported = false)
+    void deleteById(UUID id);
+
+    @Override
+    @RestResource(exported = false)
+    void delete(Task task);
+
+    // Synchro incrémentale : tâches créées/modifiées après (updatedAt, id), dans l'ordre du curseur
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.TaskDTO(
+               t.id, t.project.id, t.title, t.description, t.status, t.priority,
+               t.deadline, t.endDate, a.id, a.email, a.username, t.createdAt, t.updatedAt, t.version
+           )
+           from Task t
+           left join t.assignee a
+           where t.project.id = :projectId
+             and (t.updatedAt > :at or (t.updatedAt = :at and t.id > :id))
+           order by t.updatedAt, t.id
+           """)
+    List<TaskDTO> findChangedSince(@Param("projectId") UUID projectId,
+                                   @Param("at") LocalDateTime at,
+                                   @Param("id") UUID id,
+                                   Limit limit);
+
+    // Export : curseur JDBC en avant seulement, lu par paquets de 500 lignes (useCursorFetch côté MySQL).
+    // Projection DTO : rien n'est attaché au contexte de persistance, la mémoire reste plate.
+    // À consommer dans une transaction et à fermer (try-with-resources).
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.TaskDTO(
+               t.id, t.project.id, t.title, t.description, t.status, t.priority,
+               t.deadline, t.endDate, a.id, a.email, a.username, t.createdAt, t.updatedAt, t.version
+           )
+           from Task t
+           left join t.assignee a
+           where t.project.id = :projectId
+           order by t.createdAt, t.id
+           """)
+    Stream<TaskDTO> streamDtoByProjectId(@Param("projectId") UUID projectId);
+
+    // Board kanban : les :perColumn premières tâches de chaque statut (priorité HIGH -> LOW, échéance
+    // la plus proche, sans échéance en dernier, puis plus récentes : ordre de la liste ?sort=priority)
+    // et le total de chaque colonne, en un seul SELECT.
+    // row_number()/count(*) over (partition by status) : MySQL 8 et H2 ; l'index
+    // (project_id, status, priority) borne la lecture au projet.
+    @Query("""
+           select new com.codesolutions.pmt_backend.Repository.TaskBoardRow(
+               b.id, b.projectId, b.title, b.description, b.status, b.priority,
+               b.deadline, b.endDate, b.assigneeId, b.assigneeEmail, b.assigneeUsername,
+               b.createdAt, b.updatedAt, b.version, b.columnTotal
+           )
+           from (
+               select t.id as id, t.project.id as projectId, t.title as title, t.description as description,
+                      t.status as status, t.priority as priority, t.deadline as deadline, t.endDate as endDate,
+                      a.id as assigneeId, a.email as assigneeEmail, a.username as assigneeUsername,
+                      t.createdAt as createdAt, t.updatedAt as updatedAt, t.version as version,
+                      row_number() over (
+                          partition by t.status
+                          order by case t.priority
+                                       when com.codesolutions.pmt_backend.Entity.TaskPriorityEnum.HIGH then 0
+                                       when com.codesolutions.pmt_backend.Entity.TaskPriorityEnum.MEDIUM then 1
+                                       else 2 end,
+                                   case when t.deadline is null then 1 else 0 end, t.deadline, t.createdAt desc, t.id desc
+                      ) as position,
+                      count(*) over (partition by t.status) as columnTotal
+               from Task t
+               left join t.assignee a
+               where t.project.id = :projectId
+           ) b
+           where b.position <= :perColumn
+           order by b.status, b.position
+           """)
+    List<TaskBoardRow> findBoard(@Param("projectId") UUID projectId, @Param("perColumn") long perColumn);
+
+    // Reconstruction de l'index de recherche : toutes les tâches, en flux (mêmes règles que streamDtoByProjectId)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.TaskDTO(
+               t.id, t.project.id, t.title, t.description, t.status, t.priority,
+               t.deadline, t.endDate, a.id, a.email, a.username, t.createdAt, t.updatedAt, t.version
+           )
+           from Task t
+           left join t.assignee a
+           """)
+    Stream<TaskDTO> streamAllDto();
+
+    // Résultats de recherche : les tâches trouvées par l'index, relues en base (ordre rétabli par l'appelant)
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.TaskDTO(
+               t.id, t.project.id, t.title, t.description, t.status, t.priority,
+               t.deadline, t.endDate, a.id, a.email, a.username, t.createdAt, t.updatedAt, t.version
+           )
+           from Task t
+           left join t.assignee a
+           where t.project.id = :projectId and t.id in :ids
+           """)
+    List<TaskDTO> findDtoByProjectIdAndIdIn(@Param("projectId") UUID projectId, @Param("ids") Collection<UUID> ids);
+
+    // Tâches à mettre à jour par l'import en masse, avec projet et assigné dans le même SELECT
+    @Query("""
+           select t
+           from Task t
+           join fetch t.project p
+           left join fetch t.assignee
+           where p.id = :projectId and t.id in :ids
+           """)
+    List<Task> findAllForUpdate(@Param("projectId") UUID projectId, @Param("ids") Collection<UUID> ids);
+
     // (Optionnel) si tu préfères la version Spring-data enchaînée,
     // tu peux AUSSI déclarer celle-ci ; garde au moins la JPQL ci-dessus.
     // List<Task> findByProject_IdOrderByCreatedAtDesc(UUID projectId);
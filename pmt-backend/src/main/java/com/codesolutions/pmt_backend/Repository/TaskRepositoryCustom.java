@@ -0,0 +1,18 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Recherche dynamique des tâches d'un projet : filtres + tri poussés en base, projection TaskDTO.
+     * @param after position keyset (exclusive) ; null => depuis le début
+     * @param limit nombre max de lignes ; null => pas de limite
+     */
+    List<TaskDTO> search(UUID projectId, TaskFilter filter, @Nullable TaskKeyset after, @Nullable Integer limit);
+
+}
@@ -0,0 +1,147 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import com.codesolutions.pmt_backend.Entity.Task;
+import com.codesolutions.pmt_backend.Entity.TaskPriorityEnum;
+import com.codesolutions.pmt_backend.Entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implémentation Criteria de TaskRepositoryCustom (fragment Spring Data).
+ * Les filtres et le tri sont traduits en SQL : seules les lignes utiles quittent la base,
+ * directement projetées en TaskDTO (un seul SELECT par segment, pas de chargement des @ManyToOne).
+ * Tris PRIORITY et DEADLINE : pas de CASE / COALESCE sur les colonnes triées (inutilisables par les index
+ * (project_id, status, priority) et (project_id, deadline)). La liste est découpée en segments définis par
+ * des prédicats explicites (priority = ?, deadline is [not] null), lus l'un après l'autre jusqu'à remplir
+ * la page ; chaque segment trie sur la colonne stockée.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Tranche de la liste triée : priorité fixée (tri PRIORITY) et/ou tâches avec ou sans échéance
+     * (null = sans restriction). Les tâches datées sont triées par échéance, les autres par (createdAt, id).
+     */
+    private record Segment(@Nullable TaskPriorityEnum priority, @Nullable Boolean dated) {}
+
+    @Override
+    public List<TaskDTO> search(UUID projectId, TaskFilter filter, @Nullable TaskKeyset after, @Nullable Integer limit) {
+        TaskSort sort = filter.sort() != null ? filter.sort() : TaskSort.CREATED_AT;
+        List<Segment> segments = segments(sort, filter);
+        int from = 0;
+        if (after != null) {
+            Segment current = segmentOf(sort, after);
+            from = segments.indexOf(current);
+            if (from < 0) return List.of(); // curseur dans un segment exclu par les filtres
+        }
+
+        List<TaskDTO> rows = new ArrayList<>();
+        for (int i = from; i < segments.size(); i++) {
+            Integer remaining = (limit == null) ? null : limit - rows.size();
+            if (remaining != null && remaining <= 0) break;
+            rows.addAll(query(projectId, filter, segments.get(i), i == from ? after : null, remaining));
+        }
+        return rows;
+    }
+
+    // Segments dans l'ordre du tri, hors ceux que les filtres excluent (pas de requête inutile)
+    private static List<Segment> segments(TaskSort sort, TaskFilter filter) {
+        boolean undatedAllowed = filter.deadlineFrom() == null && filter.deadlineTo() == null;
+        List<Segment> out = new ArrayList<>();
+        switch (sort) {
+            case PRIORITY -> {
+                for (TaskPriorityEnum p : TaskSort.PRIORITY_ORDER) {
+                    if (filter.priorities() != null && !filter.priorities().isEmpty() && !filter.priorities().contains(p)) continue;
+                    out.add(new Segment(p, true));
+                    if (undatedAllowed) out.add(new Segment(p, false));
+                }
+            }
+            case DEADLINE -> {
+                out.add(new Segment(null, true));
+                if (undatedAllowed) out.add(new Segment(null, false));
+            }
+            default -> out.add(new Segment(null, null));
+        }
+        return out;
+    }
+
+    private static Segment segmentOf(TaskSort sort, TaskKeyset after) {
+        return switch (sort) {
+            case PRIORITY -> new Segment(TaskSort.priorityOfRank(after.priorityRank()), !TaskSort.NO_DEADLINE.equals(after.deadline()));
+            case DEADLINE -> new Segment(null, !TaskSort.NO_DEADLINE.equals(after.deadline()));
+            default -> new Segment(null, null);
+        };
+    }
+
+    private List<TaskDTO> query(UUID projectId, TaskFilter filter, Segment segment,
+                                @Nullable TaskKeyset after, @Nullable Integer limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<TaskDTO> q = cb.createQuery(TaskDTO.class);
+        Root<Task> t = q.from(Task.class);
+        Join<Task, User> a = t.join("assignee", JoinType.LEFT);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(t.get("project").get("id"), projectId));
+        if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+            where.add(t.get("status").in(filter.statuses()));
+        }
+        if (segment.priority() != null) {
+            where.add(cb.equal(t.get("priority"), segment.priority()));
+        } else if (filter.priorities() != null && !filter.priorities().isEmpty()) {
+            where.add(t.get("priority").in(filter.priorities()));
+        }
+        if (filter.assigneeId() != null) {
+            where.add(cb.equal(t.get("assignee").get("id"), filter.assigneeId()));
+        }
+        if (filter.deadlineFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(t.get("deadline"), filter.deadlineFrom()));
+        }
+        if (filter.deadlineTo() != null) {
+            where.add(cb.lessThanOrEqualTo(t.get("deadline"), filter.deadlineTo()));
+        }
+
+        Path<LocalDate> deadline = t.get("deadline");
+        Path<LocalDateTime> createdAt = t.get("createdAt");
+        Path<UUID> id = t.get("id");
+        Predicate afterTail = (after == null) ? null : cb.or(
+                cb.lessThan(createdAt, after.createdAt()),
+                cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id())));
+
+        List<Order> order = new ArrayList<>();
+        if (Boolean.TRUE.equals(segment.dated())) {
+            where.add(cb.isNotNull(deadline));
+            order.add(cb.asc(deadline));
+            if (after != null) {
+                LocalDate k = after.deadline();
+                where.add(cb.or(cb.greaterThan(deadline, k), cb.and(cb.equal(deadline, k), afterTail)));
+            }
+        } else {
+            if (Boolean.FALSE.equals(segment.dated())) where.add(cb.isNull(deadline));
+            if (after != null) where.add(afterTail);
+        }
+        order.add(cb.desc(createdAt));
+        order.add(cb.desc(id));
+
+        q.select(cb.construct(TaskDTO.class,
+                        t.get("id"), t.get("project").get("id"), t.get("title"), t.get("description"),
+                        t.get("status"), t.get("priority"), deadline, t.get("endDate"),
+                        a.get("id"), a.get("email"), a.get("username"), createdAt, t.get("updatedAt"), t.get("version")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(order);
+        TypedQuery<TaskDTO> query = em.createQuery(q);
+        if (limit != null) query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
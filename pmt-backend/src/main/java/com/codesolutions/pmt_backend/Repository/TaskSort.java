@@ -0,0 +1,53 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.Entity.TaskPriorityEnum;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ordres de tri disponibles pour la liste des tâches d'un projet.
+ * Chaque tri se termine par (createdAt desc, id desc) pour rester déterministe
+ * et permettre la pagination keyset.
+ */
+public enum TaskSort {
+    CREATED_AT,   // plus récentes d'abord
+    PRIORITY,     // HIGH -> MEDIUM -> LOW, puis échéance (comme le board)
+    DEADLINE;     // échéance la plus proche d'abord, sans échéance en dernier
+
+    /** "createdAt" | "priority" | "deadline" (insensible à la casse) ; null => CREATED_AT. */
+    public static TaskSort parse(String s) {
+        if (s == null || s.isBlank()) return CREATED_AT;
+        return switch (s.trim().toLowerCase()) {
+            case "createdat", "created_at" -> CREATED_AT;
+            case "priority" -> PRIORITY;
+            case "deadline" -> DEADLINE;
+            default -> throw new IllegalArgumentException("Unknown sort: " + s);
+        };
+    }
+
+    /** Substitut des échéances nulles : les tâches sans échéance passent en dernier. */
+    static final LocalDate NO_DEADLINE = LocalDate.of(9999, 12, 31);
+
+    /** Priorités dans l'ordre du tri PRIORITY (rang décroissant). */
+    static final List<TaskPriorityEnum> PRIORITY_ORDER =
+            List.of(TaskPriorityEnum.HIGH, TaskPriorityEnum.MEDIUM, TaskPriorityEnum.LOW);
+
+    /** Priorité d'un rang (curseur PRIORITY). @throws IllegalArgumentException rang inconnu */
+    static TaskPriorityEnum priorityOfRank(int rank) {
+        for (TaskPriorityEnum p : TaskPriorityEnum.values()) {
+            if (priorityRank(p) == rank) return p;
+        }
+        throw new IllegalArgumentException("Unknown priority rank: " + rank);
+    }
+
+    /** Rang de priorité (indépendant de l'ordre de stockage de l'enum en base). */
+    static int priorityRank(TaskPriorityEnum p) {
+        if (p == null) return 0;
+        return switch (p) {
+            case LOW -> 1;
+            case MEDIUM -> 2;
+            case HIGH -> 3;
+        };
+    }
+}
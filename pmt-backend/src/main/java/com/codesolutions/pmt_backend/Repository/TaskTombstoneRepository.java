@@ -0,0 +1,28 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.Entity.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Table technique : pas d'exposition Spring Data REST
+@RepositoryRestResource(exported = false)
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, UUID> {
+
+    @Query("""
+           select t.taskId from TaskTombstone t
+           where t.projectId = :projectId and t.deletedAt > :since
+           """)
+    List<UUID> findTaskIdsDeletedSince(UUID projectId, LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("delete from TaskTombstone t where t.deletedAt < :before")
+    int purgeBefore(LocalDateTime before);
+}
@@ -1,14 +1,125 @@
 package com.codesolutions.pmt_backend.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import com.codesolutions.pmt_backend.DTO.UserSummaryDTO;
 import com.codesolutions.pmt_backend.Entity.User;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.UUID;
 
+// Existence par id ("users") et id par e-mail ("usersByEmail") en cache : valeurs immuables, jamais
+// d'entités ; l'appelant rattache une référence (getReferenceById). Entrées vidées avant l'appel
+// (beforeInvocation) : l'e-mail pouvant changer, toute écriture vide entièrement "usersByEmail".
 public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
 
+    // Ids inconnus non mis en cache : un utilisateur créé ensuite est vu tout de suite
+    @Override
+    @Cacheable(cacheNames = "users", key = "#p0", unless = "!#result")
+    boolean existsById(UUID id);
+
+    // Entité complète (mot de passe compris) : jamais en cache
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    // Clé en minuscules : la collation MySQL de users.email est insensible à la casse
+    @Cacheable(cacheNames = "usersByEmail", key = "#p0.trim().toLowerCase(T(java.util.Locale).ROOT)",
+            unless = "#result == null")
+    @Query("select u.id from User u where u.email = :email")
+    Optional<UUID> findIdByEmail(@Param("email") String email);
+
+    @Override
+    @CacheEvict(cacheNames = "usersByEmail", allEntries = true, beforeInvocation = true)
+    <S extends User> S save(S user);
+
+    @Override
+    @CacheEvict(cacheNames = "usersByEmail", allEntries = true, beforeInvocation = true)
+    <S extends User> S saveAndFlush(S user);
+
+    @Override
+    @CacheEvict(cacheNames = "usersByEmail", allEntries = true, beforeInvocation = true)
+    <S extends User> List<S> saveAll(Iterable<S> users);
+
+    @Override
+    @CacheEvict(cacheNames = "usersByEmail", allEntries = true, beforeInvocation = true)
+    <S extends User> List<S> saveAllAndFlush(Iterable<S> users);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "users", key = "#p0", beforeInvocation = true),
+            @CacheEvict(cacheNames = "usersByEmail", allEntries = true, beforeInvocation = true)
+    })
+    void deleteById(UUID id);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "users", key = "#p0.id", beforeInvocation = true),
+            @CacheEvict(cacheNames = "usersByEmail", allEntries = true, beforeInvocation = true)
+    })
+    void delete(User user);
+
+    @Override
+    @CacheEvict(cacheNames = {"users", "usersByEmail"}, allEntries = true, beforeInvocation = true)
+    void deleteAllById(Iterable<? extends UUID> ids);
+
+    @Override
+    @CacheEvict(cacheNames = {"users", "usersByEmail"}, allEntries = true, beforeInvocation = true)
+    void deleteAll(Iterable<? extends User> users);
+
+    @Override
+    @CacheEvict(cacheNames = {"users", "usersByEmail"}, allEntries = true, beforeInvocation = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = {"users", "usersByEmail"}, allEntries = true, beforeInvocation = true)
+    void deleteAllInBatch(Iterable<User> users);
+
+    @Override
+    @CacheEvict(cacheNames = {"users", "usersByEmail"}, allEntries = true, beforeInvocation = true)
+    void deleteAllByIdInBatch(Iterable<UUID> ids);
+
+    @Override
+    @CacheEvict(cacheNames = {"users", "usersByEmail"}, allEntries = true, beforeInvocation = true)
+    void deleteAllInBatch();
+
+    // Chargement de l'annuaire d'autocomplétion (UserDirectory) : quatre colonnes, pas d'entités
+    @Query("select new com.codesolutions.pmt_backend.DTO.UserSummaryDTO(u.id, u.username, u.email, u.createdAt) from User u")
+    List<UserSummaryDTO> findAllSummaries();
+
+    // Liste paginée keyset (createdAt, id) : première page, puis pages suivantes après le curseur
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.UserSummaryDTO(u.id, u.username, u.email, u.createdAt)
+           from User u
+           order by u.createdAt, u.id
+           """)
+    List<UserSummaryDTO> findSummaryPage(Limit limit);
+
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.UserSummaryDTO(u.id, u.username, u.email, u.createdAt)
+           from User u
+           where u.createdAt > :at or (u.createdAt = :at and u.id > :id)
+           order by u.createdAt, u.id
+           """)
+    List<UserSummaryDTO> findSummaryPageAfter(@Param("at") LocalDateTime at, @Param("id") UUID id, Limit limit);
+
+    // Invitation en masse : ids des utilisateurs invités par e-mail, en un SELECT ... IN (sans entités)
+    @Query("""
+           select new com.codesolutions.pmt_backend.DTO.UserSummaryDTO(u.id, u.username, u.email, u.createdAt)
+           from User u
+           where u.email in :emails
+           """)
+    List<UserSummaryDTO> findSummariesByEmailIn(@Param("emails") Collection<String> emails);
+
+    // Résolution groupée (import en masse) : un seul SELECT ... IN pour tous les ids et e-mails
+    @Query("select u from User u where u.id in :ids or u.email in :emails")
+    List<User> findAllByIdOrEmail(@Param("ids") Collection<UUID> ids, @Param("emails") Collection<String> emails);
+}
@@ -0,0 +1,207 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.Entity.MailOutbox;
+import com.codesolutions.pmt_backend.Repository.MailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Vide la table mail_outbox en tâche de fond.
+ * - réservation atomique de chaque message (plusieurs instances du backend peuvent tourner)
+ * - envoi par lots : un lot = une session SMTP (au plus batch-size messages), un worker par lot
+ * - linger : un lot incomplet attend jusqu'à linger-ms que d'autres messages arrivent
+ * - retry avec backoff exponentiel, passage en FAILED après max-attempts
+ * - le passage planifié (poll) réserve et confie les lots aux workers sans attendre les envois :
+ *   un serveur SMTP lent ou figé n'occupe pas le thread du scheduler ; un worker occupé ne reçoit pas de lot
+ * Livraison "au moins une fois" : un message réservé par une instance qui meurt
+ * redevient éligible à l'expiration de son bail.
+ */
+@Component
+public class MailOutboxDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxRepository outbox;
+    private final MailService mailService;
+    private final ThreadPoolTaskExecutor workers;
+    // un permis par worker libre : on ne réserve jamais plus de lots que de workers disponibles
+    private final Semaphore idleWorkers;
+    private final int workerCount;
+    private final int batchSize;
+
+    @Value("${app.mail.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.mail.outbox.linger-ms:2000}")
+    private long lingerMs;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-initial-ms:5000}")
+    private long backoffInitialMs;
+
+    @Value("${app.mail.outbox.backoff-max-ms:600000}")
+    private long backoffMaxMs;
+
+    @Value("${app.mail.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${app.mail.outbox.retention-days:7}")
+    private int retentionDays;
+
+    public MailOutboxDispatcher(MailOutboxRepository outbox,
+                                MailService mailService,
+                                @Value("${app.mail.outbox.workers:4}") int workerCount,
+                                @Value("${app.mail.outbox.batch-size:50}") int batchSize) {
+        this.outbox = outbox;
+        this.mailService = mailService;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.workers = new ThreadPoolTaskExecutor();
+        this.workers.setCorePoolSize(workerCount);
+        this.workers.setMaxPoolSize(workerCount);
+        this.workers.setQueueCapacity(workerCount); // un drain ne soumet jamais plus d'un lot par worker
+        this.workers.setThreadNamePrefix("mail-outbox-");
+        this.workers.initialize();
+        this.idleWorkers = new Semaphore(workerCount);
+    }
+
+    /** Messages réservés par un passage et fin de leurs envois. */
+    private record Dispatch(int claimed, CompletableFuture<Void> done) {
+        static final Dispatch NONE = new Dispatch(0, CompletableFuture.completedFuture(null));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (enabled) dispatch(); // pas d'attente : les workers terminent et libèrent leur permis seuls
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 30 3 * * *}")
+    public void purge() {
+        int n = outbox.purgeSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (n > 0) log.info("[OUTBOX] {} message(s) envoyé(s) purgé(s)", n);
+    }
+
+    /**
+     * Envoie les messages dus (au plus un lot par worker libre) et attend la fin des envois ; renvoie le nombre traité.
+     * Appel manuel (tests, exploitation) : le passage planifié n'attend pas.
+     */
+    public int drain() {
+        Dispatch d = dispatch();
+        d.done().join();
+        return d.claimed();
+    }
+
+    /**
+     * Réserve les messages dus et confie un lot à chaque worker libre.
+     * Si moins d'un lot complet est dû et que le plus ancien attend depuis moins de linger-ms, on attend le prochain passage.
+     */
+    private Dispatch dispatch() {
+        int free = idleWorkers.drainPermits();
+        if (free == 0) return Dispatch.NONE;
+        List<CompletableFuture<Void>> jobs = new ArrayList<>();
+        try {
+            return new Dispatch(submit(free, jobs), CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new)));
+        } finally {
+            idleWorkers.release(free - jobs.size()); // chaque lot soumis rend son permis à la fin de l'envoi
+        }
+    }
+
+    private int submit(int free, List<CompletableFuture<Void>> jobs) {
+        LocalDateTime now = LocalDateTime.now();
+        List<MailOutbox> due = outbox.findDue(now, Limit.of(batchSize * free));
+        if (due.isEmpty()) return 0;
+        if (due.size() < batchSize && due.get(0).getNextAttemptAt().isAfter(now.minusNanos(lingerMs * 1_000_000))) {
+            return 0;
+        }
+
+        LocalDateTime leaseUntil = now.plusNanos(leaseMs * 1_000_000);
+        List<UUID> claimedIds = new ArrayList<>(due.size());
+        for (MailOutbox m : due) {
+            if (outbox.claim(m.getId(), now, leaseUntil) == 1) claimedIds.add(m.getId());
+        }
+        if (claimedIds.isEmpty()) return 0;
+        // Relecture après réservation : un digest a pu recevoir une ligne entre findDue et claim
+        List<MailOutbox> claimed = outbox.findAllById(claimedIds);
+
+        for (int from = 0; from < claimed.size(); from += batchSize) {
+            List<MailOutbox> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+            jobs.add(CompletableFuture.runAsync(() -> deliver(batch), workers)
+                    .whenComplete((ok, error) -> {
+                        idleWorkers.release();
+                        if (error != null) log.error("[OUTBOX] lot interrompu", error); // bail expiré => renvoi
+                    }));
+        }
+        return claimed.size();
+    }
+
+    private void deliver(List<MailOutbox> batch) {
+        SimpleMailMessage[] messages = batch.stream()
+                .map(mailService::compose)
+                .toArray(SimpleMailMessage[]::new);
+
+        // Messages refusés -> cause ; comparaison par identité (SimpleMailMessage.equals compare le contenu)
+        Map<Object, Exception> failed = new IdentityHashMap<>();
+        try {
+            mailService.deliverBatch(messages);
+        } catch (MailSendException e) {
+            failed.putAll(e.getFailedMessages());
+            if (failed.isEmpty()) for (SimpleMailMessage msg : messages) failed.put(msg, e);
+        } catch (Exception e) {
+            for (SimpleMailMessage msg : messages) failed.put(msg, e);
+        }
+
+        List<UUID> sent = new ArrayList<>(batch.size());
+        for (int i = 0; i < messages.length; i++) {
+            Exception error = failed.get(messages[i]);
+            if (error == null) sent.add(batch.get(i).getId());
+            else retryOrGiveUp(batch.get(i), error);
+        }
+        if (!sent.isEmpty()) outbox.markSent(sent, LocalDateTime.now());
+    }
+
+    private void retryOrGiveUp(MailOutbox m, Exception e) {
+        int attempts = m.getAttempts() + 1;
+        String error = truncate(e.getMessage());
+        if (attempts >= maxAttempts) {
+            log.error("[OUTBOX] abandon to={} après {} tentatives : {}", m.getRecipient(), attempts, error);
+            outbox.markFailed(m.getId(), attempts, error);
+        } else {
+            log.warn("[OUTBOX] échec to={} (tentative {}) : {}", m.getRecipient(), attempts, error);
+            outbox.reschedule(m.getId(), attempts, LocalDateTime.now().plusNanos(backoffMs(attempts) * 1_000_000), error);
+        }
+    }
+
+    /** Backoff exponentiel : initial, 2x, 4x... plafonné à backoff-max-ms. */
+    long backoffMs(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(backoffMaxMs, backoffInitialMs << shift);
+    }
+
+    private static String truncate(String s) {
+        if (s == null) return null;
+        return s.length() <= 1000 ? s : s.substring(0, 1000);
+    }
+}
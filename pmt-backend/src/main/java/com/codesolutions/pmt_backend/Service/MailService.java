@@ -1,33 +1,46 @@
 package com.codesolutions.pmt_backend.Service;
 
+import com.codesolutions.pmt_backend.Entity.MailOutbox;
 import com.codesolutions.pmt_backend.Entity.Task;
 import com.codesolutions.pmt_backend.Entity.User;
+import com.codesolutions.pmt_backend.Repository.MailOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.lang.Nullable;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class MailService {
     private static final Logger log = LoggerFactory.getLogger(MailService.class);
 
     private final JavaMailSender mailSender; // peut être null si starter/bean absent
+    private final MailOutboxRepository outbox;
 
     @Value("${app.notifications.enabled:true}")
     private boolean notificationsEnabled;
 
+    // Fenêtre de regroupement des mails d'assignation par destinataire (0 = un mail par assignation)
+    @Value("${app.notifications.digest-window-ms:0}")
+    private long digestWindowMs;
+
     @Value("${spring.mail.from:no-reply@localhost}")
     private String defaultFrom;
 
     @Value("${app.frontend-url:http://localhost:4200}")
     private String frontendUrl;
 
-    public MailService(ObjectProvider<JavaMailSender> mailSenderProvider) {
+    public MailService(ObjectProvider<JavaMailSender> mailSenderProvider, MailOutboxRepository outbox) {
         this.mailSender = mailSenderProvider.getIfAvailable();
+        this.outbox = outbox;
         if (this.mailSender == null) {
             log.warn("JavaMailSender introuvable ou non configuré. Les e-mails seront ignorés jusqu'à correction.");
         }
@@ -47,18 +60,46 @@ public class MailService {
             return;
         }
         try {
-            SimpleMailMessage msg = new SimpleMailMessage();
-            msg.setFrom((from != null && !from.isBlank()) ? from : defaultFrom);
-            msg.setTo(to);
-            msg.setSubject(subject);
-            msg.setText(body);
-            mailSender.send(msg);
+            mailSender.send(buildMessage(to, subject, body, from));
             log.info("[MAIL SENT] to={} subject={}", to, subject);
         } catch (Exception e) {
             log.error("Échec envoi mail to={} : {}", to, e.getMessage(), e);
         }
     }
 
+    /**
+     * Envoi groupé sur une seule session SMTP (connexion + authentification une seule fois),
+     * qui propage l'échec : le MailOutboxDispatcher s'en sert pour décider des retries.
+     * En cas d'échec partiel, la MailSendException indique les messages refusés (getFailedMessages()).
+     * Notifications désactivées : rien n'est envoyé, les messages sont considérés comme traités.
+     */
+    public void deliverBatch(SimpleMailMessage... messages) {
+        if (messages.length == 0) return;
+        if (!notificationsEnabled) {
+            log.info("[MAIL DISABLED] {} message(s) ignoré(s)", messages.length);
+            return;
+        }
+        if (mailSender == null) {
+            throw new IllegalStateException("JavaMailSender indisponible");
+        }
+        mailSender.send(messages);
+        log.info("[MAIL SENT] {} message(s) en une session SMTP", messages.length);
+    }
+
+    /** Message prêt à envoyer, avec l'expéditeur par défaut. */
+    public SimpleMailMessage compose(String to, String subject, String body) {
+        return buildMessage(to, subject, body, null);
+    }
+
+    private SimpleMailMessage buildMessage(String to, String subject, String body, @Nullable String from) {
+        SimpleMailMessage msg = new SimpleMailMessage();
+        msg.setFrom((from != null && !from.isBlank()) ? from : defaultFrom);
+        msg.setTo(to);
+        msg.setSubject(subject);
+        msg.setText(body);
+        return msg;
+    }
+
     // -------------------------------------------------------------------------
     // Convenience methods attendues par les tests/contrôleurs
     // -------------------------------------------------------------------------
@@ -68,18 +109,84 @@ public class MailService {
         sendTaskAssignedMail(to, task, changerDisplay);
     }
 
-    /** Méthode simple appelée par les contrôleurs/tests. */
+    /** Envoi synchrone (attend le serveur SMTP). Les contrôleurs passent par queueTaskAssignedMail. */
     public void sendTaskAssignedMail(User to, Task task, String changerDisplay) {
         if (to == null || to.getEmail() == null || to.getEmail().isBlank() || task == null) return;
+        sendText(to.getEmail(), taskAssignedSubject(task), taskAssignedBody(task, changerDisplay), null);
+    }
+
+    /**
+     * Version asynchrone de sendTaskAssignedMail : le message est écrit dans l'outbox,
+     * dans la transaction de l'appelant (annulé avec elle), puis envoyé par le MailOutboxDispatcher.
+     */
+    @Transactional
+    public void queueTaskAssignedMail(User to, Task task, String changerDisplay) {
+        if (to == null || to.getEmail() == null || to.getEmail().isBlank() || task == null) return;
+        if (!notificationsEnabled) {
+            log.info("[MAIL DISABLED] to={} subject={}", to.getEmail(), taskAssignedSubject(task));
+            return;
+        }
+        if (digestWindowMs <= 0) {
+            outbox.save(new MailOutbox(to.getEmail(), taskAssignedSubject(task), taskAssignedBody(task, changerDisplay)));
+            return;
+        }
+
+        // Mode digest : une seule ligne ajoutée au message encore ouvert pour ce destinataire
+        LocalDateTime now = LocalDateTime.now();
+        String line = taskAssignedLine(task, changerDisplay);
+        List<MailOutbox> open = outbox.findOpenDigest(to.getEmail(), now, Limit.of(1));
+        if (!open.isEmpty()) {
+            MailOutbox digest = open.get(0);
+            digest.setBody(digest.getBody() + line);
+            digest.setItems(digest.getItems() + 1);
+            return; // entité gérée : mise à jour au flush
+        }
+        MailOutbox digest = new MailOutbox(to.getEmail(), taskAssignedSubject(task), line);
+        digest.setDigest(true);
+        digest.setNextAttemptAt(now.plusNanos(digestWindowMs * 1_000_000));
+        outbox.save(digest);
+    }
+
+    /** Message à envoyer pour une ligne d'outbox ; un digest reçoit ici son en-tête et son sujet final. */
+    public SimpleMailMessage compose(MailOutbox m) {
+        if (!m.isDigest()) return compose(m.getRecipient(), m.getSubject(), m.getBody());
+        String subject = m.getItems() == 1
+                ? m.getSubject()
+                : "[PMT] " + m.getItems() + " nouvelles tâches assignées";
+        String intro = m.getItems() == 1
+                ? "Une tâche vient de vous être assignée :"
+                : m.getItems() + " tâches vous ont été assignées :";
+        return compose(m.getRecipient(), subject, "Bonjour,\n\n" + intro + "\n\n" + m.getBody() + "\n--\nPMT");
+    }
 
-        String subject = "[PMT] Nouvelle tâche assignée: " + task.getTitle();
-        String link = String.format("%s/projects/%s/tasks/%s",
+    private String taskAssignedSubject(Task task) {
+        return "[PMT] Nouvelle tâche assignée: " + task.getTitle();
+    }
+
+    private String taskLink(Task task) {
+        return String.format("%s/projects/%s/tasks/%s",
                 getFrontendUrl(),
                 task.getProject() != null ? task.getProject().getId() : null,
                 task.getId()
         );
+    }
+
+    // Entrée de digest : "- Titre [Projet, PRIORITÉ, échéance ...] par X" puis le lien
+    private String taskAssignedLine(Task task, String changerDisplay) {
+        StringBuilder sb = new StringBuilder("- ").append(task.getTitle())
+                .append(" [").append(task.getProject() != null ? task.getProject().getName() : "-")
+                .append(", ").append(task.getPriority() != null ? task.getPriority().name() : "-");
+        if (task.getDeadline() != null) sb.append(", échéance ").append(task.getDeadline());
+        return sb.append("] par ")
+                .append(changerDisplay != null && !changerDisplay.isBlank() ? changerDisplay : "Système")
+                .append("\n  ").append(taskLink(task)).append("\n")
+                .toString();
+    }
 
-        String body = new StringBuilder()
+    private String taskAssignedBody(Task task, String changerDisplay) {
+        String link = taskLink(task);
+
+        return new StringBuilder()
                 .append("Bonjour,\n\n")
                 .append("Une tâche vient de vous être assignée.\n\n")
                 .append("Titre      : ").append(task.getTitle()).append("\n")
@@ -92,7 +199,5 @@ public class MailService {
                 .append("\nDétails : ").append(link)
                 .append("\n\n--\nPMT")
                 .toString();
-
-        sendText(to.getEmail(), subject, body, null);
     }
 }
@@ -1,7 +1,9 @@
 package com.codesolutions.pmt_backend.Service;
 
+import com.codesolutions.pmt_backend.DTO.ProjectMemberDTO;
 import com.codesolutions.pmt_backend.Entity.ProjectMember;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -9,4 +11,6 @@ public interface ProjectMemberService {
     List<ProjectMember> getAll();
     ProjectMember addMember(ProjectMember member);
     ProjectMember getById(UUID id);
+    // Page keyset (createdAt, id) de tous les membres, ou d'un projet si projectId non null
+    List<ProjectMemberDTO> listDtos(UUID projectId, LocalDateTime afterCreatedAt, UUID afterId, int limit);
 }
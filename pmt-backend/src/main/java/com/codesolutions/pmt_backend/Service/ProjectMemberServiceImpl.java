@@ -1,10 +1,13 @@
 package com.codesolutions.pmt_backend.Service;
 
+import com.codesolutions.pmt_backend.DTO.ProjectMemberDTO;
 import com.codesolutions.pmt_backend.Entity.ProjectMember;
 import com.codesolutions.pmt_backend.Repository.ProjectMemberRepository;
 import com.codesolutions.pmt_backend.Service.ProjectMemberService;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,7 +28,7 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
 
     @Override
     public ProjectMember addMember(ProjectMember member) {
-        return repository.save(member);
+        return repository.save(member); // version du projet : ProjectVersionListener
     }
 
     @Override
@@ -33,4 +36,16 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
         Optional<ProjectMember> optional = repository.findById(id);
         return optional.orElseThrow(() -> new RuntimeException("Membre non trouvé"));
     }
+
+    @Override
+    public List<ProjectMemberDTO> listDtos(UUID projectId, LocalDateTime afterCreatedAt, UUID afterId, int limit) {
+        if (projectId != null) {
+            return (afterId == null)
+                    ? repository.findDtoPageByProjectId(projectId, Limit.of(limit))
+                    : repository.findDtoPageByProjectIdAfter(projectId, afterCreatedAt, afterId, Limit.of(limit));
+        }
+        return (afterId == null)
+                ? repository.findDtoPage(Limit.of(limit))
+                : repository.findDtoPageAfter(afterCreatedAt, afterId, Limit.of(limit));
+    }
 }
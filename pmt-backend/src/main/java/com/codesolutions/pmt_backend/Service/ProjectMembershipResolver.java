@@ -0,0 +1,105 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.Entity.RoleEnum;
+import com.codesolutions.pmt_backend.Repository.MemberRoleRow;
+import com.codesolutions.pmt_backend.Repository.ProjectMemberRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "L'utilisateur X est-il membre du projet Y, avec le rôle R ?" sans requête SQL par appel.
+ * Les rôles des membres d'un projet sont chargés en une requête (deux colonnes) puis gardés dans le
+ * cache "projectMembers" sous forme de table immuable userId -> rôle ; un contrôle est une lecture de hash.
+ * Invalidation : ProjectMemberListener vide l'entrée du projet à chaque écriture de membre, tout de suite
+ * puis de nouveau après commit. Chaque invalidation incrémente la génération du projet ; une lecture
+ * concurrente qui a chargé l'état d'avant ne le met en cache que si la génération n'a pas bougé pendant
+ * son chargement (sinon un membre retiré garderait ses droits jusqu'à l'expiration de l'entrée).
+ * Le propriétaire du projet (Project.owner) n'est pas un membre implicite : il se vérifie sur le projet.
+ * Un rôle stocké hors RoleEnum est traité comme OBSERVER (moindre privilège).
+ */
+@Component
+public class ProjectMembershipResolver {
+
+    static final String CACHE = "projectMembers";
+
+    private final ProjectMemberRepository members;
+    private final Cache cache;
+    // projet -> nombre d'invalidations ; comparé avant/après chargement (une entrée par projet modifié)
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+
+    public ProjectMembershipResolver(ProjectMemberRepository members, CacheManager cacheManager) {
+        this.members = members;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE), "cache " + CACHE + " non déclaré");
+    }
+
+    public Optional<RoleEnum> roleOf(UUID projectId, UUID userId) {
+        return Optional.ofNullable(rolesOf(projectId).get(userId));
+    }
+
+    public boolean isMember(UUID projectId, UUID userId) {
+        return rolesOf(projectId).containsKey(userId);
+    }
+
+    /** true si l'utilisateur est membre du projet avec l'un des rôles donnés. */
+    public boolean hasRole(UUID projectId, UUID userId, RoleEnum... allowed) {
+        RoleEnum role = rolesOf(projectId).get(userId);
+        if (role == null) return false;
+        for (RoleEnum r : allowed) if (r == role) return true;
+        return false;
+    }
+
+    public void evict(UUID projectId) {
+        invalidate(projectId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(projectId); // commit ou rollback : l'entrée relue pendant la transaction est écartée
+                }
+            });
+        }
+    }
+
+    private void invalidate(UUID projectId) {
+        generations.merge(projectId, 1L, Long::sum);
+        cache.evict(projectId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, RoleEnum> rolesOf(UUID projectId) {
+        Cache.ValueWrapper hit = cache.get(projectId);
+        if (hit != null) return (Map<UUID, RoleEnum>) hit.get();
+        // Pas de cache.get(key, loader) : la requête peut déclencher un flush, donc ProjectMemberListener,
+        // donc un evict de la même clé pendant son propre calcul
+        Long seen = generations.get(projectId);
+        Map<UUID, RoleEnum> roles = load(projectId);
+        // compute verrouille la clé : un invalidate concurrent passe avant (génération changée, pas de put)
+        // ou après (son evict retire ce put)
+        generations.compute(projectId, (id, current) -> {
+            if (Objects.equals(current, seen)) cache.put(projectId, roles);
+            return current;
+        });
+        return roles;
+    }
+
+    private Map<UUID, RoleEnum> load(UUID projectId) {
+        Map<UUID, RoleEnum> roles = new HashMap<>();
+        for (MemberRoleRow row : members.findRolesByProjectId(projectId)) roles.put(row.userId(), parse(row.role()));
+        return Map.copyOf(roles);
+    }
+
+    private static RoleEnum parse(String role) {
+        if (role == null) return RoleEnum.OBSERVER;
+        try {
+            return RoleEnum.valueOf(role.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return RoleEnum.OBSERVER;
+        }
+    }
+}
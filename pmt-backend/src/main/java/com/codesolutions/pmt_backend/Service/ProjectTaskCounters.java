@@ -0,0 +1,193 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.DTO.ProjectStatsDTO;
+import com.codesolutions.pmt_backend.Entity.ProjectTaskCounter;
+import com.codesolutions.pmt_backend.Entity.Task;
+import com.codesolutions.pmt_backend.Entity.TaskPriorityEnum;
+import com.codesolutions.pmt_backend.Entity.TaskStatusEnum;
+import com.codesolutions.pmt_backend.Repository.ProjectTaskCounterRepository;
+import com.codesolutions.pmt_backend.Repository.TaskCountRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Compteurs de tâches par projet (table project_task_counters), lus par GET /api/projects/{id}/stats
+ * sans parcourir la table tasks.
+ * - incrémentaux : chaque écriture de tâche applique la différence entre les buckets de la tâche
+ *   avant et après, dans sa transaction (un upsert par bucket modifié)
+ * - réconciliés : un job recalcule périodiquement chaque projet depuis tasks et corrige toute dérive
+ *   (écritures hors TaskController, Spring Data REST, SQL manuel), par deltas : une écriture concurrente
+ *   n'est jamais écrasée
+ * Les upserts d'une transaction suivent l'ordre de la clé (kind, bucket) : deux écritures qui touchent
+ * les mêmes buckets verrouillent les lignes dans le même ordre, sans interblocage.
+ * Une tâche compte dans status/* et priority/* ; non terminée, aussi dans assignee/* et deadline/*.
+ */
+@Component
+public class ProjectTaskCounters {
+    private static final Logger log = LoggerFactory.getLogger(ProjectTaskCounters.class);
+
+    public static final String STATUS = "status";
+    public static final String PRIORITY = "priority";
+    public static final String ASSIGNEE = "assignee";
+    public static final String DEADLINE = "deadline";
+    public static final String UNASSIGNED = "none";
+
+    /** Dimension + valeur d'un compteur. */
+    public record Bucket(String kind, String value) {}
+
+    /** Ordre de la clé primaire (project_id, kind, bucket) : ordre de verrouillage des lignes. */
+    private static final Comparator<Bucket> KEY_ORDER = Comparator.comparing(Bucket::kind).thenComparing(Bucket::value);
+
+    private final ProjectTaskCounterRepository counters;
+    private final TransactionTemplate tx;
+
+    @Value("${app.stats.reconcile-enabled:true}")
+    private boolean reconcileEnabled;
+
+    public ProjectTaskCounters(ProjectTaskCounterRepository counters, PlatformTransactionManager txManager) {
+        this.counters = counters;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /** Buckets dans lesquels la tâche est comptée, dans son état courant. */
+    public static List<Bucket> bucketsOf(Task t) {
+        List<Bucket> buckets = new ArrayList<>(4);
+        buckets.add(new Bucket(STATUS, t.getStatus().name()));
+        buckets.add(new Bucket(PRIORITY, t.getPriority().name()));
+        if (t.getStatus() != TaskStatusEnum.DONE) {
+            buckets.add(new Bucket(ASSIGNEE, t.getAssignee() != null ? t.getAssignee().getId().toString() : UNASSIGNED));
+            if (t.getDeadline() != null) buckets.add(new Bucket(DEADLINE, t.getDeadline().toString()));
+        }
+        return buckets;
+    }
+
+    /** Cumule dans deltas le passage de before à after (liste vide = tâche absente). */
+    public static void diff(Map<Bucket, Long> deltas, List<Bucket> before, List<Bucket> after) {
+        for (Bucket b : before) deltas.merge(b, -1L, Long::sum);
+        for (Bucket b : after) deltas.merge(b, 1L, Long::sum);
+    }
+
+    public void created(UUID projectId, Task t) {
+        changed(projectId, List.of(), bucketsOf(t));
+    }
+
+    public void deleted(UUID projectId, Task t) {
+        changed(projectId, bucketsOf(t), List.of());
+    }
+
+    public void changed(UUID projectId, List<Bucket> before, List<Bucket> after) {
+        Map<Bucket, Long> deltas = new HashMap<>();
+        diff(deltas, before, after);
+        apply(projectId, deltas);
+    }
+
+    /** Applique les différences non nulles, dans l'ordre de la clé ; à appeler dans la transaction de l'écriture. */
+    public void apply(UUID projectId, Map<Bucket, Long> deltas) {
+        List<Bucket> buckets = new ArrayList<>(deltas.keySet());
+        buckets.sort(KEY_ORDER);
+        for (Bucket b : buckets) {
+            long delta = deltas.get(b);
+            if (delta != 0) counters.add(projectId, b.kind(), b.value(), delta);
+        }
+    }
+
+    // ===== Lecture
+
+    public ProjectStatsDTO read(UUID projectId, LocalDate today) {
+        List<ProjectTaskCounter> rows = counters.findByProjectId(projectId);
+        if (rows.isEmpty()) {
+            // Projet jamais compté (antérieur aux compteurs) : calcul initial à la demande
+            reconcile(projectId);
+            rows = counters.findByProjectId(projectId);
+        }
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (TaskStatusEnum s : TaskStatusEnum.values()) byStatus.put(s.name(), 0L);
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        for (TaskPriorityEnum p : TaskPriorityEnum.values()) byPriority.put(p.name(), 0L);
+        Map<String, Long> openByAssignee = new TreeMap<>();
+        long overdue = 0;
+
+        for (ProjectTaskCounter c : rows) {
+            if (c.getCount() == 0) continue;
+            String value = c.getId().bucket();
+            switch (c.getId().kind()) {
+                case STATUS -> byStatus.put(value, c.getCount());
+                case PRIORITY -> byPriority.put(value, c.getCount());
+                case ASSIGNEE -> openByAssignee.put(value, c.getCount());
+                case DEADLINE -> {
+                    if (LocalDate.parse(value).isBefore(today)) overdue += c.getCount();
+                }
+                default -> { }
+            }
+        }
+        long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        return new ProjectStatsDTO(projectId, total, byStatus, byPriority, overdue, openByAssignee);
+    }
+
+    // ===== Réconciliation
+
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 0 4 * * *}")
+    public void reconcileAll() {
+        if (!reconcileEnabled) return;
+        int drifted = 0;
+        for (UUID projectId : counters.findAllProjectIds()) {
+            if (reconcile(projectId)) drifted++;
+        }
+        if (drifted > 0) log.warn("[STATS] compteurs corrigés pour {} projet(s)", drifted);
+    }
+
+    /**
+     * Recalcule les compteurs d'un projet depuis tasks (une transaction par projet) ;
+     * renvoie true si les compteurs stockés différaient.
+     * Les compteurs du projet sont d'abord verrouillés (FOR UPDATE ; sous REPEATABLE READ, MySQL verrouille
+     * aussi l'intervalle du projet, donc les insertions de nouveaux buckets) : une écriture de tâche en
+     * cours termine avant, une nouvelle attend le commit. Les tâches sont comptées ensuite, et l'écart est
+     * appliqué en delta par les mêmes upserts que les écritures.
+     */
+    public boolean reconcile(UUID projectId) {
+        return Boolean.TRUE.equals(tx.execute(status -> {
+            Map<Bucket, Long> corrections = new HashMap<>();
+            for (ProjectTaskCounter c : counters.findByProjectIdForUpdate(projectId)) {
+                corrections.put(new Bucket(c.getId().kind(), c.getId().bucket()), -c.getCount());
+            }
+            boolean counted = !corrections.isEmpty();
+
+            Map<Bucket, Long> expected = new HashMap<>();
+            put(expected, STATUS, counters.countByStatus(projectId));
+            put(expected, PRIORITY, counters.countByPriority(projectId));
+            put(expected, ASSIGNEE, counters.countOpenByAssignee(projectId));
+            put(expected, DEADLINE, counters.countOpenByDeadline(projectId));
+            expected.forEach((b, n) -> corrections.merge(b, n, Long::sum));
+            boolean drift = corrections.values().stream().anyMatch(d -> d != 0);
+
+            apply(projectId, corrections);
+            // Lignes de statut toujours présentes : un projet compté sans tâche n'est pas recalculé à chaque lecture
+            for (TaskStatusEnum s : TaskStatusEnum.values()) {
+                if (!counted && !expected.containsKey(new Bucket(STATUS, s.name()))) {
+                    counters.add(projectId, STATUS, s.name(), 0);
+                }
+            }
+            // Lignes retombées à zéro (valeur courante, deltas concurrents compris)
+            counters.deleteEmpty(projectId, STATUS);
+            // Premier calcul d'un projet sans compteurs : pas une dérive
+            return counted && drift;
+        }));
+    }
+
+    private static void put(Map<Bucket, Long> expected, String kind, List<TaskCountRow> rows) {
+        for (TaskCountRow r : rows) {
+            String value = (r.bucket() == null) ? UNASSIGNED
+                    : (r.bucket() instanceof Enum<?> e) ? e.name() : r.bucket().toString();
+            expected.put(new Bucket(kind, value), r.count());
+        }
+    }
+}
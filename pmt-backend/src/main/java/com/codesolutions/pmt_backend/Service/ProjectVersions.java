@@ -0,0 +1,107 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.Entity.ProjectVersion;
+import com.codesolutions.pmt_backend.Repository.ProjectVersionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Versions servant d'ETag (table project_versions), incrémentées sur tous les chemins d'écriture :
+ * - bump(projectId) : dans la transaction de l'écriture (contrôleurs) ; la nouvelle version est visible
+ *   au commit, en même temps que les données
+ * - bumpAfterCommit(projectId) / directoryChanged() : appelés par ProjectVersionListener pour toute écriture
+ *   JPA (Spring Data REST, services, SQL via repositories) ; appliqués après commit dans une transaction
+ *   propre, sauf pour un projet déjà incrémenté dans la transaction
+ * La ligne DIRECTORY (UUID nul) compte les écritures de projets et d'utilisateurs : version de la liste
+ * des projets, et composante de tous les ETag de projet (un renommage d'assigné change les tâches lues).
+ */
+@Component
+public class ProjectVersions {
+
+    /** Clé de la version "annuaire" (projets + utilisateurs) dans project_versions. */
+    public static final UUID DIRECTORY = new UUID(0, 0);
+
+    /** Projets incrémentés / à incrémenter dans la transaction courante. */
+    private static final class Pending {
+        final Set<UUID> bumped = new HashSet<>();
+        final SortedSet<UUID> afterCommit = new TreeSet<>(); // ordre fixe des verrous de ligne
+    }
+
+    private final ProjectVersionRepository repo;
+    private final TransactionTemplate afterCommitTx;
+
+    public ProjectVersions(ProjectVersionRepository repo, PlatformTransactionManager txManager) {
+        this.repo = repo;
+        this.afterCommitTx = new TransactionTemplate(txManager);
+        // Appelé après commit : transaction propre, pas celle qui vient de se terminer
+        this.afterCommitTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Incrémente la version du projet dans la transaction courante. */
+    public void bump(UUID projectId) {
+        repo.bump(projectId, LocalDateTime.now());
+        Pending p = pending();
+        if (p != null) p.bumped.add(projectId);
+    }
+
+    /** Incrémente la version du projet après commit (sans transaction : tout de suite). */
+    public void bumpAfterCommit(UUID projectId) {
+        Pending p = pending();
+        if (p == null) bumpNow(List.of(projectId));
+        else p.afterCommit.add(projectId);
+    }
+
+    /** Un projet ou un utilisateur a changé : incrémente la version DIRECTORY après commit. */
+    public void directoryChanged() {
+        bumpAfterCommit(DIRECTORY);
+    }
+
+    // ===== Lecture
+
+    /** Lignes du projet et de DIRECTORY (absentes tant que jamais incrémentées), en une requête. */
+    public List<ProjectVersion> read(UUID projectId) {
+        return repo.findByProjectIdIn(List.of(projectId, DIRECTORY));
+    }
+
+    public Optional<ProjectVersion> directory() {
+        return repo.findById(DIRECTORY);
+    }
+
+    // ===== Interne
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+        Pending p = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (p != null) return p;
+        Pending created = new Pending();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                created.afterCommit.removeAll(created.bumped);
+                if (!created.afterCommit.isEmpty()) bumpNow(created.afterCommit);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ProjectVersions.this);
+            }
+        });
+        return created;
+    }
+
+    private void bumpNow(Collection<UUID> projectIds) {
+        List<UUID> ids = List.copyOf(projectIds);
+        afterCommitTx.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (UUID id : ids) repo.bump(id, now);
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import org.springframework.lang.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Modification de tâche publiée par TaskController, relayée aux abonnés SSE après commit.
+ * task : état après modification (null pour DELETED et RESYNC).
+ */
+public record TaskChangedEvent(UUID projectId, Type type, @Nullable UUID taskId, @Nullable TaskDTO task) {
+
+    public enum Type {
+        CREATED("task.created"),
+        UPDATED("task.updated"),
+        DELETED("task.deleted"),
+        // Import en masse : le client relit GET .../tasks/changes plutôt que de recevoir N événements
+        RESYNC("tasks.resync");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String eventName() {
+            return eventName;
+        }
+    }
+
+    public static TaskChangedEvent created(TaskDTO task) {
+        return new TaskChangedEvent(task.projectId(), Type.CREATED, task.id(), task);
+    }
+
+    public static TaskChangedEvent updated(TaskDTO task) {
+        return new TaskChangedEvent(task.projectId(), Type.UPDATED, task.id(), task);
+    }
+
+    public static TaskChangedEvent deleted(UUID projectId, UUID taskId) {
+        return new TaskChangedEvent(projectId, Type.DELETED, taskId, null);
+    }
+
+    public static TaskChangedEvent resync(UUID projectId) {
+        return new TaskChangedEvent(projectId, Type.RESYNC, null, null);
+    }
+}
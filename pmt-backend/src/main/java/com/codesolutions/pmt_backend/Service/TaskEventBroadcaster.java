@@ -0,0 +1,223 @@
+package com.codesolutions.pmt_backend.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Diffusion SSE des modifications de tâches, par projet, dans le processus.
+ * - un événement n'est relayé qu'après le commit de la transaction qui l'a produit
+ * - chaque abonné a un tampon borné, vidé par un pool d'envoi : un client lent ne bloque ni
+ *   la requête d'écriture ni les autres abonnés
+ * - tampon plein => l'abonné est déconnecté ; à la reconnexion il rattrape via GET .../tasks/changes
+ * - envoi bloqué au-delà de send-timeout (client arrêté, fenêtre TCP pleine) => l'abonné est déconnecté
+ *   et son thread d'envoi interrompu : quelques clients figés ne monopolisent pas le pool
+ * - commentaire périodique (heartbeat) pour garder la connexion ouverte derrière les proxys
+ * Heartbeat et chien de garde tournent sur leur propre thread, pas sur le scheduler partagé de l'application :
+ * un job planifié long ne repousse pas la déconnexion des clients figés.
+ * Une seule instance : avec plusieurs backends, chaque instance ne voit que ses propres écritures.
+ */
+@Component
+public class TaskEventBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(TaskEventBroadcaster.class);
+
+    // Marqueur de heartbeat dans les tampons (jamais envoyé comme événement)
+    private static final TaskChangedEvent HEARTBEAT = new TaskChangedEvent(null, null, null, null);
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskExecutor senders;
+    private final ScheduledExecutorService timer;
+    private final int bufferSize;
+    private final long sendTimeoutNanos;
+
+    @Value("${app.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.sse.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${app.sse.watchdog-ms:1000}")
+    private long watchdogMs;
+
+    public TaskEventBroadcaster(@Value("${app.sse.buffer-size:256}") int bufferSize,
+                                @Value("${app.sse.sender-threads:4}") int senderThreads,
+                                @Value("${app.sse.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.bufferSize = bufferSize;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.senders = new ThreadPoolTaskExecutor();
+        this.senders.setCorePoolSize(senderThreads);
+        this.senders.setMaxPoolSize(senderThreads);
+        this.senders.setThreadNamePrefix("task-sse-");
+        this.senders.initialize();
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "task-sse-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        timer.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        timer.scheduleWithFixedDelay(this::evictStalled, watchdogMs, watchdogMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        senders.shutdown();
+    }
+
+    /** Ouvre un flux SSE sur les tâches du projet. */
+    public SseEmitter subscribe(UUID projectId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(projectId, emitter);
+        return emitter;
+    }
+
+    void register(UUID projectId, SseEmitter emitter) {
+        Subscriber s = new Subscriber(projectId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.computeIfAbsent(projectId, k -> ConcurrentHashMap.newKeySet()).add(s);
+        emitter.onCompletion(() -> remove(s));
+        emitter.onTimeout(() -> remove(s));
+        emitter.onError(e -> remove(s));
+    }
+
+    public int subscriberCount(UUID projectId) {
+        Set<Subscriber> set = subscribers.get(projectId);
+        return set == null ? 0 : set.size();
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        Set<Subscriber> set = subscribers.get(event.projectId());
+        if (set == null) return;
+        for (Subscriber s : set) offer(s, event);
+    }
+
+    void heartbeat() {
+        try {
+            subscribers.values().forEach(set -> set.forEach(s -> offer(s, HEARTBEAT)));
+        } catch (RuntimeException e) {
+            log.error("[SSE] heartbeat", e); // une exception annulerait les passages suivants
+        }
+    }
+
+    // Chien de garde : un envoi en cours depuis plus de send-timeout ne se terminera pas de lui-même
+    void evictStalled() {
+        try {
+            long now = System.nanoTime();
+            subscribers.values().forEach(set -> set.forEach(s -> {
+                long since = s.sendingSince;
+                if (since != 0 && now - since > sendTimeoutNanos) {
+                    log.warn("[SSE] envoi bloqué, client déconnecté (projet {})", s.projectId);
+                    remove(s);
+                    s.emitter.completeWithError(new TimeoutException("SSE send timeout"));
+                    // débloque une écriture interruptible ; sous le verrou de l'abonné, le thread d'envoi ne peut
+                    // pas avoir terminé cet envoi (et être passé à un autre abonné) entre le test et l'interruption
+                    synchronized (s) {
+                        if (s.sendingSince == since && s.sender != null) s.sender.interrupt();
+                    }
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.error("[SSE] chien de garde", e);
+        }
+    }
+
+    private void offer(Subscriber s, TaskChangedEvent event) {
+        if (!s.queue.offer(event)) {
+            log.warn("[SSE] client lent déconnecté (projet {}, {} événements en attente)", s.projectId, s.queue.size());
+            remove(s);
+            s.emitter.complete();
+            return;
+        }
+        schedule(s);
+    }
+
+    private void schedule(Subscriber s) {
+        if (s.draining.compareAndSet(false, true)) senders.execute(() -> drain(s));
+    }
+
+    // Un seul drain par abonné à la fois : les événements partent dans l'ordre du tampon
+    private void drain(Subscriber s) {
+        s.sender = Thread.currentThread();
+        try {
+            TaskChangedEvent event;
+            while ((event = s.queue.poll()) != null) {
+                s.sendingSince = System.nanoTime();
+                if (event == HEARTBEAT) {
+                    s.emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    s.emitter.send(SseEmitter.event().name(event.type().eventName()).data(payload(event)));
+                }
+                synchronized (s) {
+                    s.sendingSince = 0;
+                }
+            }
+        } catch (Exception e) {
+            // client parti : Spring appellera onError/onCompletion, on retire l'abonné sans attendre
+            remove(s);
+            s.emitter.completeWithError(e);
+            return;
+        } finally {
+            synchronized (s) { // après ce bloc, le chien de garde ne peut plus interrompre ce thread pour s
+                s.sendingSince = 0;
+                s.sender = null;
+            }
+            Thread.interrupted(); // interruption du chien de garde : ne pas la laisser au thread du pool
+            s.draining.set(false);
+        }
+        if (!s.queue.isEmpty()) schedule(s);
+    }
+
+    // Tâche complète pour CREATED/UPDATED, identifiant seul pour DELETED/RESYNC
+    private static Object payload(TaskChangedEvent event) {
+        if (event.task() != null) return event.task();
+        if (event.taskId() != null) return Map.of("id", event.taskId());
+        return Map.of("projectId", event.projectId());
+    }
+
+    private void remove(Subscriber s) {
+        subscribers.computeIfPresent(s.projectId, (k, set) -> {
+            set.remove(s);
+            return set.isEmpty() ? null : set;
+        });
+        s.queue.clear();
+    }
+
+    private static final class Subscriber {
+        final UUID projectId;
+        final SseEmitter emitter;
+        final BlockingQueue<TaskChangedEvent> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() du début de l'envoi en cours (identifie l'envoi), 0 sinon ; remis à 0 sous verrou
+        volatile long sendingSince;
+        volatile Thread sender;
+
+        Subscriber(UUID projectId, SseEmitter emitter, BlockingQueue<TaskChangedEvent> queue) {
+            this.projectId = projectId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.Repository.TaskHistoryArchiveRepository;
+import com.codesolutions.pmt_backend.Repository.TaskHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Déplace l'historique ancien de task_history vers task_history_archive (table froide compressée),
+ * pour que la table chaude reste assez petite pour tenir dans le buffer pool.
+ * Par lots de batch-size lignes, une transaction par lot (copie puis suppression) : une interruption
+ * ne perd ni ne duplique rien, le passage suivant reprend où il s'est arrêté.
+ */
+@Component
+public class TaskHistoryArchiver {
+    private static final Logger log = LoggerFactory.getLogger(TaskHistoryArchiver.class);
+
+    private final TaskHistoryRepository history;
+    private final TaskHistoryArchiveRepository archive;
+    private final TransactionTemplate tx;
+
+    @Value("${app.history.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.history.archive.after-days:180}")
+    private int afterDays;
+
+    @Value("${app.history.archive.batch-size:1000}")
+    private int batchSize;
+
+    public TaskHistoryArchiver(TaskHistoryRepository history,
+                               TaskHistoryArchiveRepository archive,
+                               PlatformTransactionManager txManager) {
+        this.history = history;
+        this.archive = archive;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    @Scheduled(cron = "${app.history.archive.cron:0 15 3 * * *}")
+    public void run() {
+        if (enabled) archiveBefore(LocalDateTime.now().minusDays(afterDays));
+    }
+
+    /** Archive les lignes modifiées avant "before" ; renvoie le nombre de lignes déplacées. */
+    public int archiveBefore(LocalDateTime before) {
+        int total = 0;
+        int moved;
+        do {
+            moved = tx.execute(status -> {
+                List<UUID> ids = archive.findHotIdsChangedBefore(before, Limit.of(batchSize));
+                if (ids.isEmpty()) return 0;
+                archive.copyFromHot(ids);
+                history.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) log.info("[HISTORY] {} ligne(s) d'historique archivée(s) (avant {})", total, before);
+        return total;
+    }
+}
@@ -1,7 +1,10 @@
 package com.codesolutions.pmt_backend.Service;
 
+import com.codesolutions.pmt_backend.DTO.TaskHistoryDTO;
 import com.codesolutions.pmt_backend.Entity.TaskHistory;
+import com.codesolutions.pmt_backend.Repository.TaskHistoryFilter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -9,4 +12,5 @@ public interface TaskHistoryService {
     List<TaskHistory> getAll();
     TaskHistory save(TaskHistory history);
     TaskHistory getById(UUID id);
+    List<TaskHistoryDTO> search(TaskHistoryFilter filter, LocalDateTime afterChangedAt, UUID afterId, int limit);
 }
@@ -1,10 +1,13 @@
 package com.codesolutions.pmt_backend.Service;
 
+import com.codesolutions.pmt_backend.DTO.TaskHistoryDTO;
 import com.codesolutions.pmt_backend.Entity.TaskHistory;
+import com.codesolutions.pmt_backend.Repository.TaskHistoryFilter;
 import com.codesolutions.pmt_backend.Repository.TaskHistoryRepository;
 import com.codesolutions.pmt_backend.Service.TaskHistoryService;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,4 +36,9 @@ public class TaskHistoryServiceImpl implements TaskHistoryService {
         Optional<TaskHistory> optional = repository.findById(id);
         return optional.orElseThrow(() -> new RuntimeException("Historique non trouvé"));
     }
+
+    @Override
+    public List<TaskHistoryDTO> search(TaskHistoryFilter filter, LocalDateTime afterChangedAt, UUID afterId, int limit) {
+        return repository.search(filter, afterChangedAt, afterId, limit);
+    }
 }
@@ -0,0 +1,350 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import com.codesolutions.pmt_backend.Repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Index inversé Lucene (en mémoire) sur le titre et la description des tâches,
+ * lu par GET /api/projects/{id}/tasks/search.
+ * - reconstruit depuis la base au démarrage, puis périodiquement (corrige les écritures hors TaskController)
+ * - mis à jour après commit à chaque TaskChangedEvent publié par TaskController ;
+ *   l'import en masse (RESYNC) réindexe le projet concerné
+ * - les événements de deux écritures concurrentes peuvent arriver dans le désordre : chaque tâche garde
+ *   la version indexée, un état plus ancien (ou une tâche supprimée) n'écrase pas le plus récent
+ * - l'index ne renvoie que des ids : le contenu des résultats est relu en base par l'appelant
+ * Une seule instance : avec plusieurs backends, chaque index ne voit que ses propres écritures
+ * jusqu'à la prochaine reconstruction.
+ */
+@Component
+public class TaskSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    static final String ID = "id";
+    static final String PROJECT = "projectId";
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+
+    /** Opération d'écriture sur l'index, rejouée sur le nouvel index si une reconstruction est en cours. */
+    @FunctionalInterface
+    private interface Op {
+        void apply(IndexWriter writer) throws IOException;
+    }
+
+    /** Un index complet : répertoire en mémoire, writer et lecteurs temps réel (NRT). */
+    private static final class Index {
+        final IndexWriter writer;
+        final SearcherManager searchers;
+
+        Index(Analyzer analyzer) throws IOException {
+            this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+            this.searchers = new SearcherManager(writer, null);
+        }
+
+        // Les recherches en cours gardent leur lecteur jusqu'à release()
+        void close() throws IOException {
+            searchers.close();
+            writer.close();
+            writer.getDirectory().close();
+        }
+    }
+
+    // Titre/description : mots en minuscules, sans accents ("Créer" trouve "creer" et inversement)
+    private final Analyzer analyzer = new Analyzer() {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            TokenStream filtered = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+            return new TokenStreamComponents(source, filtered);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    };
+
+    private final TaskRepository taskRepo;
+    private final TransactionTemplate readOnlyTx;
+
+    // tâche -> version indexée (DELETED_VERSION si supprimée) ; compute() sérialise les écritures d'une tâche.
+    // Une entrée par tâche vue depuis le démarrage (les UUID ne sont jamais réutilisés).
+    private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
+    private static final long DELETED_VERSION = Long.MAX_VALUE;
+
+    private volatile Index current;
+    // Non null pendant une reconstruction : écritures à rejouer sur le nouvel index (garde : this)
+    private List<Op> pending;
+
+    @Value("${app.search.rebuild-enabled:true}")
+    private boolean rebuildEnabled;
+
+    public TaskSearchIndex(TaskRepository taskRepo, PlatformTransactionManager txManager) throws IOException {
+        this.taskRepo = taskRepo;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        // Appelé aussi après commit (RESYNC) : transaction propre, pas celle qui vient de se terminer
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.current = new Index(analyzer);
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        current.close();
+    }
+
+    // ===== Mise à jour incrémentale
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> index(event.task());
+            case DELETED -> remove(event.taskId());
+            case RESYNC -> reindexProject(event.projectId());
+        }
+    }
+
+    /** Indexe l'état de la tâche, sauf si une version plus récente (ou sa suppression) l'est déjà. */
+    public void index(TaskDTO task) {
+        Document doc = document(task);
+        if (task.version() == null) { // état non versionné : pas de comparaison possible
+            write(w -> w.updateDocument(new Term(ID, task.id().toString()), doc));
+            return;
+        }
+        versions.compute(task.id(), (id, indexed) -> {
+            if (indexed != null && indexed >= task.version()) return indexed; // événement périmé
+            write(w -> w.updateDocument(new Term(ID, id.toString()), doc));
+            return task.version();
+        });
+    }
+
+    public void remove(UUID taskId) {
+        versions.compute(taskId, (id, indexed) -> {
+            write(w -> w.deleteDocuments(new Term(ID, id.toString())));
+            return DELETED_VERSION;
+        });
+    }
+
+    // Version lue en base (reconstruction, réindexation d'un projet) : ne fait que monter
+    private void seen(TaskDTO t) {
+        if (t.version() != null) versions.merge(t.id(), t.version(), Math::max);
+    }
+
+    /** Remplace les documents d'un projet par l'état courant de ses tâches en base. */
+    public void reindexProject(UUID projectId) {
+        List<Document> docs = new ArrayList<>();
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<TaskDTO> rows = taskRepo.streamDtoByProjectId(projectId)) {
+                rows.forEach(t -> {
+                    seen(t);
+                    docs.add(document(t));
+                });
+            }
+        });
+        write(w -> {
+            w.deleteDocuments(new Term(PROJECT, projectId.toString()));
+            w.addDocuments(docs);
+        });
+    }
+
+    private void write(Op op) {
+        Index target;
+        synchronized (this) {
+            if (pending != null) pending.add(op);
+            target = current;
+        }
+        try {
+            op.apply(target.writer);
+            target.searchers.maybeRefreshBlocking(); // visible dès le retour de l'écriture
+        } catch (AlreadyClosedException e) {
+            // index remplacé par une reconstruction pendant l'écriture : l'opération y a été rejouée
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Document document(TaskDTO t) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, t.id().toString(), Field.Store.YES));
+        doc.add(new StringField(PROJECT, t.projectId().toString(), Field.Store.NO));
+        doc.add(new TextField(TITLE, t.title() == null ? "" : t.title(), Field.Store.NO));
+        if (t.description() != null) doc.add(new TextField(DESCRIPTION, t.description(), Field.Store.NO));
+        return doc;
+    }
+
+    // ===== Reconstruction
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    // Sur le pool @Scheduled (spring.task.scheduling.pool.size) : la reconstruction ne retarde pas les autres jobs
+    @Scheduled(cron = "${app.search.rebuild-cron:0 30 4 * * *}")
+    public void scheduledRebuild() {
+        if (rebuildEnabled) rebuild();
+    }
+
+    /**
+     * Construit un nouvel index depuis la base puis le substitue à l'actuel : les recherches restent servies
+     * par l'ancien pendant la lecture, et les écritures survenues entre-temps sont rejouées sur le nouveau.
+     */
+    public void rebuild() {
+        synchronized (this) {
+            if (pending != null) return; // reconstruction déjà en cours
+            pending = new ArrayList<>();
+        }
+        long start = System.currentTimeMillis();
+        Index fresh = null;
+        Index old;
+        try {
+            Index target = fresh = new Index(analyzer);
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<TaskDTO> rows = taskRepo.streamAllDto()) {
+                    rows.forEach(t -> {
+                        try {
+                            seen(t);
+                            target.writer.addDocument(document(t));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+            synchronized (this) {
+                for (Op op : pending) op.apply(fresh.writer);
+                old = current;
+                current = fresh;
+                pending = null;
+            }
+            fresh.searchers.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            closeQuietly(fresh);
+            log.error("[SEARCH] reconstruction de l'index échouée, index précédent conservé", e);
+            return;
+        }
+        closeQuietly(old);
+        log.info("[SEARCH] index reconstruit : {} tâches en {} ms",
+                fresh.writer.getDocStats().numDocs, System.currentTimeMillis() - start);
+    }
+
+    private static void closeQuietly(Index index) {
+        if (index == null) return;
+        try {
+            index.close();
+        } catch (IOException e) {
+            log.warn("[SEARCH] fermeture d'index échouée", e);
+        }
+    }
+
+    // ===== Recherche
+
+    /**
+     * Ids des tâches du projet correspondant à la saisie, par pertinence décroissante.
+     * Chaque mot doit apparaître dans le titre ou la description, exactement, en préfixe
+     * ("archi" trouve "architecture") ou à une faute près (deux à partir de 8 lettres).
+     * Le titre pèse plus que la description, la correspondance exacte plus que le préfixe.
+     */
+    public List<UUID> search(UUID projectId, String text, int limit) {
+        List<String> words = analyze(text);
+        if (words.isEmpty()) return List.of();
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(PROJECT, projectId.toString())), BooleanClause.Occur.FILTER);
+        for (String word : words) query.add(wordQuery(word), BooleanClause.Occur.MUST);
+
+        SearcherManager searchers = current.searchers;
+        try {
+            IndexSearcher searcher = searchers.acquire();
+            try {
+                TopDocs top = searcher.search(query.build(), limit);
+                List<UUID> ids = new ArrayList<>(top.scoreDocs.length);
+                var stored = searcher.storedFields();
+                for (ScoreDoc hit : top.scoreDocs) {
+                    ids.add(UUID.fromString(stored.document(hit.doc).get(ID)));
+                }
+                return ids;
+            } finally {
+                searchers.release(searcher);
+            }
+        } catch (AlreadyClosedException e) {
+            return search(projectId, text, limit); // index remplacé entre-temps : on relit le nouveau
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Query wordQuery(String word) {
+        BooleanQuery.Builder any = new BooleanQuery.Builder();
+        for (String field : List.of(TITLE, DESCRIPTION)) {
+            float weight = TITLE.equals(field) ? 2f : 1f;
+            Term term = new Term(field, word);
+            any.add(new BoostQuery(new TermQuery(term), 3f * weight), BooleanClause.Occur.SHOULD);
+            any.add(new BoostQuery(new PrefixQuery(term), 2f * weight), BooleanClause.Occur.SHOULD);
+            if (word.length() >= 4) {
+                int edits = word.length() >= 8 ? 2 : 1;
+                any.add(new BoostQuery(new FuzzyQuery(term, edits, 1), weight), BooleanClause.Occur.SHOULD);
+            }
+        }
+        return any.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream ts = analyzer.tokenStream(TITLE, new StringReader(text))) {
+            CharTermAttribute term = ts.addAttribute(CharTermAttribute.class);
+            ts.reset();
+            while (ts.incrementToken()) words.add(term.toString());
+            ts.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    /** Nombre de tâches indexées (toutes projets confondus). */
+    public int size() {
+        return current.writer.getDocStats().numDocs;
+    }
+}
@@ -0,0 +1,31 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.Repository.TaskTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/** Purge nocturne des tombstones de tâches au-delà de la durée de rétention de la synchro. */
+@Component
+public class TaskTombstoneCleaner {
+    private static final Logger log = LoggerFactory.getLogger(TaskTombstoneCleaner.class);
+
+    private final TaskTombstoneRepository tombstones;
+
+    @Value("${app.sync.tombstone-retention-days:30}")
+    private int retentionDays;
+
+    public TaskTombstoneCleaner(TaskTombstoneRepository tombstones) {
+        this.tombstones = tombstones;
+    }
+
+    @Scheduled(cron = "${app.sync.tombstone-purge-cron:0 45 3 * * *}")
+    public void purge() {
+        int n = tombstones.purgeBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (n > 0) log.info("[SYNC] {} tombstone(s) purgé(s)", n);
+    }
+}
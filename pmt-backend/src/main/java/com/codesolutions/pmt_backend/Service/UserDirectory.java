@@ -0,0 +1,143 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.DTO.UserSummaryDTO;
+import com.codesolutions.pmt_backend.Repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Annuaire en mémoire pour l'autocomplétion (GET /api/users/search?prefix=).
+ * Deux index triés (nom d'utilisateur, e-mail), clés normalisées (minuscules, sans accents) :
+ * une recherche par préfixe est un parcours de plage, sans accès à la base.
+ * - chargé depuis la base au démarrage, puis rechargé périodiquement
+ * - tenu à jour après commit par UserDirectoryListener (toute écriture JPA sur User)
+ * Une seule instance : avec plusieurs backends, les écritures des autres instances n'apparaissent
+ * qu'au rechargement suivant.
+ */
+@Component
+public class UserDirectory {
+    private static final Logger log = LoggerFactory.getLogger(UserDirectory.class);
+
+    // Sépare la valeur de l'id dans les clés : deux homonymes ne s'écrasent pas
+    private static final char SEP = '\u0000';
+
+    private final UserRepository userRepo;
+
+    private final Map<UUID, UserSummaryDTO> byId = new ConcurrentHashMap<>();
+    private final NavigableMap<String, UserSummaryDTO> byUsername = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, UserSummaryDTO> byEmail = new ConcurrentSkipListMap<>();
+    // Non null pendant un rechargement : ids écrits entre-temps, que l'état lu en base ne doit pas écraser
+    private Set<UUID> touched;
+
+    @Value("${app.users.directory.reload-enabled:true}")
+    private boolean reloadEnabled;
+
+    public UserDirectory(UserRepository userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    // ===== Écritures
+
+    public synchronized void put(UserSummaryDTO user) {
+        if (touched != null) touched.add(user.id());
+        unindex(byId.put(user.id(), user));
+        byUsername.put(key(user.username(), user.id()), user);
+        byEmail.put(key(user.email(), user.id()), user);
+    }
+
+    public synchronized void remove(UUID id) {
+        if (touched != null) touched.add(id);
+        unindex(byId.remove(id));
+    }
+
+    private void unindex(UserSummaryDTO old) {
+        if (old == null) return;
+        byUsername.remove(key(old.username(), old.id()));
+        byEmail.remove(key(old.email(), old.id()));
+    }
+
+    // ===== Rechargement
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    @Scheduled(cron = "${app.users.directory.reload-cron:0 40 4 * * *}")
+    public void scheduledReload() {
+        if (reloadEnabled) reload();
+    }
+
+    /** Aligne l'annuaire sur la table users (ajouts, modifications et suppressions manqués). */
+    public void reload() {
+        synchronized (this) {
+            if (touched != null) return; // rechargement déjà en cours
+            touched = new HashSet<>();
+        }
+        try {
+            List<UserSummaryDTO> all = userRepo.findAllSummaries();
+            synchronized (this) {
+                Set<UUID> present = new HashSet<>(all.size());
+                for (UserSummaryDTO u : all) {
+                    present.add(u.id());
+                    if (!touched.contains(u.id()) && !u.equals(byId.get(u.id()))) put(u);
+                }
+                for (UUID id : new ArrayList<>(byId.keySet())) {
+                    if (!present.contains(id) && !touched.contains(id)) remove(id);
+                }
+                log.info("[USERS] annuaire chargé : {} utilisateurs", byId.size());
+            }
+        } finally {
+            synchronized (this) {
+                touched = null;
+            }
+        }
+    }
+
+    // ===== Lecture
+
+    /**
+     * Utilisateurs dont le nom ou l'e-mail commence par prefix (casse et accents ignorés),
+     * correspondances sur le nom d'abord, chaque groupe dans l'ordre alphabétique.
+     */
+    public List<UserSummaryDTO> search(String prefix, int limit) {
+        String p = normalize(prefix);
+        Map<UUID, UserSummaryDTO> out = new LinkedHashMap<>();
+        collect(byUsername, p, limit, out);
+        collect(byEmail, p, limit, out);
+        return new ArrayList<>(out.values());
+    }
+
+    private static void collect(NavigableMap<String, UserSummaryDTO> index, String prefix, int limit,
+                                Map<UUID, UserSummaryDTO> out) {
+        // Toutes les clés commençant par prefix : [prefix, prefix + U+FFFF)
+        for (UserSummaryDTO u : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (out.size() >= limit) return;
+            out.putIfAbsent(u.id(), u);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private static String key(String value, UUID id) {
+        return normalize(value) + SEP + id;
+    }
+
+    static String normalize(String s) {
+        if (s == null) return "";
+        String decomposed = Normalizer.normalize(s.trim(), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+}
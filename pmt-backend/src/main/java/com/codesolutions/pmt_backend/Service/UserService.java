@@ -1,7 +1,9 @@
 package com.codesolutions.pmt_backend.Service;
 
+import com.codesolutions.pmt_backend.DTO.UserSummaryDTO;
 import com.codesolutions.pmt_backend.Entity.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -9,4 +11,6 @@ public interface UserService {
     List<User> getAllUsers();
     User createUser(User user);
     User getUserById(UUID id);
+    // Page keyset (createdAt, id) ; afterCreatedAt/afterId null => première page
+    List<UserSummaryDTO> listSummaries(LocalDateTime afterCreatedAt, UUID afterId, int limit);
 }
@@ -1,10 +1,13 @@
 package com.codesolutions.pmt_backend.Service;
 
+import com.codesolutions.pmt_backend.DTO.UserSummaryDTO;
 import com.codesolutions.pmt_backend.Entity.User;
 import com.codesolutions.pmt_backend.Repository.UserRepository;
 import com.codesolutions.pmt_backend.Service.UserService;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -34,4 +37,11 @@ public class UserServiceImpl implements UserService {
         Optional<User> optionalUser = userRepository.findById(id);
         return optionalUser.orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
     }
+
+    @Override
+    public List<UserSummaryDTO> listSummaries(LocalDateTime afterCreatedAt, UUID afterId, int limit) {
+        return (afterId == null)
+                ? userRepository.findSummaryPage(Limit.of(limit))
+                : userRepository.findSummaryPageAfter(afterCreatedAt, afterId, Limit.of(limit));
+    }
 }
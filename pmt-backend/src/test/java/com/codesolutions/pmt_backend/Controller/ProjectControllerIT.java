@@ -8,6 +8,9 @@ import com.codesolutions.pmt_backend.Repository.ProjectRepository;
 import com.codesolutions.pmt_backend.Repository.UserRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -42,6 +45,9 @@ public class ProjectControllerIT {
     @Autowired
     private ProjectMemberRepository memberRepository;
 
+    @Autowired
+    private EntityManagerFactory emf;
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private static UUID ownerId;
@@ -289,4 +295,184 @@ public class ProjectControllerIT {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", not(empty())));
     }
+
+    @Test
+    @Order(14)
+    void conditionalGet_etagChangesOnlyOnWrite() throws Exception {
+        assertNotNull(projectId);
+
+        String etag = mockMvc.perform(get("/api/projects/{id}", projectId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        mockMvc.perform(get("/api/projects/{id}", projectId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        User u = new User();
+        u.setUsername("etag-invitee");
+        u.setEmail("etag-invitee@example.com");
+        u.setPassword("pwd");
+        userRepository.save(u);
+
+        String listEtag = mockMvc.perform(get("/api/projects"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/projects").header("If-None-Match", "\"autre\", " + listEtag))
+                .andExpect(status().isNotModified());
+
+        // Invitation : nouvelle version du projet ; la liste (champs du projet seuls) ne change pas
+        mockMvc.perform(post("/api/projects/{id}/invite", projectId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"email\":\"etag-invitee@example.com\" }"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/projects/{id}", projectId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+        mockMvc.perform(get("/api/projects").header("If-None-Match", listEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Order(15)
+    void conditionalGet_etagChangesOnWritesOutsideControllers() throws Exception {
+        assertNotNull(projectId);
+        String etag = mockMvc.perform(get("/api/projects/{id}", projectId))
+                .andReturn().getResponse().getHeader("ETag");
+        String listEtag = mockMvc.perform(get("/api/projects"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Modification par repository (chemin de Spring Data REST) : projet et liste
+        Project p = projectRepository.findById(projectId).orElseThrow();
+        p.setDescription("Modifié hors contrôleur");
+        projectRepository.save(p);
+        String editedEtag = mockMvc.perform(get("/api/projects/{id}", projectId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Modifié hors contrôleur"))
+                .andReturn().getResponse().getHeader("ETag");
+        String editedListEtag = mockMvc.perform(get("/api/projects").header("If-None-Match", listEtag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Renommage d'un utilisateur (assigné possible) : ETag du projet et de ses tâches
+        User u = userRepository.findByEmail("etag-invitee@example.com").orElseThrow();
+        u.setUsername("etag-renamed");
+        userRepository.save(u);
+        mockMvc.perform(get("/api/projects/{id}", projectId).header("If-None-Match", editedEtag))
+                .andExpect(status().isOk());
+
+        // Suppression d'un autre projet par repository : la liste change
+        Project other = new Project();
+        other.setName("Éphémère " + UUID.randomUUID());
+        other.setStartDate(LocalDate.now());
+        other.setOwner(p.getOwner());
+        other = projectRepository.save(other);
+        String beforeDelete = mockMvc.perform(get("/api/projects"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(editedListEtag, beforeDelete);
+        projectRepository.delete(other);
+        mockMvc.perform(get("/api/projects").header("If-None-Match", beforeDelete))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(beforeDelete)));
+    }
+
+    private Project seedBulkProject(String tag) {
+        User owner = new User();
+        owner.setUsername("bulk-owner-" + tag);
+        owner.setEmail("bulk-owner-" + tag + "@example.com");
+        owner.setPassword("pwd");
+        Project p = new Project();
+        p.setName("Bulk " + tag);
+        p.setOwner(userRepository.save(owner));
+        return projectRepository.save(p);
+    }
+
+    private String seedBulkUser(String tag, int i) {
+        User u = new User();
+        u.setUsername("bulk-" + tag + "-" + i);
+        u.setEmail("bulk-" + tag + "-" + i + "@example.com");
+        u.setPassword("pwd");
+        return userRepository.save(u).getEmail();
+    }
+
+    @Test
+    @Order(15)
+    void inviteBulk_reportsPerEmail_andInvitesTheRest() throws Exception {
+        Project p = seedBulkProject("report");
+        String a = seedBulkUser("report", 0);
+        String b = seedBulkUser("report", 1);
+        String c = seedBulkUser("report", 2);
+        mockMvc.perform(post("/api/projects/{id}/invite", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"email\":\"" + c + "\" }"))
+                .andExpect(status().isCreated());
+
+        String payload = """
+                [{"email": "%s", "role": "ADMIN"},
+                 {"email": " %s "},
+                 {"email": "%s"},
+                 {"email": "inconnu@example.com"},
+                 {"email": ""},
+                 {"email": "%s"}]""".formatted(a, b, c, a);
+        String resp = mockMvc.perform(post("/api/projects/{id}/invite/bulk", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.invited").value(2))
+                .andExpect(jsonPath("$.alreadyMembers").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.items[0].result").value("INVITED"))
+                .andExpect(jsonPath("$.items[1].result").value("INVITED"))
+                .andExpect(jsonPath("$.items[2].result").value("ALREADY_MEMBER"))
+                .andExpect(jsonPath("$.items[3].error").value("User not found"))
+                .andExpect(jsonPath("$.items[4].error").value("Email required"))
+                .andExpect(jsonPath("$.items[5].result").value("ALREADY_MEMBER"))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode items = MAPPER.readTree(resp).get("items");
+        assertEquals(items.get(0).get("memberId").asText(), items.get(5).get("memberId").asText());
+        mockMvc.perform(get("/api/projects/{id}/members", p.getId()))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[?(@.email == '" + a + "')].role", contains("ADMIN")));
+
+        mockMvc.perform(post("/api/projects/{id}/invite/bulk", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/projects/{id}/invite/bulk", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON).content("[{\"email\": \"" + a + "\"}]"))
+                .andExpect(status().isNotFound());
+    }
+
+    private long inviteStatements(Project p, String tag, int n) throws Exception {
+        StringBuilder payload = new StringBuilder("[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) payload.append(',');
+            payload.append("{\"email\": \"").append(seedBulkUser(tag, i)).append("\"}");
+        }
+        payload.append(']');
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+        mockMvc.perform(post("/api/projects/{id}/invite/bulk", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(payload.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.invited").value(n));
+        return stats.getPrepareStatementCount();
+    }
+
+    @Test
+    @Order(16)
+    void inviteBulk_statementCount_doesNotDependOnInviteCount() throws Exception {
+        Project small = seedBulkProject("small");
+        Project large = seedBulkProject("large");
+        projectRepository.existsById(small.getId()); // existence en cache
+        projectRepository.existsById(large.getId());
+
+        long few = inviteStatements(small, "small", 2);
+        long many = inviteStatements(large, "large", 40);
+        assertEquals(few, many, "ni SELECT ni INSERT par invitation");
+        assertTrue(many <= 4, "utilisateurs + appartenances + INSERT groupé + version");
+    }
 }
@@ -47,6 +47,9 @@ public class ProjectMemberControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private jakarta.persistence.EntityManagerFactory emf;
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private static UUID projectId;
@@ -147,7 +150,10 @@ public class ProjectMemberControllerIT {
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", not(empty())))
-                .andExpect(jsonPath("$[0].id", notNullValue()));
+                .andExpect(jsonPath("$[0].id", notNullValue()))
+                // DTO à plat : ni entités imbriquées, ni mot de passe de l'utilisateur
+                .andExpect(jsonPath("$[0].userId", notNullValue()))
+                .andExpect(jsonPath("$[0].user").doesNotExist());
     }
 
     @Test
@@ -188,4 +194,77 @@ public class ProjectMemberControllerIT {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
     }
+
+    /** Parcourt toutes les pages d'une liste et renvoie les e-mails dans l'ordre. */
+    private java.util.List<String> pageEmails(String url, Object... vars) throws Exception {
+        java.util.List<String> emails = new java.util.ArrayList<>();
+        String after = null;
+        do {
+            var req = get(url, vars).param("limit", "2");
+            if (after != null) req = req.param("after", after);
+            JsonNode page = MAPPER.readTree(mockMvc.perform(req)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertTrue(page.get("items").size() <= 2);
+            for (JsonNode m : page.get("items")) {
+                assertFalse(m.has("password"));
+                emails.add(m.get("email").asText());
+            }
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (after != null);
+        return emails;
+    }
+
+    @Test
+    @Order(7)
+    void listMembers_paginated_dtoProjection_inCreationOrder() throws Exception {
+        Project p = seedProject(userRepository.findById(ownerId).orElseThrow());
+        java.util.List<String> expected = new java.util.ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User u = new User();
+            u.setUsername("paged-member-" + i);
+            u.setEmail("paged-member-" + i + "-" + UUID.randomUUID() + "@example.com");
+            u.setPassword("pwd");
+            u = userRepository.save(u);
+            ProjectMember m = new ProjectMember();
+            m.setProject(p);
+            m.setUser(u);
+            memberRepository.save(m);
+            expected.add(u.getEmail());
+        }
+
+        // filtre projet sur la liste globale, et liste du projet : mêmes pages
+        assertEquals(expected, pageEmails("/api/project-members?projectId={pid}", p.getId()));
+        assertEquals(expected, pageEmails("/api/projects/{pid}/members", p.getId()));
+        // sans paramètre : tableau complet, inchangé
+        mockMvc.perform(get("/api/projects/{pid}/members", p.getId()))
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].email").value(expected.get(0)));
+
+        // liste globale paginée : tous les membres, une requête par page
+        var stats = emf.unwrap(org.hibernate.SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+        mockMvc.perform(get("/api/project-members").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.items[0].username", notNullValue()))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()));
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+
+    @Test
+    @Order(8)
+    void listMembers_invalidPagination_returns400() throws Exception {
+        mockMvc.perform(get("/api/project-members").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid pagination"));
+        // curseur d'une autre liste
+        String usersCursor = MAPPER.readTree(mockMvc.perform(get("/api/users").param("limit", "1"))
+                .andReturn().getResponse().getContentAsString()).get("nextCursor").asText();
+        mockMvc.perform(get("/api/projects/{pid}/members", projectId).param("after", usersCursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details").value("Invalid cursor"));
+    }
 }
@@ -2,6 +2,7 @@ package com.codesolutions.pmt_backend.Controller;
 
 import com.codesolutions.pmt_backend.Entity.*;
 import com.codesolutions.pmt_backend.Repository.ProjectRepository;
+import com.codesolutions.pmt_backend.Repository.TaskFilter;
 import com.codesolutions.pmt_backend.Repository.TaskHistoryRepository;
 import com.codesolutions.pmt_backend.Repository.TaskRepository;
 import com.codesolutions.pmt_backend.Repository.UserRepository;
@@ -10,14 +11,22 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.net.URI;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
@@ -36,6 +45,9 @@ public class TaskControllerIT {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private TaskController taskController;
+
     @Autowired
     private TaskRepository taskRepo;
 
@@ -48,6 +60,9 @@ public class TaskControllerIT {
     @Autowired
     private TaskHistoryRepository historyRepo;
 
+    @Autowired
+    private EntityManagerFactory emf;
+
     @MockBean
     private MailService mailService; // mock : pas d’envoi réel
 
@@ -235,7 +250,7 @@ public class TaskControllerIT {
 
         // Vérifie l’appel d’envoi du mail d’assignation (qualifié pour éviter collision)
         Mockito.verify(mailService, Mockito.atLeastOnce())
-                .sendTaskAssignedMail(
+                .queueTaskAssignedMail(
                         org.mockito.ArgumentMatchers.any(User.class),
                         org.mockito.ArgumentMatchers.any(Task.class),
                         org.mockito.ArgumentMatchers.anyString()
@@ -297,7 +312,7 @@ public class TaskControllerIT {
         assertTrue(history.size() >= 2, "Il doit y avoir au moins 2 entrées d'historique");
 
         Mockito.verify(mailService, Mockito.atLeastOnce())
-                .sendTaskAssignedMail(
+                .queueTaskAssignedMail(
                         org.mockito.ArgumentMatchers.any(User.class),
                         org.mockito.ArgumentMatchers.any(Task.class),
                         org.mockito.ArgumentMatchers.anyString()
@@ -316,4 +331,878 @@ public class TaskControllerIT {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Task not found"));
     }
+
+    @Test
+    @Order(13)
+    void list_withLimit_pagesThroughAllTasks_withKeysetCursor() throws Exception {
+        Project p = seedProject(seedOwner("paging"));
+        for (int i = 0; i < 5; i++) {
+            Task t = new Task();
+            t.setProject(p);
+            t.setTitle("Page " + i);
+            taskRepo.save(t);
+        }
+
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var req = get("/api/projects/{pid}/tasks", p.getId()).param("limit", "2");
+            if (cursor != null) req = req.param("after", cursor);
+            String resp = mockMvc.perform(req.accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(lessThanOrEqualTo(2))))
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode json = MAPPER.readTree(resp);
+            json.get("items").forEach(n -> assertTrue(seen.add(n.get("id").asText()), "Doublon entre deux pages"));
+            cursor = json.get("nextCursor").isNull() ? null : json.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    @Order(14)
+    void list_withInvalidCursorOrLimit_returns400() throws Exception {
+        mockMvc.perform(get("/api/projects/{pid}/tasks", projectId).param("after", "%%pas-un-curseur"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid pagination"));
+
+        mockMvc.perform(get("/api/projects/{pid}/tasks", projectId).param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid pagination"));
+    }
+
+    private Task seedTask(Project p, String title, TaskStatusEnum st, TaskPriorityEnum pr, LocalDate deadline) {
+        Task t = new Task();
+        t.setProject(p);
+        t.setTitle(title);
+        t.setStatus(st);
+        t.setPriority(pr);
+        t.setDeadline(deadline);
+        return taskRepo.save(t);
+    }
+
+    /** Parcourt toutes les pages d'une requête filtrée et renvoie les titres dans l'ordre. */
+    private java.util.List<String> pageTitles(UUID pid, String sort, String... filters) throws Exception {
+        java.util.List<String> titles = new java.util.ArrayList<>();
+        String cursor = null;
+        do {
+            var req = get("/api/projects/{pid}/tasks", pid).param("limit", "2").param("sort", sort);
+            for (int i = 0; i < filters.length; i += 2) req = req.param(filters[i], filters[i + 1]);
+            if (cursor != null) req = req.param("after", cursor);
+            JsonNode json = MAPPER.readTree(mockMvc.perform(req)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            json.get("items").forEach(n -> titles.add(n.get("title").asText()));
+            cursor = json.get("nextCursor").isNull() ? null : json.get("nextCursor").asText();
+        } while (cursor != null);
+        return titles;
+    }
+
+    @Test
+    @Order(15)
+    void list_filtersAndSorts_areAppliedServerSide() throws Exception {
+        Project p = seedProject(seedOwner("kanban"));
+        LocalDate today = LocalDate.now();
+        seedTask(p, "low-todo", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, today.plusDays(9));
+        seedTask(p, "high-todo", TaskStatusEnum.TODO, TaskPriorityEnum.HIGH, null);
+        seedTask(p, "medium-doing", TaskStatusEnum.IN_PROGRESS, TaskPriorityEnum.MEDIUM, today.plusDays(1));
+        seedTask(p, "high-done", TaskStatusEnum.DONE, TaskPriorityEnum.HIGH, today.plusDays(3));
+        seedTask(p, "medium-todo", TaskStatusEnum.TODO, TaskPriorityEnum.MEDIUM, today.plusDays(5));
+
+        // filtre statut (liste sans pagination)
+        mockMvc.perform(get("/api/projects/{pid}/tasks", p.getId()).param("status", "todo,IN_PROGRESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[*].status", not(hasItem("DONE"))));
+
+        // filtre priorité + plage d'échéance
+        mockMvc.perform(get("/api/projects/{pid}/tasks", p.getId())
+                        .param("priority", "MEDIUM", "HIGH")
+                        .param("deadlineFrom", today.plusDays(2).toString())
+                        .param("deadlineTo", today.plusDays(6).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", containsInAnyOrder("high-done", "medium-todo")));
+
+        // tri priorité, paginé : HIGH puis MEDIUM puis LOW, échéance la plus proche d'abord à priorité égale
+        assertEquals(java.util.List.of("high-done", "high-todo", "medium-doing", "medium-todo", "low-todo"),
+                pageTitles(p.getId(), "priority"));
+
+        // tri échéance, paginé : la plus proche d'abord, sans échéance en dernier
+        assertEquals(java.util.List.of("medium-doing", "high-done", "medium-todo", "low-todo", "high-todo"),
+                pageTitles(p.getId(), "deadline"));
+
+        // filtre + tri combinés
+        assertEquals(java.util.List.of("medium-todo", "low-todo", "high-todo"),
+                pageTitles(p.getId(), "deadline", "status", "TODO"));
+    }
+
+    @Test
+    @Order(16)
+    void list_filterOnAssignee_returnsOnlyTheirTasks() throws Exception {
+        mockMvc.perform(get("/api/projects/{pid}/tasks", projectId).param("assigneeId", assigneeId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", not(empty())))
+                .andExpect(jsonPath("$[*].assigneeId", everyItem(is(assigneeId.toString()))));
+    }
+
+    @Test
+    @Order(17)
+    void list_invalidFilterOrMismatchedCursor_returns400() throws Exception {
+        mockMvc.perform(get("/api/projects/{pid}/tasks", projectId).param("status", "BLOCKED"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid filter"));
+        mockMvc.perform(get("/api/projects/{pid}/tasks", projectId).param("deadlineFrom", "demain"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid filter"));
+        mockMvc.perform(get("/api/projects/{pid}/tasks", projectId).param("sort", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid filter"));
+
+        // curseur émis pour le tri par défaut, rejoué avec sort=priority
+        String cursor = MAPPER.readTree(mockMvc.perform(get("/api/projects/{pid}/tasks", projectId).param("limit", "1"))
+                .andReturn().getResponse().getContentAsString()).get("nextCursor").asText();
+        mockMvc.perform(get("/api/projects/{pid}/tasks", projectId).param("sort", "priority").param("after", cursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid pagination"));
+    }
+
+    /** Seed d'un projet avec n tâches, chacune assignée à un user distinct et avec n entrées d'historique. */
+    private Task seedProjectWithAssignedTasks(String tag, int n) {
+        Project p = seedProject(seedOwner(tag));
+        Task last = null;
+        for (int i = 0; i < n; i++) {
+            User u = seedOwner(tag + "-u" + i);
+            Task t = seedTask(p, tag + " " + i, TaskStatusEnum.TODO, TaskPriorityEnum.MEDIUM, null);
+            t.setAssignee(u);
+            last = taskRepo.save(t);
+        }
+        for (int i = 0; i < n; i++) {
+            TaskHistory h = new TaskHistory();
+            h.setTask(last);
+            h.setChangedBy(seedOwner(tag + "-c" + i));
+            h.setChangeLog("UPDATED: " + i);
+            historyRepo.save(h);
+        }
+        return last;
+    }
+
+    private long statementsFor(org.springframework.test.web.servlet.RequestBuilder req) throws Exception {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+        mockMvc.perform(req).andExpect(status().isOk());
+        return stats.getPrepareStatementCount();
+    }
+
+    @Test
+    @Order(18)
+    void listAndHistory_statementCount_doesNotDependOnRowCount() throws Exception {
+        Task small = seedProjectWithAssignedTasks("nplus1-small", 2);
+        Task large = seedProjectWithAssignedTasks("nplus1-large", 8);
+        UUID smallPid = small.getProject().getId();
+        UUID largePid = large.getProject().getId();
+
+        long listSmall = statementsFor(get("/api/projects/{pid}/tasks", smallPid));
+        long listLarge = statementsFor(get("/api/projects/{pid}/tasks", largePid));
+        assertEquals(listSmall, listLarge, "La liste ne doit pas émettre de requête par ligne");
+        assertTrue(listLarge <= 3, "existence du projet + version (ETag) + une requête de liste");
+        // projets désormais en cache : restent la version et la requête de liste
+        listLarge = statementsFor(get("/api/projects/{pid}/tasks", largePid));
+        assertEquals(2, listLarge);
+
+        long pageLarge = statementsFor(get("/api/projects/{pid}/tasks", largePid).param("limit", "5"));
+        assertEquals(listLarge, pageLarge);
+
+        long historySmall = statementsFor(get("/api/projects/{pid}/tasks/{tid}/history", smallPid, small.getId()));
+        long historyLarge = statementsFor(get("/api/projects/{pid}/tasks/{tid}/history", largePid, large.getId()));
+        assertEquals(historySmall, historyLarge, "L'historique ne doit pas émettre de requête par ligne");
+        assertTrue(historyLarge <= 3, "appartenance de la tâche + une requête par table (chaude, archive)");
+
+        assertTrue(statementsFor(get("/api/projects/{pid}/tasks/{tid}", largePid, large.getId())) <= 2, "version (ETag) + tâche");
+    }
+
+    private String bulkPayload(int n, String tag, String assigneeEmail) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("""
+                    {"title": "%s %d", "priority": "HIGH", "assigneeEmail": "%s"}""".formatted(tag, i, assigneeEmail));
+        }
+        return sb.append(']').toString();
+    }
+
+    @Test
+    @Order(19)
+    void bulk_createsUpdatesAndReportsPerItem() throws Exception {
+        User owner = seedOwner("bulk");
+        Project p = seedProject(owner);
+        User dev = seedOwner("bulk-dev");
+        Task existing = seedTask(p, "existante", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        Task untouched = seedTask(p, "inchangée", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        Task foreign = seedTask(seedProject(seedOwner("bulk-other")), "autre projet", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        Mockito.reset(mailService);
+
+        String payload = """
+        [
+          {"title": "Import A", "assigneeEmail": "%s", "changedBy": "%s"},
+          {"title": "Import B", "status": "DONE", "assigneeId": "%s"},
+          {"title": "x"},
+          {"title": "Import C", "assigneeEmail": "nobody@example.com"},
+          {"id": "%s", "status": "IN_PROGRESS", "assigneeId": "%s"},
+          {"id": "%s", "title": "inchangée"},
+          {"id": "%s", "title": "volée"}
+        ]
+        """.formatted(dev.getEmail(), owner.getId(), dev.getId(), existing.getId(), dev.getId(), untouched.getId(), foreign.getId());
+
+        String resp = mockMvc.perform(post("/api/projects/{pid}/tasks/bulk", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.unchanged").value(1))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.items[0].result").value("CREATED"))
+                .andExpect(jsonPath("$.items[2].result").value("ERROR"))
+                .andExpect(jsonPath("$.items[2].error").value("title min 3"))
+                .andExpect(jsonPath("$.items[3].error").value("assigneeEmail not found"))
+                .andExpect(jsonPath("$.items[4].result").value("UPDATED"))
+                .andExpect(jsonPath("$.items[4].id").value(existing.getId().toString()))
+                .andExpect(jsonPath("$.items[5].result").value("UNCHANGED"))
+                .andExpect(jsonPath("$.items[6].error").value("Task not found"))
+                .andReturn().getResponse().getContentAsString();
+
+        UUID createdA = UUID.fromString(MAPPER.readTree(resp).at("/items/0/id").asText());
+        Task a = taskRepo.findById(createdA).orElseThrow();
+        assertEquals("Import A", a.getTitle());
+        assertEquals(dev.getId(), a.getAssignee().getId());
+        var aHistory = historyRepo.findDtoByTaskId(createdA);
+        assertEquals(1, aHistory.size());
+        assertTrue(aHistory.get(0).changeLog().startsWith("CREATED"));
+        assertEquals(owner.getId(), aHistory.get(0).changedById());
+
+        Task updated = taskRepo.findById(existing.getId()).orElseThrow();
+        assertEquals(TaskStatusEnum.IN_PROGRESS, updated.getStatus());
+        assertEquals(1, historyRepo.findDtoByTaskId(existing.getId()).size());
+        assertEquals("autre projet", taskRepo.findById(foreign.getId()).orElseThrow().getTitle());
+
+        // 2 créations assignées + 1 réassignation
+        Mockito.verify(mailService, Mockito.times(3)).queueTaskAssignedMail(
+                org.mockito.ArgumentMatchers.any(User.class),
+                org.mockito.ArgumentMatchers.any(Task.class),
+                org.mockito.ArgumentMatchers.anyString());
+    }
+
+    @Test
+    @Order(20)
+    void bulk_invalidPayload_returns400or404() throws Exception {
+        mockMvc.perform(post("/api/projects/{pid}/tasks/bulk", projectId)
+                        .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details").value("empty list"));
+
+        mockMvc.perform(post("/api/projects/{pid}/tasks/bulk", projectId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkPayload(TaskController.BULK_MAX_ITEMS + 1, "trop", assigneeEmail)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/projects/{pid}/tasks/bulk", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON).content(bulkPayload(1, "orphan", assigneeEmail)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(21)
+    void bulk_usesBatchedInserts_constantLookups() throws Exception {
+        Project p = seedProject(seedOwner("bulk-batch"));
+        User dev = seedOwner("bulk-batch-dev");
+
+        long small = statementsFor(post("/api/projects/{pid}/tasks/bulk", p.getId())
+                .contentType(MediaType.APPLICATION_JSON).content(bulkPayload(10, "petit", dev.getEmail())));
+        long large = statementsFor(post("/api/projects/{pid}/tasks/bulk", p.getId())
+                .contentType(MediaType.APPLICATION_JSON).content(bulkPayload(200, "gros", dev.getEmail())));
+
+        // 1 projet + 1 SELECT utilisateurs + INSERT groupés par 50 (tâches, historique)
+        assertTrue(large <= small + 6, "small=" + small + " large=" + large);
+        assertTrue(large < 20, "200 tâches ne doivent pas coûter 400 requêtes : " + large);
+        assertEquals(210, taskRepo.search(p.getId(), TaskFilter.none(), null, null).size());
+    }
+
+    private JsonNode changes(UUID pid, String since, Integer limit) throws Exception {
+        var req = get("/api/projects/{pid}/tasks/changes", pid);
+        if (since != null) req = req.param("since", since);
+        if (limit != null) req = req.param("limit", limit.toString());
+        return MAPPER.readTree(mockMvc.perform(req).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static java.util.List<String> titles(JsonNode changed) {
+        java.util.List<String> out = new java.util.ArrayList<>();
+        changed.forEach(n -> out.add(n.get("title").asText()));
+        return out;
+    }
+
+    @Test
+    @Order(22)
+    void changes_fullSnapshotThenOnlyModifiedTasks() throws Exception {
+        Project p = seedProject(seedOwner("sync"));
+        Task a = seedTask(p, "sync-a", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        seedTask(p, "sync-b", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+
+        JsonNode full = changes(p.getId(), null, null);
+        assertTrue(full.get("full").asBoolean());
+        assertFalse(full.get("hasMore").asBoolean());
+        assertEquals(java.util.List.of("sync-a", "sync-b"), titles(full.get("changed")));
+        assertTrue(full.get("changed").get(0).get("updatedAt").isTextual());
+
+        // Rien n'a bougé : réponse vide, pas de resynchro complète
+        JsonNode idle = changes(p.getId(), full.get("cursor").asText(), null);
+        assertFalse(idle.get("full").asBoolean());
+        assertEquals(0, idle.get("changed").size());
+        assertEquals(0, idle.get("deleted").size());
+
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), a.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"status\": \"DONE\"}"))
+                .andExpect(status().isOk());
+
+        JsonNode delta = changes(p.getId(), idle.get("cursor").asText(), null);
+        assertEquals(java.util.List.of("sync-a"), titles(delta.get("changed")));
+        assertEquals("DONE", delta.get("changed").get(0).get("status").asText());
+    }
+
+    @Test
+    @Order(23)
+    void changes_reportsDeletedTasksAsTombstones() throws Exception {
+        Project p = seedProject(seedOwner("sync-del"));
+        Task gone = seedTask(p, "sync-gone", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        seedTask(p, "sync-kept", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        TaskHistory h = new TaskHistory();
+        h.setTask(gone);
+        h.setChangeLog("CREATED");
+        historyRepo.save(h);
+
+        String cursor = changes(p.getId(), null, null).get("cursor").asText();
+
+        mockMvc.perform(delete("/api/projects/{pid}/tasks/{tid}", p.getId(), gone.getId()))
+                .andExpect(status().isNoContent());
+        assertTrue(taskRepo.findById(gone.getId()).isEmpty());
+
+        JsonNode delta = changes(p.getId(), cursor, null);
+        assertEquals(0, delta.get("changed").size());
+        assertEquals(1, delta.get("deleted").size());
+        assertEquals(gone.getId().toString(), delta.get("deleted").get(0).asText());
+
+        // La copie complète ne liste que les tâches encore présentes
+        assertEquals(java.util.List.of("sync-kept"), titles(changes(p.getId(), null, null).get("changed")));
+    }
+
+    @Test
+    @Order(24)
+    void changes_pagesWithLimit() throws Exception {
+        Project p = seedProject(seedOwner("sync-page"));
+        for (int i = 0; i < 5; i++) seedTask(p, "sync-page " + i, TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+
+        java.util.List<String> seen = new java.util.ArrayList<>();
+        JsonNode page = changes(p.getId(), null, 2);
+        seen.addAll(titles(page.get("changed")));
+        int calls = 1;
+        while (page.get("hasMore").asBoolean()) {
+            assertEquals(2, page.get("changed").size());
+            page = changes(p.getId(), page.get("cursor").asText(), 2);
+            seen.addAll(titles(page.get("changed")));
+            calls++;
+        }
+        assertEquals(3, calls);
+        assertEquals(5, seen.size());
+        assertEquals(5, new java.util.HashSet<>(seen).size(), "aucun doublon entre les pages");
+    }
+
+    @Test
+    @Order(25)
+    void changes_andDelete_invalidInput() throws Exception {
+        mockMvc.perform(get("/api/projects/{pid}/tasks/changes", projectId).param("since", "pas-un-curseur"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid pagination"));
+
+        // Un curseur de la liste paginée n'est pas un curseur de synchro
+        String listCursor = new KeysetCursor(java.time.LocalDateTime.now(), UUID.randomUUID()).encode();
+        mockMvc.perform(get("/api/projects/{pid}/tasks/changes", projectId).param("since", listCursor))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/projects/{pid}/tasks/changes", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(delete("/api/projects/{pid}/tasks/{tid}", UUID.randomUUID(), createdTaskId))
+                .andExpect(status().isNotFound());
+        assertTrue(taskRepo.findById(createdTaskId).isPresent());
+    }
+
+    @Test
+    @Order(26)
+    void events_streamsCommittedChangesOfTheProject() throws Exception {
+        Project p = seedProject(seedOwner("sse"));
+        MvcResult stream = mockMvc.perform(get("/api/projects/{pid}/tasks/events", p.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String created = mockMvc.perform(post("/api/projects/{pid}/tasks", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\": \"sse-task\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String taskId = MAPPER.readTree(created).get("id").asText();
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), taskId)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"status\": \"DONE\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/projects/{pid}/tasks/{tid}", p.getId(), taskId))
+                .andExpect(status().isNoContent());
+        // Création refusée (rollback) : rien n'est diffusé
+        mockMvc.perform(post("/api/projects/{pid}/tasks", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"sse-rollback\", \"assigneeId\": \"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isBadRequest());
+
+        String body = "";
+        for (int i = 0; i < 100 && !body.contains("event:task.deleted"); i++) {
+            Thread.sleep(20);
+            body = stream.getResponse().getContentAsString();
+        }
+        assertTrue(stream.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        int c = body.indexOf("event:task.created"), u = body.indexOf("event:task.updated"),
+                d = body.indexOf("event:task.deleted");
+        assertTrue(c >= 0 && c < u && u < d, body);
+        assertTrue(body.contains("\"title\":\"sse-task\""));
+        assertTrue(body.contains("\"status\":\"DONE\""));
+        assertFalse(body.contains("sse-rollback"));
+    }
+
+    @Test
+    @Order(27)
+    void events_unknownProject_404() throws Exception {
+        mockMvc.perform(get("/api/projects/{pid}/tasks/events", UUID.randomUUID()).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(28)
+    void history_storesDescriptionEditsAsCompactDiffs() throws Exception {
+        Project p = seedProject(seedOwner("history-diff"));
+        String longText = "Contexte : " + "détail ".repeat(300) + "Statut : brouillon.";
+        String created = mockMvc.perform(post("/api/projects/{pid}/tasks", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(MAPPER.writeValueAsString(java.util.Map.of("title", "history-diff", "description", longText))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID taskId = UUID.fromString(MAPPER.readTree(created).get("id").asText());
+
+        for (String state : java.util.List.of("relu.", "validé.", "publié.")) {
+            mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), taskId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(MAPPER.writeValueAsString(java.util.Map.of(
+                                    "description", longText.replace("brouillon.", state), "status", "IN_PROGRESS"))))
+                    .andExpect(status().isOk());
+        }
+
+        var history = historyRepo.findDtoByTaskId(taskId);
+        assertEquals(4, history.size());
+        assertEquals("UPDATED: description: '…brouillon…' -> '…relu…'; status: TODO -> IN_PROGRESS",
+                history.get(2).changeLog());
+        assertEquals("UPDATED: description: '…relu…' -> '…validé…'", history.get(1).changeLog());
+        assertTrue(history.get(3).changeLog().startsWith("CREATED: title='history-diff'; description='Contexte"));
+
+        // Seule la création contient le texte complet ; chaque retouche ne stocke que quelques caractères
+        for (TaskHistory h : historyRepo.findByTaskIdOrderByChangedAtDesc(taskId)) {
+            int stored = h.getChanges().stream()
+                    .mapToInt(c -> (c.from() == null ? 0 : c.from().length()) + (c.to() == null ? 0 : c.to().length()))
+                    .sum();
+            if ("UPDATED".equals(h.getChangeLog())) assertTrue(stored < 40, "stored=" + stored);
+            else assertTrue(stored > longText.length());
+        }
+    }
+
+    @Test
+    @Order(29)
+    void history_paginatedAndFiltered() throws Exception {
+        Project p = seedProject(seedOwner("history-page"));
+        User alice = seedOwner("history-alice");
+        User bob = seedOwner("history-bob");
+        Task t = seedTask(p, "history-page", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 8, 0);
+        for (int i = 0; i < 6; i++) {
+            TaskHistory h = new TaskHistory();
+            h.setTask(t);
+            h.setChangedBy(i % 2 == 0 ? alice : bob);
+            h.setChangeLog("UPDATED: " + i);
+            h.setChangedAt(base.plusDays(i));
+            historyRepo.save(h);
+        }
+        String url = "/api/projects/{pid}/tasks/{tid}/history";
+
+        // Sans paramètre : tableau complet, comme avant
+        mockMvc.perform(get(url, p.getId(), t.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6)));
+
+        java.util.List<String> logs = new java.util.ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            var req = get(url, p.getId(), t.getId()).param("limit", "4");
+            if (after != null) req = req.param("after", after);
+            JsonNode page = MAPPER.readTree(mockMvc.perform(req).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(n -> logs.add(n.get("changeLog").asText()));
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (after != null);
+        assertEquals(2, pages);
+        assertEquals(java.util.List.of("UPDATED: 5", "UPDATED: 4", "UPDATED: 3", "UPDATED: 2", "UPDATED: 1",
+                "UPDATED: 0"), logs);
+
+        mockMvc.perform(get(url, p.getId(), t.getId()).param("changedBy", bob.getId().toString()))
+                .andExpect(jsonPath("$.items[*].changeLog", contains("UPDATED: 5", "UPDATED: 3", "UPDATED: 1")));
+
+        // [from, to[ : du 2 mars (inclus) au 4 mars 08:00 (exclu)
+        mockMvc.perform(get(url, p.getId(), t.getId()).param("from", "2025-03-02").param("to", "2025-03-04T08:00"))
+                .andExpect(jsonPath("$.items[*].changeLog", contains("UPDATED: 2", "UPDATED: 1")));
+
+        mockMvc.perform(get(url, p.getId(), t.getId()).param("from", "2025-03-04").param("to", "2025-03-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid filter"));
+
+        String listCursor = new KeysetCursor(base, UUID.randomUUID()).encode();
+        mockMvc.perform(get(url, p.getId(), t.getId()).param("after", listCursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid pagination"));
+    }
+
+    @Test
+    @Order(30)
+    void conditionalGet_304WithoutReadingTasks_untilATaskChanges() throws Exception {
+        Project p = seedProject(seedOwner("etag"));
+        String created = mockMvc.perform(post("/api/projects/{pid}/tasks", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"ETag\",\"status\":\"TODO\",\"priority\":\"LOW\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID taskId = UUID.fromString(MAPPER.readTree(created).get("id").asText());
+
+        String etag = mockMvc.perform(get("/api/projects/{pid}/tasks", p.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        // Projet en cache : seule la ligne project_versions est lue
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+        mockMvc.perform(get("/api/projects/{pid}/tasks", p.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/projects/{pid}/tasks", p.getId()).param("limit", "10").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        // Une tâche a son propre ETag (celui de If-Match) : l'ETag de la liste ne la valide pas
+        String taskEtag = mockMvc.perform(get("/api/projects/{pid}/tasks/{tid}", p.getId(), taskId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, taskEtag);
+        mockMvc.perform(get("/api/projects/{pid}/tasks/{tid}", p.getId(), taskId).header("If-None-Match", "W/" + taskEtag))
+                .andExpect(status().isNotModified());
+
+        // Modification : nouvel ETag
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"ETag modifiée\"}"))
+                .andExpect(status().isOk());
+        String etag2 = mockMvc.perform(get("/api/projects/{pid}/tasks", p.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("ETag modifiée"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, etag2);
+
+        // Suppression : nouvel ETag
+        mockMvc.perform(delete("/api/projects/{pid}/tasks/{tid}", p.getId(), taskId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/projects/{pid}/tasks", p.getId()).header("If-None-Match", etag2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Order(31)
+    void board_topTasksPerStatus_withColumnTotals_inOneQuery() throws Exception {
+        Project p = seedProject(seedOwner("board-columns"));
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 5; i++) seedTask(p, "todo-low-" + i, TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        seedTask(p, "todo-high-late", TaskStatusEnum.TODO, TaskPriorityEnum.HIGH, today.plusDays(9));
+        seedTask(p, "todo-high-none", TaskStatusEnum.TODO, TaskPriorityEnum.HIGH, null);
+        seedTask(p, "todo-high-soon", TaskStatusEnum.TODO, TaskPriorityEnum.HIGH, today.plusDays(1));
+        seedTask(p, "todo-medium", TaskStatusEnum.TODO, TaskPriorityEnum.MEDIUM, today);
+        seedTask(p, "done", TaskStatusEnum.DONE, TaskPriorityEnum.MEDIUM, null);
+
+        long statements = statementsFor(get("/api/projects/{pid}/tasks/board", p.getId()).param("limit", "3"));
+        assertTrue(statements <= 3, "existence du projet + version (ETag) + une requête de board");
+
+        mockMvc.perform(get("/api/projects/{pid}/tasks/board", p.getId()).param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.limit").value(3))
+                .andExpect(jsonPath("$.columns", hasSize(3)))
+                .andExpect(jsonPath("$.columns[0].status").value("TODO"))
+                .andExpect(jsonPath("$.columns[0].total").value(9))
+                .andExpect(jsonPath("$.columns[0].tasks", hasSize(3)))
+                .andExpect(jsonPath("$.columns[0].tasks[0].title").value("todo-high-soon"))
+                .andExpect(jsonPath("$.columns[0].tasks[1].title").value("todo-high-late"))
+                .andExpect(jsonPath("$.columns[0].tasks[2].title").value("todo-high-none"))
+                // colonne vide présente, total 0
+                .andExpect(jsonPath("$.columns[1].status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.columns[1].total").value(0))
+                .andExpect(jsonPath("$.columns[1].tasks", hasSize(0)))
+                .andExpect(jsonPath("$.columns[2].total").value(1))
+                .andExpect(jsonPath("$.columns[2].tasks[0].title").value("done"));
+
+        // limite par défaut, bornée au maximum
+        mockMvc.perform(get("/api/projects/{pid}/tasks/board", p.getId()))
+                .andExpect(jsonPath("$.limit").value(TaskController.BOARD_DEFAULT_LIMIT))
+                .andExpect(jsonPath("$.columns[0].tasks", hasSize(9)))
+                .andExpect(jsonPath("$.columns[0].tasks[3].title").value("todo-medium"));
+        mockMvc.perform(get("/api/projects/{pid}/tasks/board", p.getId()).param("limit", "100000"))
+                .andExpect(jsonPath("$.limit").value(TaskController.BOARD_MAX_LIMIT));
+
+        mockMvc.perform(get("/api/projects/{pid}/tasks/board", p.getId()).param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid limit"));
+        mockMvc.perform(get("/api/projects/{pid}/tasks/board", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(32)
+    void patch_ifMatch_staleVersion_returns409WithCurrentState() throws Exception {
+        Project p = seedProject(seedOwner("if-match"));
+        Task t = seedTask(p, "if-match", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        long v0 = t.getVersion();
+
+        mockMvc.perform(get("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId()))
+                .andExpect(jsonPath("$.version").value(v0));
+
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId())
+                        .header("If-Match", "\"" + v0 + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"if-match premier\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(v0 + 1));
+
+        // Second client, encore sur v0 : rien n'est écrit, l'état courant est renvoyé
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId())
+                        .header("If-Match", String.valueOf(v0))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"if-match second\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Version conflict"))
+                .andExpect(jsonPath("$.current.title").value("if-match premier"))
+                .andExpect(jsonPath("$.current.version").value(v0 + 1));
+        assertEquals("if-match premier", taskRepo.findById(t.getId()).orElseThrow().getTitle());
+        assertEquals(1, historyRepo.findDtoByTaskId(t.getId()).size());
+
+        // "*" ou pas d'If-Match : pas de contrôle
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId())
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(v0 + 2));
+
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId())
+                        .header("If-Match", "W/\"" + (v0 + 2) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"TODO\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid If-Match"));
+    }
+
+    @Test
+    @Order(33)
+    void patch_concurrentWrites_noLostUpdate() throws Exception {
+        Project p = seedProject(seedOwner("patch-race"));
+        Task t = seedTask(p, "patch-race", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        long v0 = t.getVersion();
+
+        int writers = 8;
+        var pool = java.util.concurrent.Executors.newFixedThreadPool(writers);
+        var start = new java.util.concurrent.CountDownLatch(1);
+        java.util.List<java.util.concurrent.Future<Integer>> results = new java.util.ArrayList<>();
+        try {
+            for (int i = 0; i < writers; i++) {
+                String title = "patch-race-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId())
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content("{\"title\":\"" + title + "\"}"))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            int ok = 0;
+            for (var r : results) {
+                int code = r.get(30, java.util.concurrent.TimeUnit.SECONDS);
+                assertTrue(code == 200 || code == 409, "status " + code);
+                if (code == 200) ok++;
+            }
+            // Chaque écriture acceptée a incrémenté la version et écrit son historique, les refusées rien
+            assertTrue(ok >= 1);
+            assertEquals(v0 + ok, taskRepo.findById(t.getId()).orElseThrow().getVersion());
+            assertEquals(ok, historyRepo.findDtoByTaskId(t.getId()).size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @Order(34)
+    void bulk_failedUpdate_leavesTaskUntouched() throws Exception {
+        Project p = seedProject(seedOwner("bulk-atomic"));
+        Task t = seedTask(p, "bulk-atomic", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+
+        // Titre et statut valides, assigné inconnu : élément en erreur, rien d'écrit pour cette tâche
+        mockMvc.perform(post("/api/projects/{pid}/tasks/bulk", p.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        [{"id": "%s", "title": "modifiée", "status": "DONE", "assigneeId": "%s"}]
+                        """.formatted(t.getId(), UUID.randomUUID())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].error").value("assigneeId not found"));
+
+        Task after = taskRepo.findById(t.getId()).orElseThrow();
+        assertEquals("bulk-atomic", after.getTitle());
+        assertEquals(TaskStatusEnum.TODO, after.getStatus());
+        assertEquals(t.getVersion(), after.getVersion());
+        assertEquals(0, historyRepo.findDtoByTaskId(t.getId()).size());
+    }
+
+    @Test
+    @Order(35)
+    void getThenPatch_etagRoundTrip() throws Exception {
+        Project p = seedProject(seedOwner("etag-round-trip"));
+        Task t = seedTask(p, "round-trip", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+
+        // Client HTTP standard : renvoie tel quel l'ETag lu par GET
+        String etag = mockMvc.perform(get("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String next = mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId())
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"round-trip 1\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, next);
+
+        // Le même ETag, désormais périmé : 409, état courant et ETag courant
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId())
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"round-trip perdu\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("ETag", next))
+                .andExpect(jsonPath("$.current.title").value("round-trip 1"));
+
+        // L'ETag de la réponse PATCH enchaîne directement, et correspond à celui d'un nouveau GET
+        mockMvc.perform(get("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId()).header("If-None-Match", next))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId())
+                        .header("If-Match", next)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"round-trip 2\"}"))
+                .andExpect(status().isOk());
+
+        // ETag d'une autre tâche : refusé ; tâche absente : 404 même avec If-None-Match: *
+        Task other = seedTask(p, "round-trip autre", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        String otherEtag = mockMvc.perform(get("/api/projects/{pid}/tasks/{tid}", p.getId(), other.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", p.getId(), t.getId())
+                        .header("If-Match", otherEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"round-trip 3\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/projects/{pid}/tasks/{tid}", p.getId(), UUID.randomUUID()).header("If-None-Match", "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(36)
+    void board_column_continuesWithPriorityList() throws Exception {
+        Project p = seedProject(seedOwner("board-list"));
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 3; i++) seedTask(p, "low-" + i, TaskStatusEnum.TODO, TaskPriorityEnum.LOW, null);
+        seedTask(p, "low-soon", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, today);
+        seedTask(p, "high-none", TaskStatusEnum.TODO, TaskPriorityEnum.HIGH, null);
+        seedTask(p, "high-late", TaskStatusEnum.TODO, TaskPriorityEnum.HIGH, today.plusDays(5));
+        seedTask(p, "medium-none", TaskStatusEnum.TODO, TaskPriorityEnum.MEDIUM, null);
+        seedTask(p, "medium-soon", TaskStatusEnum.TODO, TaskPriorityEnum.MEDIUM, today.plusDays(1));
+        seedTask(p, "high-soon", TaskStatusEnum.TODO, TaskPriorityEnum.HIGH, today.plusDays(1));
+
+        JsonNode board = MAPPER.readTree(mockMvc.perform(get("/api/projects/{pid}/tasks/board", p.getId())
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        java.util.List<String> column = new java.util.ArrayList<>();
+        board.get("columns").get(0).get("tasks").forEach(n -> column.add(n.get("title").asText()));
+
+        // Colonne du board et liste paginée ?status=TODO&sort=priority : même ordre, page après page
+        assertEquals(column, pageTitles(p.getId(), "priority", "status", "TODO"));
+        assertEquals(java.util.List.of("high-soon", "high-late", "high-none", "medium-soon", "medium-none", "low-soon"),
+                column.subList(0, 6));
+    }
+
+    @Test
+    @Order(37)
+    void list_withoutLimit_isCapped_withLinkToNextPage() throws Exception {
+        Project p = seedProject(seedOwner("unpaged"));
+        LocalDate today = LocalDate.now();
+        seedTask(p, "high-none", TaskStatusEnum.TODO, TaskPriorityEnum.HIGH, null);
+        seedTask(p, "low-soon", TaskStatusEnum.TODO, TaskPriorityEnum.LOW, today);
+        seedTask(p, "high-soon", TaskStatusEnum.TODO, TaskPriorityEnum.HIGH, today.plusDays(1));
+        seedTask(p, "medium-none", TaskStatusEnum.TODO, TaskPriorityEnum.MEDIUM, null);
+
+        ReflectionTestUtils.setField(taskController, "unpagedMax", 3);
+        try {
+            // paramètres dans l'URL : le Link est construit à partir de la query string de la requête
+            MvcResult capped = mockMvc.perform(get("/api/projects/{pid}/tasks?sort=priority", p.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(3))
+                    .andExpect(jsonPath("$[0].title").value("high-soon"))
+                    .andExpect(jsonPath("$[2].title").value("medium-none"))
+                    .andReturn();
+            String link = capped.getResponse().getHeader(HttpHeaders.LINK);
+            assertNotNull(link);
+            assertTrue(link.endsWith(">; rel=\"next\""), link);
+
+            // la suite, en pagination keyset, reprend après la dernière ligne du tableau
+            URI next = URI.create(link.substring(1, link.indexOf('>')));
+            mockMvc.perform(get(next))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(1))
+                    .andExpect(jsonPath("$.items[0].title").value("low-soon"))
+                    .andExpect(jsonPath("$.nextCursor").isEmpty());
+
+            // sous le plafond : tableau complet, sans Link
+            mockMvc.perform(get("/api/projects/{pid}/tasks", p.getId()).param("priority", "HIGH"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(header().doesNotExist(HttpHeaders.LINK));
+        } finally {
+            ReflectionTestUtils.setField(taskController, "unpagedMax", 1000);
+        }
+    }
 }
@@ -0,0 +1,183 @@
+package com.codesolutions.pmt_backend.Controller;
+
+import com.codesolutions.pmt_backend.Entity.*;
+import com.codesolutions.pmt_backend.Repository.ProjectRepository;
+import com.codesolutions.pmt_backend.Repository.TaskHistoryRepository;
+import com.codesolutions.pmt_backend.Repository.TaskRepository;
+import com.codesolutions.pmt_backend.Repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * IT pour TaskExportController :
+ * - NDJSON / CSV des tâches et de l'historique d'un projet
+ * - paramètres invalides et projet inconnu
+ * - lecture en flux (aucune entité chargée)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TaskExportControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private TaskHistoryRepository historyRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static UUID projectId;
+    private static UUID firstTaskId;
+
+    @Test
+    @Order(1)
+    void seed() {
+        User owner = new User();
+        owner.setUsername("export-owner");
+        owner.setEmail("export-owner@example.com");
+        owner.setPassword("pwd");
+        owner = userRepo.save(owner);
+
+        Project p = new Project();
+        p.setName("Export");
+        p.setOwner(owner);
+        p.setStartDate(LocalDate.now());
+        projectId = projectRepo.save(p).getId();
+
+        for (int i = 0; i < 30; i++) {
+            Task t = new Task();
+            t.setProject(p);
+            t.setTitle("Tâche " + i);
+            t.setDescription(i == 0 ? "virgule, \"guillemets\"\net retour" : null);
+            t.setStatus(TaskStatusEnum.TODO);
+            t.setPriority(TaskPriorityEnum.MEDIUM);
+            t.setAssignee(i % 2 == 0 ? owner : null);
+            t = taskRepo.save(t);
+            if (i == 0) firstTaskId = t.getId();
+
+            TaskHistory h = new TaskHistory();
+            h.setTask(t);
+            h.setChangedBy(owner);
+            h.setChangeLog("CREATED " + i);
+            historyRepo.save(h);
+        }
+    }
+
+    private MvcResult export(String... params) throws Exception {
+        return export(projectId, status().isOk(), params);
+    }
+
+    // Le corps est écrit en asynchrone (StreamingResponseBody), y compris pour les erreurs
+    private MvcResult export(UUID pid, ResultMatcher expected, String... params) throws Exception {
+        var req = get("/api/projects/{pid}/tasks/export", pid);
+        for (int i = 0; i < params.length; i += 2) req = req.param(params[i], params[i + 1]);
+        MvcResult started = mockMvc.perform(req).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(expected).andReturn();
+    }
+
+    @Test
+    @Order(2)
+    void ndjson_tasks_oneObjectPerLine() throws Exception {
+        MvcResult r = export();
+        assertTrue(r.getResponse().getContentType().startsWith("application/x-ndjson"));
+        assertTrue(r.getResponse().getHeader("Content-Disposition").contains("tasks-" + projectId + ".ndjson"));
+
+        String[] lines = r.getResponse().getContentAsString().split("\n");
+        assertEquals(30, lines.length);
+        JsonNode first = MAPPER.readTree(lines[0]);
+        assertEquals(firstTaskId.toString(), first.get("id").asText());
+        assertEquals("Tâche 0", first.get("title").asText());
+        assertEquals("export-owner@example.com", first.get("assigneeEmail").asText());
+        assertTrue(first.get("createdAt").isTextual(), "dates ISO, pas de timestamp numérique");
+    }
+
+    @Test
+    @Order(3)
+    void csv_tasks_headerAndEscaping() throws Exception {
+        MvcResult r = export("format", "csv");
+        assertTrue(r.getResponse().getContentType().startsWith("text/csv"));
+        String body = r.getResponse().getContentAsString();
+
+        assertTrue(body.startsWith(TaskExportController.TASK_HEADER + "\n"));
+        assertTrue(body.contains("\"virgule, \"\"guillemets\"\"\net retour\""));
+        // en-tête + 30 lignes, dont une sur deux lignes physiques (retour à la ligne échappé)
+        assertEquals(32, body.split("\n").length);
+    }
+
+    @Test
+    @Order(4)
+    void history_ndjsonAndCsv() throws Exception {
+        String[] lines = export("dataset", "history").getResponse().getContentAsString().split("\n");
+        assertEquals(30, lines.length);
+        assertTrue(MAPPER.readTree(lines[0]).get("changeLog").asText().startsWith("CREATED"));
+
+        String csv = export("dataset", "history", "format", "CSV").getResponse().getContentAsString();
+        assertTrue(csv.startsWith(TaskExportController.HISTORY_HEADER + "\n"));
+        assertEquals(31, csv.split("\n").length);
+    }
+
+    @Test
+    @Order(5)
+    void streams_withoutLoadingEntities() throws Exception {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        export("dataset", "tasks");
+        export("dataset", "history");
+
+        assertEquals(0, stats.getEntityLoadCount(), "projection DTO : rien dans le contexte de persistance");
+    }
+
+    @Test
+    @Order(6)
+    void invalidParams_orUnknownProject() throws Exception {
+        JsonNode format = MAPPER.readTree(export(projectId, status().isBadRequest(), "format", "xml")
+                .getResponse().getContentAsString());
+        assertEquals("Invalid format", format.get("error").asText());
+
+        JsonNode dataset = MAPPER.readTree(export(projectId, status().isBadRequest(), "dataset", "users")
+                .getResponse().getContentAsString());
+        assertEquals("Invalid dataset", dataset.get("error").asText());
+
+        JsonNode unknown = MAPPER.readTree(export(UUID.randomUUID(), status().isNotFound())
+                .getResponse().getContentAsString());
+        assertEquals("Project not found", unknown.get("error").asText());
+    }
+
+    @Test
+    @Order(7)
+    void csvEscaping_unit() {
+        assertEquals("a,,\"b,c\",\"d\"\"e\"", TaskExportController.csv("a", null, "b,c", "d\"e"));
+    }
+}
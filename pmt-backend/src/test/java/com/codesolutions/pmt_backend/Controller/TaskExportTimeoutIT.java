@@ -0,0 +1,83 @@
+package com.codesolutions.pmt_backend.Controller;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import com.codesolutions.pmt_backend.Entity.Project;
+import com.codesolutions.pmt_backend.Entity.Task;
+import com.codesolutions.pmt_backend.Entity.User;
+import com.codesolutions.pmt_backend.Repository.ProjectRepository;
+import com.codesolutions.pmt_backend.Repository.TaskRepository;
+import com.codesolutions.pmt_backend.Repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * IT pour TaskExportController sur un vrai conteneur : un export plus long que le délai asynchrone
+ * par défaut (ici réduit à 100 ms) va jusqu'au bout, sous app.export.timeout-ms.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.mvc.async.request-timeout=100", "app.export.timeout-ms=30000"})
+public class TaskExportTimeoutIT {
+
+    private static final int TASKS = 20;
+
+    @Autowired
+    private TestRestTemplate http;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @SpyBean
+    private ObjectMapper mapper; // sérialise chaque ligne de l'export NDJSON
+
+    @Test
+    void slowExport_outlivesTheDefaultAsyncTimeout() throws Exception {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        User owner = new User();
+        owner.setUsername("slow-export-" + tag);
+        owner.setEmail("slow-export-" + tag + "@example.com");
+        owner.setPassword("pwd");
+        owner = userRepo.save(owner);
+        Project p = new Project();
+        p.setName("Export lent");
+        p.setOwner(owner);
+        p.setStartDate(LocalDate.now());
+        p = projectRepo.save(p);
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task();
+            t.setProject(p);
+            t.setTitle("Lente " + i);
+            taskRepo.save(t);
+        }
+
+        // 100 ms par ligne : ~2 s d'écriture, bien au-delà des 100 ms par défaut (Tomcat vérifie chaque seconde)
+        doAnswer(inv -> {
+            Thread.sleep(100);
+            return inv.callRealMethod();
+        }).when(mapper).writeValueAsString(any(TaskDTO.class));
+
+        ResponseEntity<String> resp = http.getForEntity("/api/projects/{pid}/tasks/export", String.class, p.getId());
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertNotNull(resp.getBody());
+        assertEquals(TASKS, resp.getBody().lines().count());
+    }
+}
@@ -208,4 +208,40 @@ public class TaskHistoryControllerIT {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
     }
+
+    @Test
+    @Order(7)
+    void getAll_withParams_returnsCursorPageOfDtos() throws Exception {
+        LocalDateTime base = LocalDateTime.now().minusDays(1).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            TaskHistory h = new TaskHistory();
+            h.setTask(taskRepository.findById(taskId).orElseThrow());
+            h.setChangedBy(userRepository.findById(changerId).orElseThrow());
+            h.setChangeLog("UPDATED: page " + i);
+            h.setChangedAt(base.plusMinutes(i));
+            historyRepository.save(h);
+        }
+
+        String first = mockMvc.perform(get("/api/task-history")
+                        .param("taskId", taskId.toString()).param("changedBy", changerId.toString())
+                        .param("from", base.toLocalDate().toString()).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].changeLog").value("CREATED")) // POST de l'ordre 2, le plus récent
+                .andExpect(jsonPath("$.items[1].changeLog").value("UPDATED: page 2"))
+                .andExpect(jsonPath("$.items[1].changedByEmail").value(changerEmail))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/task-history")
+                        .param("taskId", taskId.toString()).param("changedBy", changerId.toString())
+                        .param("limit", "2").param("after", MAPPER.readTree(first).get("nextCursor").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].changeLog", contains("UPDATED: page 1", "UPDATED: page 0")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/task-history").param("from", "hier"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid filter"));
+    }
 }
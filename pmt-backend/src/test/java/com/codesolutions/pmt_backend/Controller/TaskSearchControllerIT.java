@@ -0,0 +1,211 @@
+package com.codesolutions.pmt_backend.Controller;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import com.codesolutions.pmt_backend.Entity.*;
+import com.codesolutions.pmt_backend.Repository.ProjectRepository;
+import com.codesolutions.pmt_backend.Repository.TaskRepository;
+import com.codesolutions.pmt_backend.Repository.UserRepository;
+import com.codesolutions.pmt_backend.Service.TaskChangedEvent;
+import com.codesolutions.pmt_backend.Service.TaskSearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * IT pour TaskSearchController / TaskSearchIndex :
+ * - correspondance exacte, préfixe, approchée, sans accents, tous les mots requis
+ * - index tenu à jour par les écritures de TaskController (création, modification, suppression, import)
+ * - reconstruction depuis la base (écritures hors TaskController)
+ * - paramètres invalides et projet inconnu
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TaskSearchControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private TaskSearchIndex index;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static UUID projectId;
+    private static UUID otherProjectId;
+    private static UUID migrationTaskId;
+
+    private Project seedProject(String tag) {
+        User owner = new User();
+        owner.setUsername("search-" + tag);
+        owner.setEmail("search-" + tag + "@example.com");
+        owner.setPassword("pwd");
+        owner = userRepo.save(owner);
+
+        Project p = new Project();
+        p.setName("Recherche " + tag);
+        p.setOwner(owner);
+        p.setStartDate(LocalDate.now());
+        return projectRepo.save(p);
+    }
+
+    private UUID create(UUID pid, String title, String description) throws Exception {
+        String body = MAPPER.writeValueAsString(new java.util.HashMap<>(java.util.Map.of(
+                "title", title, "description", description, "priority", "MEDIUM")));
+        String resp = mockMvc.perform(post("/api/projects/{pid}/tasks", pid)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return UUID.fromString(MAPPER.readTree(resp).get("id").asText());
+    }
+
+    private List<String> titles(UUID pid, String q) throws Exception {
+        String resp = mockMvc.perform(get("/api/projects/{pid}/tasks/search", pid).param("q", q))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> out = new ArrayList<>();
+        for (JsonNode t : MAPPER.readTree(resp)) out.add(t.get("title").asText());
+        return out;
+    }
+
+    @Test
+    @Order(1)
+    void seed() throws Exception {
+        projectId = seedProject("main").getId();
+        otherProjectId = seedProject("other").getId();
+
+        migrationTaskId = create(projectId, "Migration de la base", "Passer les identifiants en BINARY(16)");
+        create(projectId, "Écran de connexion", "Formulaire Angular et gestion des erreurs");
+        create(projectId, "Documentation", "Décrire la migration des données pour l'équipe");
+        create(otherProjectId, "Migration du serveur", "Autre projet");
+    }
+
+    @Test
+    @Order(2)
+    void exactPrefixFuzzyAndAccents() throws Exception {
+        // titre avant description
+        assertEquals(List.of("Migration de la base", "Documentation"), titles(projectId, "migration"));
+        // préfixe
+        assertEquals(List.of("Documentation"), titles(projectId, "docu"));
+        // une faute de frappe
+        assertEquals(List.of("Écran de connexion"), titles(projectId, "conexion"));
+        // accents et casse ignorés, dans les deux sens
+        assertEquals(List.of("Écran de connexion"), titles(projectId, "ECRAN"));
+        assertEquals(List.of("Documentation"), titles(projectId, "decrire"));
+        // tous les mots requis
+        assertEquals(List.of("Migration de la base"), titles(projectId, "migration binary"));
+        assertEquals(List.of(), titles(projectId, "migration angular"));
+        // ponctuation seule : aucun mot, aucun résultat
+        assertEquals(List.of(), titles(projectId, "!!!"));
+        // projet isolé
+        assertEquals(List.of("Migration du serveur"), titles(otherProjectId, "migration"));
+    }
+
+    @Test
+    @Order(3)
+    void followsTaskControllerWrites() throws Exception {
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", projectId, migrationTaskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Bascule MySQL\"}"))
+                .andExpect(status().isOk());
+        assertEquals(List.of("Bascule MySQL"), titles(projectId, "bascule"));
+        assertEquals(List.of("Documentation"), titles(projectId, "migration"));
+
+        mockMvc.perform(delete("/api/projects/{pid}/tasks/{tid}", projectId, migrationTaskId))
+                .andExpect(status().isNoContent());
+        assertEquals(List.of(), titles(projectId, "bascule"));
+
+        // import en masse : le projet est réindexé après commit
+        mockMvc.perform(post("/api/projects/{pid}/tasks/bulk", projectId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\": \"Tableau kanban\"}, {\"title\": \"Export kanban\"}]"))
+                .andExpect(status().isOk());
+        assertEquals(2, titles(projectId, "kanban").size());
+    }
+
+    @Test
+    @Order(4)
+    void rebuild_picksUpWritesOutsideTaskController() throws Exception {
+        Task t = new Task();
+        t.setProject(projectRepo.findById(projectId).orElseThrow());
+        t.setTitle("Sauvegarde nocturne");
+        t.setStatus(TaskStatusEnum.TODO);
+        t.setPriority(TaskPriorityEnum.LOW);
+        taskRepo.save(t);
+        assertEquals(List.of(), titles(projectId, "sauvegarde"));
+
+        index.rebuild();
+        assertEquals(List.of("Sauvegarde nocturne"), titles(projectId, "sauvegarde"));
+        assertEquals(List.of("Écran de connexion"), titles(projectId, "ecran"));
+        assertTrue(index.size() >= 6);
+    }
+
+    @Test
+    @Order(5)
+    void limit_etag_andErrors() throws Exception {
+        mockMvc.perform(get("/api/projects/{pid}/tasks/search", projectId).param("q", "kanban").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        String etag = mockMvc.perform(get("/api/projects/{pid}/tasks/search", projectId).param("q", "kanban"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/projects/{pid}/tasks/search", projectId).param("q", "kanban")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/projects/{pid}/tasks/search", projectId))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid query"));
+        mockMvc.perform(get("/api/projects/{pid}/tasks/search", projectId).param("q", "x").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid limit"));
+        mockMvc.perform(get("/api/projects/{pid}/tasks/search", UUID.randomUUID()).param("q", "x"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(6)
+    void outOfOrderEvents_doNotRestoreAnOlderState() throws Exception {
+        UUID tid = create(projectId, "Ancien intitulé", "v0");
+        TaskDTO v0 = taskRepo.findDtoById(tid).orElseThrow();
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", projectId, tid)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Nouvel intitulé\"}"))
+                .andExpect(status().isOk());
+
+        // événement de l'écriture précédente, traité après celui de la suivante
+        index.onTaskChanged(TaskChangedEvent.updated(v0));
+        assertEquals(List.of(), titles(projectId, "ancien"));
+        assertEquals(List.of("Nouvel intitulé"), titles(projectId, "nouvel"));
+
+        // ... ou après la suppression
+        mockMvc.perform(delete("/api/projects/{pid}/tasks/{tid}", projectId, tid))
+                .andExpect(status().isNoContent());
+        index.onTaskChanged(TaskChangedEvent.updated(v0));
+        assertEquals(List.of(), titles(projectId, "ancien"));
+    }
+}
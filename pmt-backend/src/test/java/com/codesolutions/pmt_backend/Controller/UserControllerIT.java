@@ -2,15 +2,25 @@ package com.codesolutions.pmt_backend.Controller;
 
 import com.codesolutions.pmt_backend.Entity.User;
 import com.codesolutions.pmt_backend.Repository.UserRepository;
+import com.codesolutions.pmt_backend.Service.UserDirectory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.net.URI;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
@@ -29,6 +39,18 @@ public class UserControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDirectory directory;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private static UUID createdUserId;
@@ -101,4 +123,166 @@ public class UserControllerIT {
                 .andExpect(jsonPath("$.status", is(404)))
                 .andExpect(jsonPath("$.message", containsStringIgnoringCase("non trouvé")));
     }
+
+    @Test
+    @Order(5)
+    void search_byUsernameOrEmailPrefix_slimDto_withoutSql() throws Exception {
+        User zoe = new User();
+        zoe.setUsername("Zoé Martin");
+        zoe.setEmail("zmartin@example.com");
+        zoe.setPassword("secret");
+        zoe = userRepository.save(zoe);
+        User zorro = new User();
+        zorro.setUsername("zorro");
+        zorro.setEmail("zorro@example.com");
+        zorro.setPassword("secret");
+        userRepository.save(zorro);
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        // casse et accents ignorés ; correspondances sur le nom, dans l'ordre alphabétique
+        mockMvc.perform(get("/api/users/search").param("prefix", "ZO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].username").value("Zoé Martin"))
+                .andExpect(jsonPath("$[0].id").value(zoe.getId().toString()))
+                .andExpect(jsonPath("$[0].password").doesNotExist())
+                .andExpect(jsonPath("$[1].username").value("zorro"));
+        mockMvc.perform(get("/api/users/search").param("prefix", "zoe m"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        // par e-mail
+        mockMvc.perform(get("/api/users/search").param("prefix", "zmart"))
+                .andExpect(jsonPath("$[*].email", contains("zmartin@example.com")));
+        mockMvc.perform(get("/api/users/search").param("prefix", "zo").param("limit", "1"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        assertEquals(0, stats.getPrepareStatementCount(), "servi depuis la mémoire");
+    }
+
+    @Test
+    @Order(6)
+    void search_followsWrites_afterCommitOnly() throws Exception {
+        User u = userRepository.findByEmail("zorro@example.com").orElseThrow();
+        u.setUsername("zapata");
+        userRepository.save(u);
+        // l'ancien nom n'est plus indexé ; l'e-mail, inchangé, l'est toujours
+        mockMvc.perform(get("/api/users/search").param("prefix", "zor"))
+                .andExpect(jsonPath("$[*].username", contains("zapata")));
+        mockMvc.perform(get("/api/users/search").param("prefix", "zap"))
+                .andExpect(jsonPath("$[0].email").value("zorro@example.com"));
+
+        // transaction annulée : rien dans l'annuaire
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.executeWithoutResult(status -> {
+            User ghost = new User();
+            ghost.setUsername("fantome");
+            ghost.setEmail("fantome@example.com");
+            ghost.setPassword("x");
+            userRepository.saveAndFlush(ghost);
+            status.setRollbackOnly();
+        });
+        mockMvc.perform(get("/api/users/search").param("prefix", "fantome"))
+                .andExpect(jsonPath("$", empty()));
+
+        userRepository.delete(u);
+        mockMvc.perform(get("/api/users/search").param("prefix", "zap"))
+                .andExpect(jsonPath("$", empty()));
+    }
+
+    @Test
+    @Order(7)
+    void reload_restoresMissedWrites() throws Exception {
+        User zoe = userRepository.findByEmail("zmartin@example.com").orElseThrow();
+        directory.remove(zoe.getId()); // écriture manquée (autre instance, SQL manuel)
+        mockMvc.perform(get("/api/users/search").param("prefix", "zmart"))
+                .andExpect(jsonPath("$", empty()));
+
+        directory.reload();
+        mockMvc.perform(get("/api/users/search").param("prefix", "zmart"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        assertEquals(userRepository.count(), directory.size());
+    }
+
+    @Test
+    @Order(8)
+    void search_invalidParams_return400() throws Exception {
+        mockMvc.perform(get("/api/users/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid prefix"));
+        mockMvc.perform(get("/api/users/search").param("prefix", "a").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid limit"));
+    }
+
+    @Test
+    @Order(9)
+    void getAllUsers_paginated_slimDto_coversEveryUserOnce() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            User u = new User();
+            u.setUsername("paged-user-" + i);
+            u.setEmail("paged-user-" + i + "@example.com");
+            u.setPassword("pwd");
+            userRepository.save(u);
+        }
+        java.util.Set<String> ids = new java.util.HashSet<>();
+        String after = null;
+        int pages = 0;
+        do {
+            var req = get("/api/users").param("limit", "2");
+            if (after != null) req = req.param("after", after);
+            JsonNode page = MAPPER.readTree(mockMvc.perform(req)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            for (JsonNode u : page.get("items")) {
+                assertFalse(u.has("password"));
+                assertTrue(ids.add(u.get("id").asText()), "pas de doublon entre pages");
+            }
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (after != null);
+        assertEquals(userRepository.count(), ids.size());
+        assertTrue(pages > 1);
+
+        mockMvc.perform(get("/api/users").param("after", "pas-un-curseur"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid pagination"));
+    }
+
+    @Test
+    @Order(10)
+    void getAllUsers_withoutLimit_isCappedSlimDto_withLinkToNextPage() throws Exception {
+        ReflectionTestUtils.setField(userController, "unpagedMax", 2);
+        try {
+            java.util.Set<String> ids = new java.util.HashSet<>();
+            // paramètres dans l'URL : le Link est construit à partir de la query string de la requête
+            MvcResult capped = mockMvc.perform(get("/api/users?"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].password").doesNotExist())
+                    .andReturn();
+            MAPPER.readTree(capped.getResponse().getContentAsString()).forEach(u -> ids.add(u.get("id").asText()));
+            String link = capped.getResponse().getHeader(HttpHeaders.LINK);
+            assertNotNull(link);
+            assertTrue(link.endsWith(">; rel=\"next\""), link);
+
+            // la suite reprend après la dernière ligne du tableau, sans doublon
+            URI next = URI.create(link.substring(1, link.indexOf('>')));
+            do {
+                JsonNode page = MAPPER.readTree(mockMvc.perform(get(next))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString());
+                page.get("items").forEach(u -> assertTrue(ids.add(u.get("id").asText()), "pas de doublon"));
+                next = page.get("nextCursor").isNull() ? null
+                        : URI.create("/api/users?limit=2&after=" + page.get("nextCursor").asText());
+            } while (next != null);
+            assertEquals(userRepository.count(), ids.size());
+        } finally {
+            ReflectionTestUtils.setField(userController, "unpagedMax", 1000);
+        }
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
 }
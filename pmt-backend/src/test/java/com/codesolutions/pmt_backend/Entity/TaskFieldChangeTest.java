@@ -0,0 +1,77 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskFieldChangeTest {
+
+    @Test
+    void text_keepsOnlyTheModifiedMiddle() {
+        String before = "Intro commune. " + "x".repeat(500) + " ancienne phrase. Fin commune.";
+        String after = "Intro commune. " + "x".repeat(500) + " nouvelle phrase. Fin commune.";
+
+        TaskFieldChange c = TaskFieldChange.text("description", before, after);
+
+        // le "e" final est commun aux deux mots : il reste dans le suffixe
+        assertEquals("ancienn", c.from());
+        assertEquals("nouvell", c.to());
+        assertEquals(before.indexOf("ancienne"), c.prefix());
+        assertEquals("e phrase. Fin commune.".length(), c.suffix());
+    }
+
+    @Test
+    void text_withoutCommonPart_isStoredInFull() {
+        TaskFieldChange c = TaskFieldChange.text("description", "abc", "xyz");
+        assertEquals(new TaskFieldChange("description", "abc", "xyz", null, null), c);
+
+        TaskFieldChange fromNull = TaskFieldChange.text("description", null, "nouveau");
+        assertNull(fromNull.prefix());
+        assertEquals("nouveau", fromNull.to());
+    }
+
+    @Test
+    void text_appendAndDelete() {
+        TaskFieldChange append = TaskFieldChange.text("description", "début", "début et suite");
+        assertEquals("", append.from());
+        assertEquals(" et suite", append.to());
+
+        TaskFieldChange delete = TaskFieldChange.text("description", "aaa-bbb-ccc", "aaa-ccc");
+        assertEquals("bbb-", delete.from());
+        assertEquals("", delete.to());
+    }
+
+    @Test
+    void text_neverSplitsASurrogatePair() {
+        // 😀 et 😃 partagent le même caractère de tête UTF-16
+        TaskFieldChange c = TaskFieldChange.text("description", "a😀b", "a😃b");
+        assertEquals("😀", c.from());
+        assertEquals("😃", c.to());
+    }
+
+    @Test
+    void render_sameTextAsTheLegacyChangeLog() {
+        assertEquals("CREATED: title='T'; status=TODO; assigneeId=null", TaskFieldChange.render("CREATED", List.of(
+                TaskFieldChange.of("title", null, "T"),
+                TaskFieldChange.of("status", null, "TODO"),
+                TaskFieldChange.of("assigneeId", null, null))));
+
+        assertEquals("UPDATED: title: 'a' -> 'b'; deadline: null -> 2025-01-01; description: '' -> 'd'",
+                TaskFieldChange.render("UPDATED", List.of(
+                        TaskFieldChange.of("title", "a", "b"),
+                        TaskFieldChange.of("deadline", null, "2025-01-01"),
+                        TaskFieldChange.text("description", null, "d"))));
+    }
+
+    @Test
+    void render_textDiffWithEllipsis_andLegacyRowsAsIs() {
+        String rendered = TaskFieldChange.render("UPDATED",
+                List.of(TaskFieldChange.text("description", "la tâche rouge", "la tâche verte")));
+        assertEquals("UPDATED: description: '…roug…' -> '…vert…'", rendered);
+
+        assertEquals("UPDATED: status: TODO -> DONE", TaskFieldChange.render("UPDATED: status: TODO -> DONE", null));
+        assertEquals("CREATED", TaskFieldChange.render("CREATED", List.of()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.codesolutions.pmt_backend.Entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7GeneratorTest {
+
+    @Test
+    void next_hasVersion7_andRfcVariant() {
+        UUID id = UuidV7Generator.next();
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void next_embedsCurrentUnixMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        long ts = id.getMostSignificantBits() >>> 16;
+        // le compteur peut avoir avancé le timestamp de quelques ms en cas de rafale
+        assertTrue(ts >= before && ts <= after + 5, "timestamp=" + ts);
+    }
+
+    @Test
+    void next_isStrictlyIncreasing_evenWithinTheSameMillisecond() {
+        UUID prev = UuidV7Generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            UUID cur = UuidV7Generator.next();
+            assertTrue(Long.compareUnsigned(cur.getMostSignificantBits(), prev.getMostSignificantBits()) > 0,
+                    prev + " puis " + cur);
+            prev = cur;
+        }
+    }
+}
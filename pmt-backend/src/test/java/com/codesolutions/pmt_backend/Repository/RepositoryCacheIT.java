@@ -0,0 +1,150 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.Entity.Project;
+import com.codesolutions.pmt_backend.Entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * IT du cache Caffeine de ProjectRepository / UserRepository :
+ * - existence par id / id par e-mail servis sans SELECT après la première lecture
+ * - aucune entité en cache : une instance modifiée sans save() ne fuit pas vers les lectures suivantes
+ * - éviction sur delete / save, y compris quand l'écriture échoue
+ * - compteurs hit/miss exposés par actuator
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RepositoryCacheIT {
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private MeterRegistry meters;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Statistics stats;
+    private User owner;
+    private Project project;
+
+    @BeforeEach
+    void seed() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        owner = new User();
+        owner.setUsername("cache-" + tag);
+        owner.setEmail("cache-" + tag + "@example.com");
+        owner.setPassword("pwd");
+        owner = userRepo.save(owner);
+
+        project = new Project();
+        project.setName("Cache " + tag);
+        project.setOwner(owner);
+        project.setStartDate(LocalDate.now());
+        project = projectRepo.save(project);
+
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+    }
+
+    @Test
+    void existsById_hitsDatabaseOnce_thenEvictedOnDelete() {
+        assertTrue(projectRepo.existsById(project.getId()));
+        assertTrue(projectRepo.existsById(project.getId()));
+        assertTrue(projectRepo.existsById(project.getId()));
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        projectRepo.deleteById(project.getId());
+        assertFalse(projectRepo.existsById(project.getId()));
+    }
+
+    @Test
+    void mutatedInstance_doesNotLeakIntoLaterReads() {
+        Project p = projectRepo.findById(project.getId()).orElseThrow();
+        String name = p.getName();
+        p.setName("Modifié sans save");
+
+        assertEquals(name, projectRepo.findById(project.getId()).orElseThrow().getName());
+        assertTrue(projectRepo.existsById(project.getId()));
+    }
+
+    @Test
+    void users_idByEmail_caseInsensitiveKey_evictedOnWrite() {
+        assertTrue(userRepo.existsById(owner.getId()));
+        assertEquals(owner.getId(), userRepo.findIdByEmail(owner.getEmail()).orElseThrow());
+        assertTrue(userRepo.existsById(owner.getId()));
+        assertEquals(owner.getId(), userRepo.findIdByEmail(" " + owner.getEmail().toUpperCase() + " ").orElseThrow());
+        assertEquals(2, stats.getPrepareStatementCount());
+
+        String oldEmail = owner.getEmail();
+        User u = userRepo.findById(owner.getId()).orElseThrow();
+        u.setEmail("renamed-" + oldEmail);
+        userRepo.save(u);
+
+        assertTrue(userRepo.findIdByEmail(oldEmail).isEmpty(), "ancien e-mail plus résolu");
+        assertEquals(u.getId(), userRepo.findIdByEmail("renamed-" + oldEmail).orElseThrow());
+    }
+
+    @Test
+    void failedSave_stillEvicts() {
+        userRepo.findIdByEmail(owner.getEmail());
+
+        User duplicate = new User();
+        duplicate.setUsername(owner.getUsername());
+        duplicate.setEmail(owner.getEmail());
+        duplicate.setPassword("pwd");
+        assertThrows(DataIntegrityViolationException.class, () -> userRepo.save(duplicate));
+
+        stats.clear();
+        assertEquals(owner.getId(), userRepo.findIdByEmail(owner.getEmail()).orElseThrow());
+        assertEquals(1, stats.getPrepareStatementCount(), "entrée vidée avant l'écriture : relue");
+    }
+
+    @Test
+    void unknownIds_notCached() {
+        UUID unknown = UUID.randomUUID();
+        assertFalse(projectRepo.existsById(unknown));
+        assertFalse(projectRepo.existsById(unknown));
+        assertEquals(2, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void boardRefresh_noProjectSelect_andMetricsExposed() throws Exception {
+        projectRepo.existsById(project.getId());
+        stats.clear();
+
+        mockMvc.perform(get("/api/projects/{pid}/tasks", project.getId())).andExpect(status().isOk());
+        assertEquals(2, stats.getPrepareStatementCount(), "version du projet (ETag) + page de tâches");
+
+        double hits = meters.get("cache.gets").tag("cache", "projects").tag("result", "hit")
+                .functionCounter().count();
+        assertTrue(hits >= 1);
+        mockMvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:projects"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("cache.gets"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.codesolutions.pmt_backend.Repository;
+
+import com.codesolutions.pmt_backend.DTO.ProjectDTO;
+import com.codesolutions.pmt_backend.Entity.Project;
+import com.codesolutions.pmt_backend.Entity.ProjectMember;
+import com.codesolutions.pmt_backend.Entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IT du cache de second niveau Hibernate (profil l2cache) :
+ * - entités Project / User / ProjectMember relues depuis le cache, sans SELECT
+ * - cache de requêtes pour findAllAsDto / findDtoById
+ * - invalidation sur écriture
+ * - écritures SQL natives des tâches (versions, compteurs) sans effet sur les autres régions
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "l2cache"})
+public class SecondLevelCacheIT {
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private ProjectMemberRepository memberRepo;
+
+    @Autowired
+    private ProjectVersionRepository versionRepo;
+
+    @Autowired
+    private ProjectTaskCounterRepository counterRepo;
+
+    private Statistics stats;
+    private User owner;
+    private Project project;
+    private ProjectMember member;
+
+    @BeforeEach
+    void seed() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        owner = new User();
+        owner.setUsername("l2-" + tag);
+        owner.setEmail("l2-" + tag + "@example.com");
+        owner.setPassword("pwd");
+        owner = userRepo.save(owner);
+
+        project = new Project();
+        project.setName("L2 " + tag);
+        project.setOwner(owner);
+        project.setStartDate(LocalDate.now());
+        project = projectRepo.save(project);
+
+        member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(owner);
+        member = memberRepo.save(member);
+
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+    }
+
+    // Nouveau contexte de persistance à chaque appel : seul le cache de second niveau peut éviter le SELECT
+    private <T> T inNewSession(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void entities_readFromSecondLevelCache() {
+        // Les save() ont alimenté le cache (READ_WRITE) : aucune lecture en base
+        ProjectMember m = inNewSession(em -> em.find(ProjectMember.class, member.getId()));
+        assertEquals(owner.getEmail(), m.getUser().getEmail());
+        assertEquals(project.getName(), m.getProject().getName());
+        inNewSession(em -> em.find(User.class, owner.getId()));
+
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertTrue(stats.getSecondLevelCacheHitCount() >= 4, "membre, projet, propriétaire, utilisateur");
+        assertTrue(stats.getDomainDataRegionStatistics("pmt-project-members").getHitCount() >= 1);
+    }
+
+    @Test
+    void entityWrite_updatesCache() {
+        inNewSession(em -> {
+            em.getTransaction().begin();
+            em.find(Project.class, project.getId()).setName("Renommé");
+            em.getTransaction().commit();
+            return null;
+        });
+        stats.clear();
+
+        assertEquals("Renommé", inNewSession(em -> em.find(Project.class, project.getId())).getName());
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void taskWriteUpserts_doNotEvictEntityRegions() {
+        // Upserts natifs d'une écriture de tâche (TaskController / ProjectTaskCounters)
+        versionRepo.bump(project.getId(), LocalDateTime.now());
+        counterRepo.add(project.getId(), "STATUS", "TODO", 1);
+        stats.clear();
+
+        inNewSession(em -> em.find(Project.class, project.getId()));
+        inNewSession(em -> em.find(User.class, owner.getId()));
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertTrue(stats.getDomainDataRegionStatistics("pmt-projects").getHitCount() >= 1);
+        assertTrue(stats.getDomainDataRegionStatistics("pmt-users").getHitCount() >= 1);
+    }
+
+    @Test
+    void dtoQueries_useQueryCache_andAreInvalidatedOnWrite() {
+        projectRepo.findDtoById(project.getId());
+        projectRepo.findAllAsDto();
+        long queries = stats.getPrepareStatementCount();
+
+        ProjectDTO cached = projectRepo.findDtoById(project.getId());
+        projectRepo.findAllAsDto();
+        assertEquals(project.getName(), cached.getName());
+        assertEquals(queries, stats.getPrepareStatementCount(), "servies par le cache de requêtes");
+        assertEquals(2, stats.getQueryCacheHitCount());
+
+        Project p = projectRepo.findById(project.getId()).orElseThrow();
+        p.setDescription("modifiée");
+        projectRepo.save(p);
+
+        assertEquals("modifiée", projectRepo.findDtoById(project.getId()).getDescription());
+        assertTrue(projectRepo.findAllAsDto().stream().anyMatch(d -> "modifiée".equals(d.getDescription())));
+        assertEquals(2, stats.getQueryCacheHitCount(), "table projects modifiée : requêtes réexécutées");
+    }
+}
@@ -60,6 +60,8 @@ public class TaskHistoryRepositoryTest {
 
         TaskHistory saved = taskHistoryRepository.save(th);
         assertNotNull(saved.getId());
+        assertEquals(7, saved.getId().version()); // UUID v7 ordonné dans le temps
+        assertTrue(saved.getId().compareTo(task.getId()) > 0);
 
         Optional<TaskHistory> found = taskHistoryRepository.findById(saved.getId());
         assertTrue(found.isPresent());
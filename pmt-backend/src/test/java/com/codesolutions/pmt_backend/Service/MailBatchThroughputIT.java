@@ -0,0 +1,105 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Envoi réel vers un serveur SMTP local (GreenMail) : compare un message par session
+ * et l'envoi par lots de MailService.deliverBatch, et logge le débit en messages/s.
+ * Pas d'assertion sur les temps (machines de CI trop variables), seulement sur la livraison.
+ */
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class MailBatchThroughputIT {
+    private static final Logger log = LoggerFactory.getLogger(MailBatchThroughputIT.class);
+
+    private static final int MESSAGES = 100;
+    private static final int BATCH_SIZE = 25;
+
+    private static final GreenMail smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+
+    @DynamicPropertySource
+    static void smtpProperties(DynamicPropertyRegistry registry) {
+        if (!smtp.isRunning()) smtp.start();
+        registry.add("spring.mail.host", () -> smtp.getSmtp().getBindTo());
+        registry.add("spring.mail.port", () -> smtp.getSmtp().getPort());
+    }
+
+    @AfterAll
+    static void stopSmtp() {
+        smtp.stop();
+    }
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private JavaMailSender mailSender; // vrai JavaMailSenderImpl branché sur GreenMail
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp.purgeEmailFromAllMailboxes();
+        ReflectionTestUtils.setField(mailService, "notificationsEnabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(mailService, "notificationsEnabled", false);
+    }
+
+    private SimpleMailMessage[] messages(String tag) {
+        return IntStream.range(0, MESSAGES)
+                .mapToObj(i -> mailService.compose("user" + i + "@example.com", tag + " " + i, "Corps " + i))
+                .toArray(SimpleMailMessage[]::new);
+    }
+
+    private static double perSecond(long nanos) {
+        return MESSAGES / (nanos / 1_000_000_000.0);
+    }
+
+    @Test
+    @Order(1)
+    void oneSessionPerMessage_baseline() {
+        SimpleMailMessage[] msgs = messages("unitaire");
+
+        long start = System.nanoTime();
+        for (SimpleMailMessage m : msgs) mailSender.send(m);
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(smtp.waitForIncomingEmail(10_000, MESSAGES));
+        log.info("[THROUGHPUT] 1 session/message : {} messages, {} msg/s", MESSAGES, String.format("%.0f", perSecond(elapsed)));
+    }
+
+    @Test
+    @Order(2)
+    void batchedSessions_deliverEverything() {
+        SimpleMailMessage[] msgs = messages("lot");
+
+        long start = System.nanoTime();
+        for (int from = 0; from < msgs.length; from += BATCH_SIZE) {
+            SimpleMailMessage[] batch = Arrays.copyOfRange(msgs, from, Math.min(from + BATCH_SIZE, msgs.length));
+            mailService.deliverBatch(batch);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(smtp.waitForIncomingEmail(10_000, MESSAGES));
+        assertEquals(MESSAGES, smtp.getReceivedMessages().length);
+        assertEquals(1, smtp.getReceivedMessagesForDomain("user7@example.com").length);
+        log.info("[THROUGHPUT] lots de {} : {} messages, {} msg/s", BATCH_SIZE, MESSAGES, String.format("%.0f", perSecond(elapsed)));
+    }
+}
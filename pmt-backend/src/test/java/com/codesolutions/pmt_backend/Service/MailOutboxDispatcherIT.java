@@ -0,0 +1,344 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.Entity.MailOutbox;
+import com.codesolutions.pmt_backend.Entity.MailOutboxStatusEnum;
+import com.codesolutions.pmt_backend.Entity.Project;
+import com.codesolutions.pmt_backend.Entity.Task;
+import com.codesolutions.pmt_backend.Entity.User;
+import com.codesolutions.pmt_backend.Repository.MailOutboxRepository;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Pas de @Transactional : les envois se font sur les threads du dispatcher,
+// qui doivent voir les lignes commitées.
+@SpringBootTest
+public class MailOutboxDispatcherIT {
+
+    @TestConfiguration
+    static class MailTestConfig {
+        @Bean
+        public JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+    }
+
+    @Autowired
+    private MailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private MailOutboxRepository outbox;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        outbox.deleteAll();
+        reset(mailSender);
+        ReflectionTestUtils.setField(mailService, "notificationsEnabled", true);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "lingerMs", 0L);
+        ReflectionTestUtils.setField(mailService, "digestWindowMs", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(mailService, "notificationsEnabled", false);
+    }
+
+    /** Nombre de sessions SMTP ouvertes (appels à send) et de messages transmis. */
+    private long smtpSessions() {
+        return mockingDetails(mailSender).getInvocations().stream()
+                .filter(i -> i.getMethod().getName().equals("send")).count();
+    }
+
+    private long messagesSent() {
+        return mockingDetails(mailSender).getInvocations().stream()
+                .filter(i -> i.getMethod().getName().equals("send"))
+                .mapToLong(i -> i.getArguments().length).sum();
+    }
+
+    private void queue(int n) {
+        for (int i = 0; i < n; i++) {
+            mailService.queueTaskAssignedMail(user("u" + i + "@example.com"), task("T" + i), "Alice");
+        }
+    }
+
+    private static Task task(String title) {
+        Project p = new Project();
+        p.setId(UUID.randomUUID());
+        p.setName("PMT");
+        Task t = new Task();
+        t.setTitle(title);
+        t.setProject(p);
+        return t;
+    }
+
+    private static User user(String email) {
+        User u = new User();
+        u.setEmail(email);
+        return u;
+    }
+
+    @Test
+    void queue_writesPendingRow_withoutContactingSmtp() {
+        mailService.queueTaskAssignedMail(user("dev@example.com"), task("Outbox"), "Alice");
+
+        verifyNoInteractions(mailSender);
+        var rows = outbox.findAll();
+        assertEquals(1, rows.size());
+        MailOutbox m = rows.get(0);
+        assertEquals(MailOutboxStatusEnum.PENDING, m.getStatus());
+        assertEquals("dev@example.com", m.getRecipient());
+        assertTrue(m.getSubject().contains("Outbox"));
+        assertTrue(m.getBody().contains("Alice"));
+    }
+
+    @Test
+    void queue_isRolledBackWithCallerTransaction() {
+        tx.executeWithoutResult(status -> {
+            mailService.queueTaskAssignedMail(user("dev@example.com"), task("Annulée"), "Alice");
+            status.setRollbackOnly();
+        });
+        assertEquals(0, outbox.count());
+    }
+
+    @Test
+    void queue_ignoresInvalidRecipientOrDisabledNotifications() {
+        mailService.queueTaskAssignedMail(user("  "), task("x"), "Alice");
+        mailService.queueTaskAssignedMail(user("dev@example.com"), null, "Alice");
+        ReflectionTestUtils.setField(mailService, "notificationsEnabled", false);
+        mailService.queueTaskAssignedMail(user("dev@example.com"), task("x"), "Alice");
+        assertEquals(0, outbox.count());
+    }
+
+    @Test
+    void drain_sendsDueMessages_inOneSmtpSession_andMarksThemSent() {
+        queue(5);
+
+        assertEquals(5, dispatcher.drain());
+
+        assertEquals(1, smtpSessions(), "un seul lot pour 5 messages");
+        assertEquals(5, messagesSent());
+        assertTrue(outbox.findAll().stream().allMatch(m ->
+                m.getStatus() == MailOutboxStatusEnum.SENT && m.getSentAt() != null));
+        assertEquals(0, dispatcher.drain(), "rien ne doit être renvoyé");
+    }
+
+    @Test
+    void poll_doesNotWaitForSmtp_andSkipsBusyWorkers() throws Exception {
+        CountDownLatch smtp = new CountDownLatch(1);
+        doAnswer(inv -> {
+            smtp.await(10, TimeUnit.SECONDS); // serveur SMTP figé
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+        queue(50 * 4); // un lot complet par worker
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        try {
+            long start = System.nanoTime();
+            dispatcher.poll();
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "poll ne doit pas attendre l'envoi");
+
+            queue(1);
+            assertEquals(0, dispatcher.drain(), "tous les workers sont occupés : rien n'est réservé");
+        } finally {
+            ReflectionTestUtils.setField(dispatcher, "enabled", false);
+            smtp.countDown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (outbox.findAll().stream().filter(m -> m.getStatus() == MailOutboxStatusEnum.SENT).count() < 200) {
+            assertTrue(System.nanoTime() < deadline, "les lots en vol doivent finir après déblocage");
+            Thread.sleep(50);
+        }
+        assertEquals(1, dispatcher.drain(), "workers libérés : le message restant part");
+    }
+
+    @Test
+    void drain_splitsIntoBatchesOfMaxSize() {
+        queue(120); // batch-size 50 par défaut
+
+        assertEquals(120, dispatcher.drain());
+
+        assertEquals(3, smtpSessions());
+        assertEquals(120, messagesSent());
+        assertEquals(120, outbox.findAll().stream().filter(m -> m.getStatus() == MailOutboxStatusEnum.SENT).count());
+    }
+
+    @Test
+    void drain_lingers_whileBatchIsIncomplete() {
+        ReflectionTestUtils.setField(dispatcher, "lingerMs", 60_000L);
+        queue(1);
+
+        assertEquals(0, dispatcher.drain(), "lot incomplet et message trop récent : on attend");
+        verifyNoInteractions(mailSender);
+
+        ReflectionTestUtils.setField(dispatcher, "lingerMs", 0L);
+        assertEquals(1, dispatcher.drain());
+    }
+
+    @Test
+    void drain_partialBatchFailure_retriesOnlyRejectedMessages() {
+        doAnswer(inv -> {
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            failed.put(inv.getArgument(1), new MessagingException("550 mailbox unavailable"));
+            throw new MailSendException(failed);
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+        queue(3);
+
+        assertEquals(3, dispatcher.drain());
+
+        var rows = outbox.findAll();
+        assertEquals(2, rows.stream().filter(m -> m.getStatus() == MailOutboxStatusEnum.SENT).count());
+        MailOutbox rejected = rows.stream().filter(m -> m.getStatus() == MailOutboxStatusEnum.PENDING).findFirst().orElseThrow();
+        assertEquals(1, rejected.getAttempts());
+        assertEquals("550 mailbox unavailable", rejected.getLastError());
+    }
+
+    @Test
+    void drain_failure_reschedulesWithBackoff_thenGivesUp() {
+        doThrow(new MailSendException("SMTP down")).when(mailSender).send(any(SimpleMailMessage[].class));
+        mailService.queueTaskAssignedMail(user("dev@example.com"), task("Retry"), "Alice");
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(1, dispatcher.drain());
+        MailOutbox m = outbox.findAll().get(0);
+        assertEquals(MailOutboxStatusEnum.PENDING, m.getStatus());
+        assertEquals(1, m.getAttempts());
+        assertEquals("SMTP down", m.getLastError());
+        assertTrue(m.getNextAttemptAt().isAfter(before.plusSeconds(4)), "premier retry après le backoff initial");
+
+        // pas encore dû : rien n'est tenté
+        assertEquals(0, dispatcher.drain());
+
+        // on avance l'échéance jusqu'à épuiser les tentatives
+        for (int attempt = 2; attempt <= 3; attempt++) {
+            m = outbox.findAll().get(0);
+            m.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            outbox.save(m);
+            assertEquals(1, dispatcher.drain());
+        }
+        m = outbox.findAll().get(0);
+        assertEquals(MailOutboxStatusEnum.FAILED, m.getStatus());
+        assertEquals(3, m.getAttempts());
+        assertEquals(3, messagesSent());
+    }
+
+    @Test
+    void drain_reclaimsMessage_whenLeaseExpired() {
+        MailOutbox m = new MailOutbox("dev@example.com", "Sujet", "Corps");
+        m.setStatus(MailOutboxStatusEnum.SENDING);              // dispatcher mort en plein envoi
+        m.setNextAttemptAt(LocalDateTime.now().minusMinutes(1)); // bail expiré
+        outbox.save(m);
+
+        MailOutbox leased = new MailOutbox("other@example.com", "Sujet", "Corps");
+        leased.setStatus(MailOutboxStatusEnum.SENDING);
+        leased.setNextAttemptAt(LocalDateTime.now().plusMinutes(1)); // bail en cours
+        outbox.save(leased);
+
+        assertEquals(1, dispatcher.drain());
+        assertEquals(MailOutboxStatusEnum.SENT, outbox.findById(m.getId()).orElseThrow().getStatus());
+        assertEquals(MailOutboxStatusEnum.SENDING, outbox.findById(leased.getId()).orElseThrow().getStatus());
+    }
+
+    /** Ferme les fenêtres de digest en cours, comme si elles étaient écoulées. */
+    private void expireDigestWindows() {
+        for (MailOutbox m : outbox.findAll()) {
+            m.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            outbox.save(m);
+        }
+    }
+
+    @Test
+    void digest_coalescesAssignmentsPerRecipient() {
+        ReflectionTestUtils.setField(mailService, "digestWindowMs", 60_000L);
+        for (int i = 0; i < 50; i++) {
+            mailService.queueTaskAssignedMail(user("dev@example.com"), task("Sprint " + i), "Alice");
+        }
+        mailService.queueTaskAssignedMail(user("qa@example.com"), task("Recette"), "Bob");
+
+        assertEquals(2, outbox.count(), "une ligne d'outbox par destinataire");
+        assertEquals(0, dispatcher.drain(), "fenêtre de digest pas encore écoulée");
+
+        expireDigestWindows();
+        assertEquals(2, dispatcher.drain());
+
+        var captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender).send(captor.capture(), captor.capture());
+        SimpleMailMessage dev = captor.getAllValues().stream()
+                .filter(m -> m.getTo()[0].equals("dev@example.com")).findFirst().orElseThrow();
+        assertEquals("[PMT] 50 nouvelles tâches assignées", dev.getSubject());
+        assertTrue(dev.getText().contains("- Sprint 0 [PMT"));
+        assertTrue(dev.getText().contains("- Sprint 49 [PMT"));
+
+        SimpleMailMessage qa = captor.getAllValues().stream()
+                .filter(m -> m.getTo()[0].equals("qa@example.com")).findFirst().orElseThrow();
+        assertEquals("[PMT] Nouvelle tâche assignée: Recette", qa.getSubject());
+        assertTrue(qa.getText().contains("Une tâche vient de vous être assignée"));
+        assertTrue(qa.getText().contains("par Bob"));
+    }
+
+    @Test
+    void digest_afterWindowClosed_startsNewMessage() {
+        ReflectionTestUtils.setField(mailService, "digestWindowMs", 60_000L);
+        mailService.queueTaskAssignedMail(user("dev@example.com"), task("Avant"), "Alice");
+        expireDigestWindows();
+        mailService.queueTaskAssignedMail(user("dev@example.com"), task("Après"), "Alice");
+
+        assertEquals(2, outbox.count());
+        assertEquals(1, outbox.findAll().stream().filter(m -> m.getBody().contains("Après")).count());
+    }
+
+    @Test
+    void backoff_isExponential_andCapped() {
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 5000L);
+        assertEquals(1000, dispatcher.backoffMs(1));
+        assertEquals(2000, dispatcher.backoffMs(2));
+        assertEquals(4000, dispatcher.backoffMs(3));
+        assertEquals(5000, dispatcher.backoffMs(4));
+        assertEquals(5000, dispatcher.backoffMs(100));
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMs", 5000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 600000L);
+    }
+
+    @Test
+    void purge_removesOldSentMessages() {
+        MailOutbox old = new MailOutbox("dev@example.com", "Sujet", "Corps");
+        old.setStatus(MailOutboxStatusEnum.SENT);
+        old.setSentAt(LocalDateTime.now().minusDays(30));
+        outbox.save(old);
+        MailOutbox pending = outbox.save(new MailOutbox("dev@example.com", "Sujet", "Corps"));
+
+        dispatcher.purge();
+
+        assertFalse(outbox.existsById(old.getId()));
+        assertTrue(outbox.existsById(pending.getId()));
+    }
+}
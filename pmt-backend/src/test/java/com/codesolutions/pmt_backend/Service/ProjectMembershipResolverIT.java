@@ -0,0 +1,187 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.Entity.*;
+import com.codesolutions.pmt_backend.Repository.MemberRoleRow;
+import com.codesolutions.pmt_backend.Repository.ProjectMemberRepository;
+import com.codesolutions.pmt_backend.Repository.ProjectRepository;
+import com.codesolutions.pmt_backend.Repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * IT pour ProjectMembershipResolver :
+ * - appartenance visible dès l'invitation (unitaire et en masse), retirée à la suppression
+ * - contrôles répétés servis par le cache, sans requête SQL
+ * - une écriture annulée (rollback) ne reste pas en cache
+ * - un chargement concurrent d'une invalidation ne remet pas l'état d'avant en cache
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ProjectMembershipResolverIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectMembershipResolver membership;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private ProjectMemberRepository memberRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private String tag;
+    private Project project;
+
+    @BeforeEach
+    void seed() {
+        tag = UUID.randomUUID().toString().substring(0, 8);
+        User owner = seedUser("owner");
+        project = new Project();
+        project.setName("Membres " + tag);
+        project.setOwner(owner);
+        project.setStartDate(LocalDate.now());
+        project = projectRepo.save(project);
+    }
+
+    private User seedUser(String name) {
+        User u = new User();
+        u.setUsername("acl-" + name + "-" + tag);
+        u.setEmail("acl-" + name + "-" + tag + "@example.com");
+        u.setPassword("pwd");
+        return userRepo.save(u);
+    }
+
+    private ProjectMember addMember(User u, String role) {
+        ProjectMember m = new ProjectMember();
+        m.setProject(project);
+        m.setUser(u);
+        m.setRole(role);
+        return memberRepo.save(m);
+    }
+
+    @Test
+    void invite_isVisible_andRepeatedChecksHitTheCache() throws Exception {
+        User dev = seedUser("dev");
+        assertFalse(membership.isMember(project.getId(), dev.getId())); // met en cache "aucun membre"
+
+        mockMvc.perform(post("/api/projects/{id}/invite", project.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"" + dev.getEmail() + "\"}"))
+                .andExpect(status().isCreated());
+        assertTrue(membership.isMember(project.getId(), dev.getId()));
+        assertEquals(Optional.of(RoleEnum.MEMBER), membership.roleOf(project.getId(), dev.getId()));
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(membership.isMember(project.getId(), dev.getId()));
+            assertFalse(membership.isMember(project.getId(), project.getOwner().getId()));
+        }
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        // seconde invitation : refusée sur la lecture en cache
+        mockMvc.perform(post("/api/projects/{id}/invite", project.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"" + dev.getEmail() + "\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void roles_andRemoval() {
+        User admin = seedUser("admin");
+        User observer = seedUser("observer");
+        User legacy = seedUser("legacy");
+        addMember(admin, "ADMIN");
+        ProjectMember obs = addMember(observer, "OBSERVER");
+        addMember(legacy, "chef"); // rôle hors RoleEnum
+
+        assertTrue(membership.hasRole(project.getId(), admin.getId(), RoleEnum.ADMIN, RoleEnum.MEMBER));
+        assertFalse(membership.hasRole(project.getId(), observer.getId(), RoleEnum.ADMIN, RoleEnum.MEMBER));
+        assertEquals(Optional.of(RoleEnum.OBSERVER), membership.roleOf(project.getId(), legacy.getId()));
+        assertFalse(membership.hasRole(project.getId(), UUID.randomUUID(), RoleEnum.values()));
+
+        memberRepo.delete(obs);
+        assertFalse(membership.isMember(project.getId(), observer.getId()));
+        assertTrue(membership.isMember(project.getId(), admin.getId()));
+    }
+
+    @Test
+    void rolledBackInsert_doesNotStayCached() {
+        User ghost = seedUser("ghost");
+        new TransactionTemplate(txManager).executeWithoutResult(status -> {
+            addMember(ghost, "MEMBER");
+            // relu (et mis en cache) dans la transaction, qui voit sa propre écriture
+            assertTrue(membership.isMember(project.getId(), ghost.getId()));
+            status.setRollbackOnly();
+        });
+        assertFalse(membership.isMember(project.getId(), ghost.getId()));
+    }
+
+    @Test
+    void loadRacingAnEvict_doesNotCacheTheStaleRoles() {
+        UUID pid = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        ProjectMemberRepository repo = Mockito.mock(ProjectMemberRepository.class);
+        ProjectMembershipResolver resolver = new ProjectMembershipResolver(repo,
+                new ConcurrentMapCacheManager(ProjectMembershipResolver.CACHE));
+        // 1er chargement : lit l'état d'avant, puis la suppression du membre commit (evict) avant le put
+        Mockito.when(repo.findRolesByProjectId(pid))
+                .thenAnswer(inv -> {
+                    resolver.evict(pid);
+                    return List.of(new MemberRoleRow(removed, "ADMIN"));
+                })
+                .thenReturn(List.of());
+
+        assertTrue(resolver.isMember(pid, removed)); // lecture en vol : état d'avant, mais pas mis en cache
+        assertFalse(resolver.isMember(pid, removed));
+        assertFalse(resolver.isMember(pid, removed)); // cette fois servi par le cache
+        Mockito.verify(repo, Mockito.times(2)).findRolesByProjectId(pid);
+    }
+
+    @Test
+    void bulkInvite_isVisible() throws Exception {
+        User a = seedUser("bulk-a");
+        User b = seedUser("bulk-b");
+        assertFalse(membership.isMember(project.getId(), a.getId()));
+
+        mockMvc.perform(post("/api/projects/{id}/invite/bulk", project.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"email\": \"" + a.getEmail() + "\"}, {\"email\": \"" + b.getEmail() + "\"}]"))
+                .andExpect(status().isOk());
+        assertTrue(membership.isMember(project.getId(), a.getId()));
+        assertTrue(membership.isMember(project.getId(), b.getId()));
+    }
+}
@@ -0,0 +1,202 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.DTO.ProjectStatsDTO;
+import com.codesolutions.pmt_backend.Entity.*;
+import com.codesolutions.pmt_backend.Repository.ProjectRepository;
+import com.codesolutions.pmt_backend.Repository.TaskRepository;
+import com.codesolutions.pmt_backend.Repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * IT pour ProjectTaskCounters et GET /api/projects/{id}/stats :
+ * - compteurs maintenus par création / modification / suppression / import en masse
+ * - réconciliation : rien à corriger après des écritures via l'API, dérive corrigée sinon,
+ *   sans écraser une écriture concurrente
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ProjectTaskCountersIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectTaskCounters counters;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Project project;
+    private User dev;
+
+    @BeforeEach
+    void seed() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        dev = new User();
+        dev.setUsername("stats-" + tag);
+        dev.setEmail("stats-" + tag + "@example.com");
+        dev.setPassword("pwd");
+        dev = userRepo.save(dev);
+
+        project = new Project();
+        project.setName("Stats " + tag);
+        project.setOwner(dev);
+        project.setStartDate(LocalDate.now());
+        project = projectRepo.save(project);
+    }
+
+    private UUID create(String json) throws Exception {
+        String body = mockMvc.perform(post("/api/projects/{pid}/tasks", project.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return UUID.fromString(MAPPER.readTree(body).get("id").asText());
+    }
+
+    private ProjectStatsDTO stats() throws Exception {
+        String body = mockMvc.perform(get("/api/projects/{pid}/stats", project.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return MAPPER.readValue(body, ProjectStatsDTO.class);
+    }
+
+    @Test
+    void writesThroughApi_keepCountersExact() throws Exception {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        UUID late = create("""
+                {"title":"En retard","priority":"HIGH","deadline":"%s","assigneeId":"%s"}
+                """.formatted(yesterday, dev.getId()));
+        UUID soon = create("""
+                {"title":"Bientôt","priority":"LOW","deadline":"%s"}
+                """.formatted(LocalDate.now().plusDays(3)));
+        UUID gone = create("{\"title\":\"Supprimée\",\"status\":\"IN_PROGRESS\"}");
+
+        // Terminée : sort de la charge et du retard
+        mockMvc.perform(patch("/api/projects/{pid}/tasks/{tid}", project.getId(), soon)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/projects/{pid}/tasks/{tid}", project.getId(), gone))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/projects/{pid}/tasks/bulk", project.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"title":"Import 1","assigneeEmail":"%s"},
+                                 {"title":"Import 2","status":"IN_PROGRESS"},
+                                 {"id":"%s","priority":"MEDIUM"}]
+                                """.formatted(dev.getEmail(), late)))
+                .andExpect(status().isOk());
+
+        ProjectStatsDTO s = stats();
+        assertEquals(4, s.total());
+        assertEquals(Map.of("TODO", 2L, "IN_PROGRESS", 1L, "DONE", 1L), s.byStatus());
+        assertEquals(Map.of("LOW", 1L, "MEDIUM", 3L, "HIGH", 0L), s.byPriority());
+        assertEquals(1, s.overdue());
+        assertEquals(Map.of(dev.getId().toString(), 2L, ProjectTaskCounters.UNASSIGNED, 1L), s.openByAssignee());
+
+        assertFalse(counters.reconcile(project.getId()), "aucune dérive après des écritures via l'API");
+        assertEquals(s, stats());
+    }
+
+    @Test
+    void reconcile_correctsDrift_andInitializesUncountedProject() throws Exception {
+        // Tâches écrites sans passer par TaskController : projet jamais compté
+        for (int i = 0; i < 3; i++) {
+            Task t = new Task();
+            t.setProject(project);
+            t.setTitle("Direct " + i);
+            t.setStatus(i == 0 ? TaskStatusEnum.DONE : TaskStatusEnum.TODO);
+            t.setPriority(TaskPriorityEnum.LOW);
+            t.setDeadline(LocalDate.now().minusDays(2));
+            taskRepo.save(t);
+        }
+        ProjectStatsDTO initial = stats();
+        assertEquals(3, initial.total());
+        assertEquals(2, initial.overdue());
+
+        // Nouvelle écriture directe : les compteurs dérivent, la réconciliation corrige
+        Task t = new Task();
+        t.setProject(project);
+        t.setTitle("Direct 3");
+        t.setPriority(TaskPriorityEnum.HIGH);
+        t.setAssignee(dev);
+        taskRepo.save(t);
+        assertEquals(3, stats().total());
+
+        counters.reconcileAll();
+        ProjectStatsDTO fixed = stats();
+        assertEquals(4, fixed.total());
+        assertEquals(1, fixed.byPriority().get("HIGH"));
+        assertEquals(1, fixed.openByAssignee().get(dev.getId().toString()));
+        assertFalse(counters.reconcile(project.getId()));
+    }
+
+    private Task directTodo(String title) {
+        Task t = new Task();
+        t.setProject(project);
+        t.setTitle(title);
+        t.setStatus(TaskStatusEnum.TODO);
+        t.setPriority(TaskPriorityEnum.MEDIUM); // buckets de la tâche créée via l'API : lignes existantes
+        return taskRepo.save(t);
+    }
+
+    @Test
+    void reconcile_keepsConcurrentWriteDelta() throws Exception {
+        create("{\"title\":\"Via API\"}");
+        directTodo("Hors compteurs"); // dérive : TODO stocké 1, réel 2
+
+        CompletableFuture<Boolean> reconcile = new TransactionTemplate(txManager).execute(status -> {
+            // Écriture en cours, non validée : lignes assignee/none, priority/MEDIUM, status/TODO verrouillées
+            // (un bucket nouveau serait protégé par le verrou d'intervalle de MySQL, absent de H2)
+            Task t = directTodo("Concurrente");
+            counters.created(project.getId(), t);
+            CompletableFuture<Boolean> pending = CompletableFuture.supplyAsync(() -> counters.reconcile(project.getId()));
+            try {
+                Thread.sleep(300); // la réconciliation attend le verrou
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return pending;
+        });
+
+        assertTrue(reconcile.get(10, TimeUnit.SECONDS));
+        assertEquals(3L, stats().byStatus().get("TODO"), "delta de l'écriture concurrente conservé");
+        assertFalse(counters.reconcile(project.getId()));
+    }
+
+    @Test
+    void unknownProject_returns404() throws Exception {
+        mockMvc.perform(get("/api/projects/{pid}/stats", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Project not found"));
+    }
+}
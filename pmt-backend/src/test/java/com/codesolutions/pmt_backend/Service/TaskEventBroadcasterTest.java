@@ -0,0 +1,144 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.DTO.TaskDTO;
+import com.codesolutions.pmt_backend.Entity.TaskPriorityEnum;
+import com.codesolutions.pmt_backend.Entity.TaskStatusEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Registre SSE : routage par projet, ordre, éviction des clients lents, figés ou déconnectés. */
+public class TaskEventBroadcasterTest {
+
+    private final TaskEventBroadcaster broadcaster = new TaskEventBroadcaster(2, 2, 200);
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    /** Emitter qui mémorise les envois ; bloque tant que "release" n'est pas ouvert. */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new CopyOnWriteArrayList<>();
+        final CountDownLatch release;
+        final CountDownLatch received;
+
+        RecordingEmitter(int expected, boolean blocking) {
+            this.received = new CountDownLatch(expected);
+            this.release = new CountDownLatch(blocking ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            builder.build().forEach(d -> sent.add(String.valueOf(d.getData())));
+            received.countDown();
+        }
+    }
+
+    private static TaskChangedEvent created(UUID projectId, String title) {
+        return TaskChangedEvent.created(new TaskDTO(UUID.randomUUID(), projectId, title, null, TaskStatusEnum.TODO,
+                TaskPriorityEnum.LOW, null, null, null, null, null, null, null, null));
+    }
+
+    @Test
+    void deliversInOrder_onlyToSubscribersOfTheProject() throws Exception {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        RecordingEmitter onA = new RecordingEmitter(2, false);
+        RecordingEmitter onB = new RecordingEmitter(1, false);
+        broadcaster.register(a, onA);
+        broadcaster.register(b, onB);
+
+        broadcaster.onTaskChanged(created(a, "premier"));
+        broadcaster.onTaskChanged(TaskChangedEvent.deleted(a, UUID.randomUUID()));
+
+        assertTrue(onA.received.await(5, TimeUnit.SECONDS));
+        String stream = String.join("", onA.sent);
+        assertTrue(stream.indexOf("event:task.created") < stream.indexOf("event:task.deleted"), stream);
+        assertFalse(onB.received.await(200, TimeUnit.MILLISECONDS), "aucun événement pour un autre projet");
+    }
+
+    @Test
+    void slowConsumer_isEvicted_whenItsBufferIsFull() {
+        UUID p = UUID.randomUUID();
+        RecordingEmitter slow = new RecordingEmitter(1, true);
+        broadcaster.register(p, slow);
+
+        // 1 en cours d'envoi (bloqué) + 2 en tampon ; le suivant déborde
+        for (int i = 0; i < 4; i++) broadcaster.onTaskChanged(created(p, "t" + i));
+
+        assertEquals(0, broadcaster.subscriberCount(p));
+        slow.release.countDown();
+    }
+
+    @Test
+    void stalledSends_areEvicted_andFreeTheSenderPool() throws Exception {
+        UUID p = UUID.randomUUID();
+        RecordingEmitter stalled1 = new RecordingEmitter(1, true);
+        RecordingEmitter stalled2 = new RecordingEmitter(1, true);
+        broadcaster.register(p, stalled1);
+        broadcaster.register(p, stalled2);
+        broadcaster.onTaskChanged(created(p, "figé")); // occupe les 2 threads d'envoi
+
+        UUID other = UUID.randomUUID();
+        RecordingEmitter healthy = new RecordingEmitter(1, false);
+        broadcaster.register(other, healthy);
+        broadcaster.onTaskChanged(created(other, "en attente d'un thread"));
+        assertFalse(healthy.received.await(300, TimeUnit.MILLISECONDS), "pool occupé par les envois figés");
+
+        broadcaster.evictStalled(); // envois en cours depuis plus de 200 ms
+        assertEquals(0, broadcaster.subscriberCount(p));
+        assertTrue(healthy.received.await(5, TimeUnit.SECONDS), "threads libérés pour les autres abonnés");
+        assertEquals(1, broadcaster.subscriberCount(other));
+    }
+
+    @Test
+    void watchdog_runsOnItsOwnTimer() throws Exception {
+        ReflectionTestUtils.setField(broadcaster, "heartbeatMs", 60_000L);
+        ReflectionTestUtils.setField(broadcaster, "watchdogMs", 50L);
+        broadcaster.start(); // sans scheduler Spring : le chien de garde passe seul
+
+        UUID p = UUID.randomUUID();
+        RecordingEmitter stalled = new RecordingEmitter(1, true);
+        broadcaster.register(p, stalled);
+        broadcaster.onTaskChanged(created(p, "figé"));
+
+        for (int i = 0; i < 100 && broadcaster.subscriberCount(p) > 0; i++) Thread.sleep(20);
+        assertEquals(0, broadcaster.subscriberCount(p));
+    }
+
+    @Test
+    void brokenConnection_isRemoved() throws Exception {
+        UUID p = UUID.randomUUID();
+        CountDownLatch failed = new CountDownLatch(1);
+        broadcaster.register(p, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                failed.countDown();
+                throw new IOException("Broken pipe");
+            }
+        });
+        assertEquals(1, broadcaster.subscriberCount(p));
+
+        broadcaster.heartbeat();
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && broadcaster.subscriberCount(p) > 0; i++) Thread.sleep(20);
+        assertEquals(0, broadcaster.subscriberCount(p));
+    }
+}
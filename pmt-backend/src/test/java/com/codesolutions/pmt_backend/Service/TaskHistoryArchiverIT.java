@@ -0,0 +1,177 @@
+package com.codesolutions.pmt_backend.Service;
+
+import com.codesolutions.pmt_backend.DTO.TaskHistoryDTO;
+import com.codesolutions.pmt_backend.Entity.*;
+import com.codesolutions.pmt_backend.Repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IT pour TaskHistoryArchiver :
+ * - déplacement par lots des lignes anciennes vers task_history_archive
+ * - lectures (liste, recherche paginée, export) qui fusionnent chaud et froid
+ * - suppression d'une tâche : historique archivé compris
+ */
+@SpringBootTest
+public class TaskHistoryArchiverIT {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2001, 1, 1, 0, 0);
+
+    @Autowired
+    private TaskHistoryArchiver archiver;
+
+    @Autowired
+    private TaskHistoryRepository historyRepo;
+
+    @Autowired
+    private TaskHistoryArchiveRepository archiveRepo;
+
+    @Autowired
+    private TaskRepository taskRepo;
+
+    @Autowired
+    private ProjectRepository projectRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    private UUID projectId;
+    private UUID taskId;
+
+    @BeforeEach
+    void seed() {
+        ReflectionTestUtils.setField(archiver, "batchSize", 2); // plusieurs lots
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+
+        User owner = new User();
+        owner.setUsername("archive-" + tag);
+        owner.setEmail("archive-" + tag + "@example.com");
+        owner.setPassword("pwd");
+        owner = userRepo.save(owner);
+
+        Project p = new Project();
+        p.setName("Archive " + tag);
+        p.setOwner(owner);
+        p.setStartDate(LocalDate.now());
+        p = projectRepo.save(p);
+        projectId = p.getId();
+
+        Task t = new Task();
+        t.setProject(p);
+        t.setTitle("Archivée");
+        t.setStatus(TaskStatusEnum.TODO);
+        t.setPriority(TaskPriorityEnum.LOW);
+        t = taskRepo.save(t);
+        taskId = t.getId();
+
+        // 5 lignes en 2000 (à archiver), 2 lignes récentes
+        for (int i = 0; i < 7; i++) {
+            TaskHistory h = new TaskHistory();
+            h.setTask(t);
+            h.setChangedBy(owner);
+            h.setChangeLog(i == 0 ? "CREATED" : "UPDATED " + i);
+            h.setChanges(List.of(TaskFieldChange.of("title", "v" + i, "v" + (i + 1))));
+            h.setChangedAt(i < 5 ? LocalDateTime.of(2000, 1, 1 + i, 12, 0) : LocalDateTime.now().minusMinutes(7 - i));
+            historyRepo.save(h);
+        }
+    }
+
+    private long hotRows() {
+        return historyRepo.findAll().stream().filter(h -> h.getTask().getId().equals(taskId)).count();
+    }
+
+    @Test
+    void archive_movesOldRowsInBatches_andReadsMergeHotAndCold() {
+        int moved = archiver.archiveBefore(CUTOFF);
+
+        assertTrue(moved >= 5, "au moins les 5 lignes de la tâche (d'autres IT peuvent en avoir)");
+        assertEquals(2, hotRows());
+        assertEquals(0, archiver.archiveBefore(CUTOFF), "idempotent : plus rien à déplacer");
+
+        // Liste complète : plus récent d'abord, changements structurés conservés
+        List<TaskHistoryDTO> all = historyRepo.findDtoByTaskId(taskId);
+        assertEquals(7, all.size());
+        assertTrue(all.get(0).changedAt().isAfter(CUTOFF));
+        assertEquals("CREATED", all.get(6).changeLog().substring(0, 7));
+        assertNotNull(all.get(6).changedByEmail(), "auteur retrouvé pour une ligne archivée");
+
+        // Recherche paginée : la page traverse la frontière chaud/froid
+        TaskHistoryFilter byTask = new TaskHistoryFilter(taskId, null, null, null);
+        List<TaskHistoryDTO> page1 = historyRepo.search(byTask, null, null, 3);
+        assertEquals(all.subList(0, 3).stream().map(TaskHistoryDTO::id).toList(),
+                page1.stream().map(TaskHistoryDTO::id).toList());
+        TaskHistoryDTO last = page1.get(2);
+        List<TaskHistoryDTO> page2 = historyRepo.search(byTask, last.changedAt(), last.id(), 10);
+        assertEquals(all.subList(3, 7).stream().map(TaskHistoryDTO::id).toList(),
+                page2.stream().map(TaskHistoryDTO::id).toList());
+
+        // Filtre de date : uniquement l'archive
+        List<TaskHistoryDTO> old = historyRepo.search(new TaskHistoryFilter(taskId, null, null, CUTOFF), null, null, 10);
+        assertEquals(5, old.size());
+
+        // Export : ordre chronologique, chaud et froid
+        List<TaskHistoryDTO> exported = tx.execute(s -> {
+            try (Stream<TaskHistoryDTO> rows = historyRepo.streamDtoByProjectId(projectId)) {
+                return rows.toList();
+            }
+        });
+        assertEquals(7, exported.size());
+        assertTrue(exported.get(0).changedAt().isBefore(CUTOFF));
+        assertTrue(exported.get(6).changedAt().isAfter(CUTOFF));
+    }
+
+    @Test
+    void search_pagesOfOne_walkHotAndColdInOrder() {
+        archiver.archiveBefore(CUTOFF);
+        // Trois lignes d'archive à la même date : départagées par id, comme dans l'ORDER BY SQL
+        LocalDateTime tie = LocalDateTime.of(2000, 6, 1, 12, 0);
+        for (int i = 0; i < 3; i++) {
+            TaskHistoryArchive a = new TaskHistoryArchive();
+            a.setId(UUID.randomUUID());
+            a.setTaskId(taskId);
+            a.setChangeLog("UPDATED tie " + i);
+            a.setChangedAt(tie);
+            archiveRepo.save(a);
+        }
+
+        List<TaskHistoryDTO> all = historyRepo.findDtoByTaskId(taskId);
+        assertEquals(10, all.size());
+
+        // Chaque page ne lit que limit lignes par table : le parcours page à page redonne la liste complète
+        TaskHistoryFilter byTask = new TaskHistoryFilter(taskId, null, null, null);
+        List<UUID> walked = new java.util.ArrayList<>();
+        List<TaskHistoryDTO> page = historyRepo.search(byTask, null, null, 1);
+        while (!page.isEmpty()) {
+            walked.add(page.get(0).id());
+            page = historyRepo.search(byTask, page.get(0).changedAt(), page.get(0).id(), 1);
+        }
+        assertEquals(all.stream().map(TaskHistoryDTO::id).toList(), walked);
+    }
+
+    @Test
+    void deleteByTaskId_removesArchivedRowsToo() {
+        archiver.archiveBefore(CUTOFF);
+        long archivedBefore = archiveRepo.count();
+
+        int deleted = tx.execute(s -> historyRepo.deleteByTaskId(taskId));
+
+        assertEquals(7, deleted);
+        assertEquals(archivedBefore - 5, archiveRepo.count());
+        assertTrue(historyRepo.findDtoByTaskId(taskId).isEmpty());
+    }
+}